@@ -1,22 +1,18 @@
 package jp.co.sss.lms.controller;
 
-import java.io.IOException;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseBody;
-
-import com.fasterxml.jackson.core.JsonParseException;
 
-import jakarta.servlet.http.HttpSession;
-import jp.co.sss.lms.dto.InfoDto;
 import jp.co.sss.lms.service.InfoService;
-import net.arnx.jsonic.JSON;
+import jp.co.sss.lms.service.InfoService.InfoCache;
 
 /**
  * お知らせコントローラー
- * 
+ *
  * @author 東京ITスクール
  */
 @Controller
@@ -25,26 +21,26 @@ public class InfoController {
 
 	@Autowired
 	private InfoService infoService;
-	@Autowired
-	private HttpSession session;
 
 	/**
-	 * お知らせ情報取得
-	 * 
+	 * お知らせ情報取得<br>
+	 * ETag・Last-Modifiedを付与し、お知らせに変更がない場合は304（Not Modified）を返す。
+	 *
 	 * @return お知らせ情報
-	 * @throws JsonParseException
-	 * @throws IOException
 	 */
 	@RequestMapping(path = "")
-	@ResponseBody
-	public String index() throws JsonParseException, IOException {
+	public ResponseEntity<String> index() {
 
 		// お知らせ情報を取得
-		InfoDto infoDto = infoService.getInfo();
-		// セッションに格納
-		session.setAttribute("infoDto", infoDto);
-		// JSON形式で返す
-		return JSON.encode(infoDto);
+		InfoCache infoCache = infoService.getInfoCache();
+		// JSON形式で返す（ブラウザには毎回再検証させる）
+		BodyBuilder bodyBuilder = ResponseEntity.ok()
+				.cacheControl(CacheControl.noCache().cachePrivate())
+				.eTag(infoCache.getETag());
+		if (infoCache.getLastModified() >= 0) {
+			bodyBuilder.lastModified(infoCache.getLastModified());
+		}
+		return bodyBuilder.body(infoCache.getJson());
 
 	}
 
@@ -44,17 +44,18 @@ public class LoginController {
 	 * ログイン画面 初期表示
 	 * 
 	 * @param loginForm
+	 * @param model
 	 * @return ログイン画面
 	 */
 	@RequestMapping(path = "")
-	public String index(@ModelAttribute LoginForm loginForm) {
+	public String index(@ModelAttribute LoginForm loginForm, Model model) {
 		// 既にログインしている場合、権限ごとの初期画面に遷移
 		if (loginUserUtil.isLogin()) {
 			return loginUserUtil.sendDisp();
 		}
 		// お知らせ情報取得
 		InfoDto infoDto = infoService.getInfo();
-		session.setAttribute("infoDto", infoDto);
+		model.addAttribute("infoDto", infoDto);
 		return "login/index";
 	}
 
@@ -75,12 +76,14 @@ public class LoginController {
 		session.removeAttribute("sessionTimeout");
 		// 入力チェック
 		if (result.hasErrors()) {
+			model.addAttribute("infoDto", infoService.getInfo());
 			return "login/index";
 		}
 		// ログイン判定
 		String message = loginService.getLoginInfo(loginForm.getLoginId(), loginForm.getPassword());
 		if (!message.isEmpty()) {
 			model.addAttribute("loginFaild", message);
+			model.addAttribute("infoDto", infoService.getInfo());
 			return "login/index";
 		}
 		// ログイン後の遷移先
@@ -0,0 +1,49 @@
+package jp.co.sss.lms.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import jp.co.sss.lms.util.SqlMetricsInterceptor;
+import net.arnx.jsonic.JSON;
+
+/**
+ * 実行統計コントローラー
+ *
+ * @author 東京ITスクール
+ */
+@Controller
+@RequestMapping("/metrics")
+public class MetricsController {
+
+	@Autowired
+	private SqlMetricsInterceptor sqlMetricsInterceptor;
+
+	/**
+	 * SQL実行統計取得<br>
+	 * ステートメントID毎の統計を処理時間の合計の長い順に返す。
+	 *
+	 * @return SQL実行統計（JSON）
+	 */
+	@RequestMapping(path = "/sql")
+	public ResponseEntity<String> sql() {
+
+		Map<String, Object> sqlStat = new LinkedHashMap<>();
+		sqlStat.put("requestCount", sqlMetricsInterceptor.getRequestCount());
+		sqlStat.put("requestStatementCount", sqlMetricsInterceptor.getRequestStatementCount());
+		sqlStat.put("requestStatementMax", sqlMetricsInterceptor.getRequestStatementMax());
+		sqlStat.put("statements", sqlMetricsInterceptor.getSqlStatDtoList());
+		return ResponseEntity.ok()
+				.cacheControl(CacheControl.noStore())
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(JSON.encode(sqlStat));
+
+	}
+
+}
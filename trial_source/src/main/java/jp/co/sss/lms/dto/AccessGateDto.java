@@ -0,0 +1,37 @@
+package jp.co.sss.lms.dto;
+
+import java.io.Serializable;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.SessionScope;
+
+import lombok.Data;
+
+/**
+ * アクセス判定情報DTO<br>
+ * ログインセッションフィルターの判定結果をセッション単位で保持する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+@SessionScope
+@Data
+public class AccessGateDto implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+
+	/** 判定対象のユーザーID */
+	private Integer userId;
+	/** 判定に使用した最終パスワード変更日時（ミリ秒） */
+	private Long passwordChangeTime;
+	/** パスワード有効期限（ミリ秒） */
+	private Long passwordExpireTime;
+	/** 企業ID（契約同意判定用） */
+	private Integer companyId;
+	/** 未同意の契約有無 */
+	private Boolean disagreementExists;
+	/** 契約同意判定の有効期限（ミリ秒） */
+	private Long consentExpireTime;
+
+}
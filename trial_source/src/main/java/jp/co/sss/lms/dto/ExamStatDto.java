@@ -0,0 +1,22 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * 試験統計DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamStatDto {
+
+	/** 試験・セクション紐づけID */
+	private Integer examSectionId;
+	/** 採点対象の件数 */
+	private Integer markCount;
+	/** 得点の合計 */
+	private Long scoreSum;
+	/** 直近に登録された試験結果ID（カンマ区切り） */
+	private String recentExamResultIds;
+
+}
@@ -47,12 +47,8 @@ public class LoginUserDto implements Serializable {
 	private String courseName;
 	/** セキュリティ同意フラグ */
 	private Short securityAgreeFlg;
-	/** パスワードNG回数 */
-	private Integer passwordNgCount;
 	/** パスワード変更日付 */
 	private Date passwordChangeDate;
-	/** パスワードNG日付 */
-	private String passwordNgDate;
 	/** サポート表示 */
 	private Short supportAvailable;
 	/** メールアドレス */
@@ -0,0 +1,34 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * SQL実行統計DTO
+ *
+ * @author 東京ITスクール
+ */
+@Data
+public class SqlStatDto {
+
+	/** マッパーのステートメントID */
+	private String statementId;
+	/** 実行件数 */
+	private Long callCount;
+	/** エラー件数 */
+	private Long errorCount;
+	/** 取得・更新件数の合計 */
+	private Long rowCount;
+	/** 処理時間の合計（ミリ秒） */
+	private Long totalMillis;
+	/** 処理時間の最大（ミリ秒） */
+	private Long maxMillis;
+	/** 処理時間の分布（上限ミリ秒、以下の件数の累計） */
+	private Map<String, Long> histogram;
+	/** 1リクエストで繰り返し実行されたリクエスト件数 */
+	private Long repeatCount;
+	/** 最後に繰り返し実行されたURI */
+	private String repeatUri;
+
+}
@@ -24,6 +24,10 @@ public class TMailQue {
 	private String subject;
 	/** 本文 */
 	private String body;
+	/** 送信失敗回数（send_fail_count integer NOT NULL DEFAULT 0） */
+	private Integer sendFailCount;
+	/** 次回送信日時（next_send_date timestamp。送信中の期限・再送日時） */
+	private Date nextSendDate;
 	/** 削除フラグ */
 	private Short deleteFlg;
 	/** 初回作成者 */
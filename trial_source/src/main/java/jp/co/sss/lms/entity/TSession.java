@@ -0,0 +1,26 @@
+package jp.co.sss.lms.entity;
+
+import lombok.Data;
+
+/**
+ * セッションテーブルエンティティ
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class TSession {
+
+	/** セッションID */
+	private String sessionId;
+	/** 作成日時（ミリ秒） */
+	private Long creationTime;
+	/** 最終アクセス日時（ミリ秒） */
+	private Long lastAccessTime;
+	/** 有効期間（秒） */
+	private Integer maxInactiveInterval;
+	/** 有効期限（ミリ秒） */
+	private Long expiryTime;
+	/** 属性（セッションコーデックで符号化したもの） */
+	private byte[] attributes;
+
+}
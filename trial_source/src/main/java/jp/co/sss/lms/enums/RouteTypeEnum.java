@@ -0,0 +1,17 @@
+package jp.co.sss.lms.enums;
+
+/**
+ * URI種別
+ *
+ * @author 東京ITスクール
+ */
+public enum RouteTypeEnum {
+
+	/** 静的リソース（js, css等） */
+	STATIC,
+	/** ログインしていなくても遷移できる画面 */
+	PUBLIC,
+	/** ログインおよび権限が必要な画面 */
+	PROTECTED,;
+
+}
@@ -1,6 +1,7 @@
 package jp.co.sss.lms.filter;
 
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
 
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
@@ -9,14 +10,20 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import jp.co.sss.lms.enums.RouteTypeEnum;
 import jp.co.sss.lms.util.LoggingUtil;
+import jp.co.sss.lms.util.MetricsUtil;
+import jp.co.sss.lms.util.RoutePermissionUtil;
+import jp.co.sss.lms.util.SqlMetricsInterceptor;
 
 /**
  * ロギングフィルター
@@ -29,8 +36,25 @@ public class LoggingFilter implements Filter {
 	
 	@Autowired
 	private LoggingUtil loggingUtil;
+	@Autowired
+	private RoutePermissionUtil routePermissionUtil;
+	@Autowired
+	private SqlMetricsInterceptor sqlMetricsInterceptor;
+	@Autowired
+	private MetricsUtil metricsUtil;
+
+	/** 構造化アクセスログを出力する場合true（falseの場合は従来の詳細ログ） */
+	@Value("${setting.log.access.structured:true}")
+	private boolean structured;
+	/** アクセスログのサンプリング率（0.0～1.0） */
+	@Value("${setting.log.access.sampling:1.0}")
+	private double samplingRate;
+	/** サンプリングに関わらず出力する処理時間（ミリ秒） */
+	@Value("${setting.log.access.slowMillis:1000}")
+	private long slowMillis;
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
+	private final Logger accessLogger = LoggerFactory.getLogger("jp.co.sss.lms.access");
 
 	@Override
 	public void init(FilterConfig filterConfig) throws ServletException {
@@ -40,24 +64,53 @@ public class LoggingFilter implements Filter {
 	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
 			throws IOException, ServletException {
 		HttpServletRequest httpReq = ((HttpServletRequest) request);
-		String uri = httpReq.getRequestURI();
-		if (isStatic(uri)) {
+		if (routePermissionUtil.getRouteType(httpReq) == RouteTypeEnum.STATIC) {
 			chain.doFilter(request, response);
 			return;
 		}
-		StringBuffer sb = new StringBuffer("\n[before]");
-		loggingUtil.appendLog(sb);
-		logger.info(sb.toString());
-
-		chain.doFilter(request, response);
+		long start = System.nanoTime();
+		if (!structured) {
+			StringBuilder sb = new StringBuilder("\n[before]");
+			loggingUtil.appendLog(sb);
+			logger.info(sb.toString());
+		}
 
-		sb = new StringBuffer("\n[after]");
-		loggingUtil.appendLog(sb);
-		logger.info(sb.toString());
+		boolean failed = false;
+		try {
+			chain.doFilter(request, response);
+		} catch (Throwable t) {
+			// 未処理の例外はこの後のエラー画面への転送で500となるため、ここで500として扱う
+			failed = true;
+			throw t;
+		} finally {
+			long elapsedNanos = System.nanoTime() - start;
+			long elapsedMillis = elapsedNanos / 1_000_000;
+			int sqlCount = sqlMetricsInterceptor.completeRequest(httpReq);
+			HttpServletResponse httpRes = (HttpServletResponse) response;
+			int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : httpRes.getStatus();
+			metricsUtil.recordRequest(httpReq, httpRes, status, elapsedNanos);
+			if (structured) {
+				// エラー、処理時間超過のリクエストはサンプリングに関わらず出力
+				if (status >= 400 || elapsedMillis >= slowMillis || isSampled()) {
+					accessLogger.info(loggingUtil.getAccessLog(status, elapsedMillis, sqlCount));
+				}
+			} else {
+				StringBuilder sb = new StringBuilder("\n[after]");
+				loggingUtil.appendLog(sb);
+				sb.append("\n[elapsedMs]").append(elapsedMillis);
+				sb.append("\n[sqlCount]").append(sqlCount);
+				logger.info(sb.toString());
+			}
+		}
 	}
 
-	private boolean isStatic(String uri) {
-		return uri.contains("/js/") || uri.contains("/css/") || uri.contains("/fonts/") || uri.contains("/img/");
+	/**
+	 * サンプリング対象のリクエストか判定
+	 * 
+	 * @return 対象の場合true
+	 */
+	private boolean isSampled() {
+		return samplingRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < samplingRate;
 	}
 
 	@Override
@@ -0,0 +1,71 @@
+package jp.co.sss.lms.filter;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jp.co.sss.lms.util.MetricsUtil;
+
+/**
+ * 実行統計フィルター<br>
+ * 内部ポート（setting.metrics.port）へのリクエストは実行統計のURIのみ受け付け、Prometheusのテキスト形式で返す。
+ * セッション・ログイン判定・アクセスログの対象外とするため、他のフィルターより前に実行する。
+ * 内部ポート以外へのリクエストはそのまま処理する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class MetricsFilter implements Filter {
+
+	/** 実行統計のURI（コンテキストパスからの相対パス） */
+	private static final String METRICS_PATH = "/metrics";
+	/** Prometheusのテキスト形式 */
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	@Autowired
+	private MetricsUtil metricsUtil;
+
+	/** 内部ポート（0以下の場合は使用しない） */
+	@Value("${setting.metrics.port:0}")
+	private int metricsPort;
+
+	@Override
+	public void init(FilterConfig filterConfig) throws ServletException {
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		if (metricsPort <= 0 || request.getLocalPort() != metricsPort) {
+			chain.doFilter(request, response);
+			return;
+		}
+		HttpServletRequest httpReq = (HttpServletRequest) request;
+		HttpServletResponse httpRes = (HttpServletResponse) response;
+		if (!httpReq.getRequestURI().equals(httpReq.getContextPath() + METRICS_PATH)) {
+			httpRes.setStatus(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+		httpRes.setContentType(CONTENT_TYPE);
+		httpRes.setHeader("Cache-Control", "no-store");
+		httpRes.getWriter().write(metricsUtil.getPrometheusText());
+	}
+
+	@Override
+	public void destroy() {
+	}
+
+}
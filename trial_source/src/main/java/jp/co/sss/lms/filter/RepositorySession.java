@@ -0,0 +1,172 @@
+package jp.co.sss.lms.filter;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * 外部に保持するセッション<br>
+ * 1リクエストの間だけ使用し、属性の変更はリクエストの終了時（レスポンスの確定前）にまとめて保存する。
+ *
+ * @author 東京ITスクール
+ */
+class RepositorySession implements HttpSession {
+
+	/** セッションID */
+	private String id;
+	/** 作成日時（ミリ秒） */
+	private final long creationTime;
+	/** 前回のアクセス日時（ミリ秒） */
+	private final long lastAccessedTime;
+	/** 有効期間（秒） */
+	private int maxInactiveInterval;
+	/** セッション属性 */
+	private final Map<String, Object> attributes;
+	/** サーブレットコンテキスト */
+	private final ServletContext servletContext;
+	/** 新規の場合true */
+	private final boolean isNew;
+	/** 無効化された場合true */
+	private boolean invalidated;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param id                  セッションID
+	 * @param creationTime        作成日時（ミリ秒）
+	 * @param lastAccessedTime    前回のアクセス日時（ミリ秒）
+	 * @param maxInactiveInterval 有効期間（秒）
+	 * @param attributes          セッション属性
+	 * @param servletContext      サーブレットコンテキスト
+	 * @param isNew               新規の場合true
+	 */
+	RepositorySession(String id, long creationTime, long lastAccessedTime,
+			int maxInactiveInterval, Map<String, Object> attributes,
+			ServletContext servletContext, boolean isNew) {
+		this.id = id;
+		this.creationTime = creationTime;
+		this.lastAccessedTime = lastAccessedTime;
+		this.maxInactiveInterval = maxInactiveInterval;
+		this.attributes = Collections.synchronizedMap(new LinkedHashMap<>(attributes));
+		this.servletContext = servletContext;
+		this.isNew = isNew;
+	}
+
+	@Override
+	public long getCreationTime() {
+		checkValid();
+		return creationTime;
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public long getLastAccessedTime() {
+		checkValid();
+		return lastAccessedTime;
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return servletContext;
+	}
+
+	@Override
+	public void setMaxInactiveInterval(int interval) {
+		maxInactiveInterval = interval;
+	}
+
+	@Override
+	public int getMaxInactiveInterval() {
+		return maxInactiveInterval;
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		checkValid();
+		return attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		checkValid();
+		synchronized (attributes) {
+			return Collections.enumeration(attributes.keySet().stream().toList());
+		}
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		checkValid();
+		if (value == null) {
+			attributes.remove(name);
+		} else {
+			attributes.put(name, value);
+		}
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		checkValid();
+		attributes.remove(name);
+	}
+
+	@Override
+	public void invalidate() {
+		checkValid();
+		invalidated = true;
+		attributes.clear();
+	}
+
+	@Override
+	public boolean isNew() {
+		checkValid();
+		return isNew;
+	}
+
+	/**
+	 * セッションIDを変更する
+	 *
+	 * @param newId 新しいセッションID
+	 */
+	void changeId(String newId) {
+		id = newId;
+	}
+
+	/**
+	 * 無効化されたか判定
+	 *
+	 * @return 無効化された場合true
+	 */
+	boolean isInvalidated() {
+		return invalidated;
+	}
+
+	/**
+	 * セッション属性の複製を取得
+	 *
+	 * @return セッション属性
+	 */
+	Map<String, Object> getAttributeMap() {
+		synchronized (attributes) {
+			return new LinkedHashMap<>(attributes);
+		}
+	}
+
+	/**
+	 * 無効化されていないことを確認
+	 */
+	private void checkValid() {
+		if (invalidated) {
+			throw new IllegalStateException("session already invalidated: " + id);
+		}
+	}
+
+}
@@ -0,0 +1,455 @@
+package jp.co.sss.lms.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import jakarta.servlet.http.HttpSession;
+import jp.co.sss.lms.entity.TSession;
+import jp.co.sss.lms.mapper.TSessionMapper;
+import jp.co.sss.lms.util.DbSessionRepository;
+import jp.co.sss.lms.util.SessionCodec;
+import jp.co.sss.lms.util.SessionRepository;
+
+/**
+ * セッションリポジトリフィルター<br>
+ * 保持方式がDBの場合、アプリケーションサーバーのセッションに代えて外部に保持するセッションを提供する。
+ * 属性を符号化したバイト列が読み込み時から変わった場合のみ保存し、変わらない場合は最終アクセス日時が
+ * 一定時間以上古くなった時のみ更新する。保存はレスポンスの確定前（リダイレクト・エラー・フラッシュ）
+ * およびリクエストの終了時に行う。
+ * セッションスコープのBeanが置き換えたリクエストを参照するよう、RequestContextFilterより前に実行する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 50)
+public class SessionRepositoryFilter implements Filter {
+
+	/** 保持方式：アプリケーションサーバー */
+	public static final String SESSION_STORE_CONTAINER = "container";
+	/** 保持方式：DB */
+	public static final String SESSION_STORE_DB = "db";
+
+	@Autowired
+	private TSessionMapper tSessionMapper;
+
+	/** 保持方式 */
+	@Value("${setting.session.store:container}")
+	private String sessionStoreName;
+	/** セッションIDのCookie名 */
+	@Value("${setting.session.cookie.name:LMSSESSION}")
+	private String cookieName;
+	/** 属性が変わらない場合に最終アクセス日時を更新する間隔（秒） */
+	@Value("${setting.session.touch.seconds:60}")
+	private long touchSeconds;
+	/** セッションの有効期間 */
+	@Value("${server.servlet.session.timeout:30m}")
+	private Duration timeout;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** 保持方式（アプリケーションサーバーの場合null） */
+	private SessionRepository sessionRepository;
+	/** 削除スレッド */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * 保持方式の初期化・削除スレッドの開始
+	 */
+	@PostConstruct
+	public void init() {
+		if (SESSION_STORE_CONTAINER.equals(sessionStoreName)) {
+			return;
+		} else if (SESSION_STORE_DB.equals(sessionStoreName)) {
+			sessionRepository = new DbSessionRepository(tSessionMapper);
+		} else {
+			throw new IllegalStateException("setting.session.store=" + sessionStoreName);
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "session-purge");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(() -> {
+			try {
+				sessionRepository.deleteExpired();
+			} catch (Exception e) {
+				logger.error("有効期限切れのセッションの削除に失敗しました。", e);
+			}
+		}, 1, 1, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * 削除スレッドの終了
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public void init(FilterConfig filterConfig) throws ServletException {
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		if (sessionRepository == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+		SessionRequest sessionRequest = new SessionRequest((HttpServletRequest) request,
+				(HttpServletResponse) response);
+		SessionResponse sessionResponse = new SessionResponse((HttpServletResponse) response,
+				sessionRequest);
+		try {
+			chain.doFilter(sessionRequest, sessionResponse);
+		} finally {
+			sessionRequest.commit();
+		}
+	}
+
+	/**
+	 * セッションを置き換えたリクエスト
+	 */
+	private final class SessionRequest extends HttpServletRequestWrapper {
+
+		/** レスポンス */
+		private final HttpServletResponse response;
+		/** リクエストの開始日時（ミリ秒） */
+		private final long accessTime = System.currentTimeMillis();
+		/** セッション */
+		private RepositorySession session;
+		/** 保存済みの属性（未保存の場合null） */
+		private byte[] storedAttributes;
+		/** 保存済みの最終アクセス日時（ミリ秒） */
+		private long storedLastAccessTime;
+		/** 保存済みの有効期間（秒） */
+		private int storedMaxInactiveInterval;
+		/** リクエストのセッションを読み込んだ場合true */
+		private boolean requestedSessionLoaded;
+		/** リクエストのセッションが有効な場合true */
+		private boolean requestedSessionValid;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param request
+		 * @param response
+		 */
+		SessionRequest(HttpServletRequest request, HttpServletResponse response) {
+			super(request);
+			this.response = response;
+		}
+
+		@Override
+		public HttpSession getSession() {
+			return getSession(true);
+		}
+
+		@Override
+		public HttpSession getSession(boolean create) {
+			discardInvalidated();
+			if (session != null) {
+				return session;
+			}
+			if (!requestedSessionLoaded) {
+				requestedSessionLoaded = true;
+				loadRequestedSession();
+				if (session != null) {
+					return session;
+				}
+			}
+			if (!create) {
+				return null;
+			}
+			session = new RepositorySession(UUID.randomUUID().toString(), accessTime, accessTime,
+					(int) timeout.toSeconds(), new LinkedHashMap<>(), getServletContext(), true);
+			storedAttributes = null;
+			addCookie(session.getId(), -1);
+			return session;
+		}
+
+		@Override
+		public String changeSessionId() {
+			if (getSession(false) == null) {
+				throw new IllegalStateException("no session");
+			}
+			if (storedAttributes != null) {
+				sessionRepository.deleteById(session.getId());
+				storedAttributes = null;
+			}
+			session.changeId(UUID.randomUUID().toString());
+			addCookie(session.getId(), -1);
+			return session.getId();
+		}
+
+		@Override
+		public String getRequestedSessionId() {
+			Cookie[] cookies = getCookies();
+			if (cookies != null) {
+				for (Cookie cookie : cookies) {
+					if (cookieName.equals(cookie.getName())) {
+						return cookie.getValue();
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public boolean isRequestedSessionIdValid() {
+			if (!requestedSessionLoaded) {
+				getSession(false);
+			}
+			return requestedSessionValid && session != null && !session.isInvalidated();
+		}
+
+		@Override
+		public boolean isRequestedSessionIdFromCookie() {
+			return getRequestedSessionId() != null;
+		}
+
+		@Override
+		public boolean isRequestedSessionIdFromURL() {
+			return false;
+		}
+
+		/**
+		 * リクエストのセッションを読み込む
+		 */
+		private void loadRequestedSession() {
+			String sessionId = getRequestedSessionId();
+			if (sessionId == null) {
+				return;
+			}
+			TSession tSession = sessionRepository.findById(sessionId);
+			if (tSession == null) {
+				return;
+			}
+			session = new RepositorySession(sessionId, tSession.getCreationTime(),
+					tSession.getLastAccessTime(), tSession.getMaxInactiveInterval(),
+					SessionCodec.decode(tSession.getAttributes()), getServletContext(), false);
+			storedAttributes = tSession.getAttributes();
+			storedLastAccessTime = tSession.getLastAccessTime();
+			storedMaxInactiveInterval = tSession.getMaxInactiveInterval();
+			requestedSessionValid = true;
+		}
+
+		/**
+		 * 無効化されたセッションを削除する
+		 */
+		private void discardInvalidated() {
+			if (session != null && session.isInvalidated()) {
+				if (storedAttributes != null) {
+					sessionRepository.deleteById(session.getId());
+				}
+				session = null;
+				storedAttributes = null;
+			}
+		}
+
+		/**
+		 * セッションを保存する<br>
+		 * 属性が変わった場合は全体を保存し、変わらない場合は最終アクセス日時のみ更新する。
+		 */
+		void commit() {
+			if (session != null && session.isInvalidated()) {
+				discardInvalidated();
+				addCookie("", 0);
+				return;
+			}
+			if (session == null) {
+				return;
+			}
+			byte[] attributes = SessionCodec.encode(session.getAttributeMap());
+			int maxInactiveInterval = session.getMaxInactiveInterval();
+			TSession tSession = new TSession();
+			tSession.setSessionId(session.getId());
+			tSession.setLastAccessTime(accessTime);
+			tSession.setMaxInactiveInterval(maxInactiveInterval);
+			tSession.setExpiryTime(maxInactiveInterval > 0
+					? accessTime + TimeUnit.SECONDS.toMillis(maxInactiveInterval)
+					: Long.MAX_VALUE);
+			if (storedAttributes == null || !Arrays.equals(storedAttributes, attributes)
+					|| storedMaxInactiveInterval != maxInactiveInterval) {
+				tSession.setCreationTime(session.getCreationTime());
+				tSession.setAttributes(attributes);
+				sessionRepository.save(tSession);
+				storedAttributes = attributes;
+				storedLastAccessTime = accessTime;
+				storedMaxInactiveInterval = maxInactiveInterval;
+			} else if (accessTime - storedLastAccessTime >= TimeUnit.SECONDS.toMillis(touchSeconds)) {
+				sessionRepository.updateLastAccessTime(tSession);
+				storedLastAccessTime = accessTime;
+			}
+		}
+
+		/**
+		 * セッションIDのCookieを追加する
+		 *
+		 * @param value  セッションID
+		 * @param maxAge 有効期間（秒、ブラウザ終了までの場合-1）
+		 */
+		private void addCookie(String value, long maxAge) {
+			if (response.isCommitted()) {
+				return;
+			}
+			ResponseCookie cookie = ResponseCookie.from(cookieName, value)
+					.path(getContextPath() + "/")
+					.maxAge(maxAge)
+					.httpOnly(true)
+					.secure(isSecure())
+					.sameSite("Lax")
+					.build();
+			response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+		}
+
+	}
+
+	/**
+	 * レスポンスの確定前にセッションを保存するレスポンス
+	 */
+	private static final class SessionResponse extends HttpServletResponseWrapper {
+
+		/** リクエスト */
+		private final SessionRequest request;
+		/** 出力ストリーム */
+		private ServletOutputStream outputStream;
+		/** 出力ライター */
+		private PrintWriter writer;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param response
+		 * @param request
+		 */
+		SessionResponse(HttpServletResponse response, SessionRequest request) {
+			super(response);
+			this.request = request;
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			request.commit();
+			super.sendRedirect(location);
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			request.commit();
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			request.commit();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			request.commit();
+			super.flushBuffer();
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (outputStream == null) {
+				ServletOutputStream delegate = super.getOutputStream();
+				outputStream = new ServletOutputStream() {
+
+					@Override
+					public void write(int b) throws IOException {
+						delegate.write(b);
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) throws IOException {
+						delegate.write(b, off, len);
+					}
+
+					@Override
+					public void flush() throws IOException {
+						request.commit();
+						delegate.flush();
+					}
+
+					@Override
+					public void close() throws IOException {
+						request.commit();
+						delegate.close();
+					}
+
+					@Override
+					public boolean isReady() {
+						return delegate.isReady();
+					}
+
+					@Override
+					public void setWriteListener(WriteListener writeListener) {
+						delegate.setWriteListener(writeListener);
+					}
+				};
+			}
+			return outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (writer == null) {
+				writer = new PrintWriter(super.getWriter()) {
+
+					@Override
+					public void flush() {
+						request.commit();
+						super.flush();
+					}
+
+					@Override
+					public void close() {
+						request.commit();
+						super.close();
+					}
+				};
+			}
+			return writer;
+		}
+
+	}
+
+}
@@ -1,5 +1,10 @@
 package jp.co.sss.lms.filter;
 
+import org.apache.catalina.connector.Connector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.validation.Validator;
@@ -22,4 +27,26 @@ public class WebConfig implements WebMvcConfigurer {
 		return validator;
 	}
 
+	/**
+	 * 実行統計用の内部ポートを追加する<br>
+	 * 内部ポートへのリクエストは{@link MetricsFilter}が実行統計のみ返す。
+	 * 
+	 * @param metricsPort    内部ポート（0以下の場合は追加しない）
+	 * @param metricsAddress 内部ポートで待ち受けるアドレス
+	 * @return Tomcatの設定
+	 */
+	@Bean
+	public WebServerFactoryCustomizer<TomcatServletWebServerFactory> metricsPortCustomizer(
+			@Value("${setting.metrics.port:0}") int metricsPort,
+			@Value("${setting.metrics.address:127.0.0.1}") String metricsAddress) {
+		return factory -> {
+			if (metricsPort > 0) {
+				Connector connector = new Connector();
+				connector.setPort(metricsPort);
+				connector.setProperty("address", metricsAddress);
+				factory.addAdditionalTomcatConnectors(connector);
+			}
+		};
+	}
+
 }
@@ -1,7 +1,7 @@
 package jp.co.sss.lms.form;
 
-import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import lombok.Data;
 
@@ -30,12 +30,12 @@ public class AttendanceForm {
 	
 	/** 飯塚麻美子 - Task.26 */
 	/** 出勤・退勤時間 - 時間(プルダウン) */
-	private LinkedHashMap<Integer, String> hour;
+	private Map<Integer, String> hour;
 	/** 出勤・退勤時間 - 分(プルダウン) */
-	private LinkedHashMap<Integer, String> minute;
+	private Map<Integer, String> minute;
 	
 	/** 中抜け時間(プルダウン) */
-	private LinkedHashMap<Integer, String> blankTimes;
+	private Map<Integer, String> blankTimes;
 	/** 日次の勤怠フォームリスト */
 	private List<DailyAttendanceForm> attendanceList;
 
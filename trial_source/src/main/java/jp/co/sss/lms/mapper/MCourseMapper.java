@@ -25,11 +25,13 @@ public interface MCourseMapper {
 			@Param("deleteFlg") Short deleteFlg);
 
 	/**
-	 * コース数取得
+	 * コース情報のバージョン取得<br>
+	 * コースマスタ・セクションマスタ・カテゴリマスタの最終更新日時とセクション件数を連結した文字列とする。
 	 * 
 	 * @param courseId
-	 * @return コース数
+	 * @param deleteFlg
+	 * @return コース情報のバージョン（コースが存在しない場合null）
 	 */
-	Integer getCourseCount(Integer courseId);
+	String getCourseVersion(@Param("courseId") Integer courseId, @Param("deleteFlg") Short deleteFlg);
 
 }
@@ -23,4 +23,13 @@ public interface MExamMapper {
 	ExamQuestionDto getExamQuestion(@Param("examId") Integer examId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * 試験定義のバージョン取得<br>
+	 * 試験マスタ・試験問題マスタの最終更新日時と問題件数を連結した文字列とする。
+	 * 
+	 * @param examId
+	 * @return 試験定義のバージョン（試験が存在しない場合null）
+	 */
+	String getExamVersion(@Param("examId") Integer examId);
+
 }
@@ -1,10 +1,15 @@
 package jp.co.sss.lms.mapper;
 
 import java.util.Date;
+import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import jp.co.sss.lms.dto.SectionServiceDailyReportDto;
+import jp.co.sss.lms.dto.SectionServiceDeliverablesSectionDto;
+import jp.co.sss.lms.dto.SectionServiceExamDto;
+import jp.co.sss.lms.dto.SectionServiceFileDto;
 import jp.co.sss.lms.dto.SectionServiceSectionDto;
 
 /**
@@ -16,7 +21,8 @@ import jp.co.sss.lms.dto.SectionServiceSectionDto;
 public interface MSectionMapper {
 
 	/**
-	 * セクションサービスDTO取得
+	 * セクションサービスDTO取得<br>
+	 * セクションの情報のみ取得する。ファイル・試験・レポート・成果物はそれぞれのリスト取得で取得する。
 	 * 
 	 * @param sectionId
 	 * @param accountId
@@ -28,6 +34,45 @@ public interface MSectionMapper {
 			@Param("accountId") Integer accountId, @Param("lmsUserId") Integer lmsUserId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * セクションファイルDTOリスト取得
+	 * 
+	 * @param sectionId
+	 * @return セクションファイルDTOリスト
+	 */
+	List<SectionServiceFileDto> getSectionFileList(@Param("sectionId") Integer sectionId);
+
+	/**
+	 * セクションサービス試験DTOリスト取得
+	 * 
+	 * @param sectionId
+	 * @param deleteFlg
+	 * @return セクションサービス試験DTOリスト
+	 */
+	List<SectionServiceExamDto> getSectionExamList(@Param("sectionId") Integer sectionId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * セクションサービスレポートDTOリスト取得（コース）
+	 * 
+	 * @param sectionId
+	 * @param lmsUserId
+	 * @param deleteFlg
+	 * @return セクションサービスレポートDTOリスト
+	 */
+	List<SectionServiceDailyReportDto> getSectionReportList(@Param("sectionId") Integer sectionId,
+			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * セクションサービス成果物セクションDTOリスト取得
+	 * 
+	 * @param sectionId
+	 * @param deleteFlg
+	 * @return セクションサービス成果物セクションDTOリスト
+	 */
+	List<SectionServiceDeliverablesSectionDto> getSectionDeliverablesList(
+			@Param("sectionId") Integer sectionId, @Param("deleteFlg") Short deleteFlg);
+
 	/**
 	 * セクション件数取得
 	 * 
@@ -37,13 +82,11 @@ public interface MSectionMapper {
 	Integer getSectionCount(@Param("sectionId") Integer sectionId);
 
 	/**
-	 * セクション件数取得（コースID）
+	 * セクション日付リスト取得（コースID）
 	 * 
 	 * @param courseId
-	 * @param date
-	 * @return セクション件数
+	 * @return セクション日付リスト（重複なし）
 	 */
-	Integer getSectionCountByCourseId(@Param("courseId") Integer courseId,
-			@Param("date") Date date);
+	List<Date> getSectionDateList(@Param("courseId") Integer courseId);
 
 }
@@ -42,6 +42,16 @@ public interface MUserMapper {
 	 */
 	String getLoginId(@Param("userId") Integer userId, @Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * パスワード（ハッシュ値）取得
+	 * 
+	 * @param loginId
+	 * @param deleteFlg
+	 * @return パスワード（ハッシュ値）
+	 */
+	String getPasswordByLoginId(@Param("loginId") String loginId,
+			@Param("deleteFlg") Short deleteFlg);
+
 	/**
 	 * パスワード更新
 	 * 
@@ -50,6 +60,15 @@ public interface MUserMapper {
 	 */
 	Boolean updatePassword(MUser mUser);
 
+	/**
+	 * パスワード（ハッシュ値）更新<br>
+	 * ハッシュ方式の移行用のため、パスワード変更日付等は更新しない。
+	 * 
+	 * @param mUser
+	 * @return 更新結果
+	 */
+	Boolean updatePasswordHash(MUser mUser);
+
 	/**
 	 * パスワード変更日付更新
 	 * 
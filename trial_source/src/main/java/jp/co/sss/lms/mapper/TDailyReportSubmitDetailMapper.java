@@ -1,5 +1,7 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -14,21 +16,23 @@ import jp.co.sss.lms.entity.TDailyReportSubmitDetail;
 public interface TDailyReportSubmitDetailMapper {
 
 	/**
-	 * 日報提出詳細件数取得（日報提出ＩＤ）
+	 * 日報提出詳細取得（日報提出ＩＤ）
 	 * 
 	 * @param dailyReportSubmitId
-	 * @return 件数
+	 * @return 日報提出詳細エンティティリスト（項目番号順）
 	 */
-	Integer getCountByDailyReportSubmitId(
+	List<TDailyReportSubmitDetail> findByDailyReportSubmitId(
 			@Param("dailyReportSubmitId") Integer dailyReportSubmitId);
 
 	/**
-	 * 日報提出詳細削除
+	 * 日報提出詳細削除（指定した項目番号より後）
 	 * 
 	 * @param dailyReportSubmitId
+	 * @param fieldNum
 	 * @return 削除結果
 	 */
-	Boolean delete(@Param("dailyReportSubmitId") Integer dailyReportSubmitId);
+	Boolean deleteAfterFieldNum(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("fieldNum") Integer fieldNum);
 
 	/**
 	 * 日報提出詳細登録
@@ -38,4 +42,15 @@ public interface TDailyReportSubmitDetailMapper {
 	 */
 	Boolean insert(TDailyReportSubmitDetail tDailyReportSubmitDetail);
 
+	/**
+	 * 日報提出詳細一括登録・更新<br>
+	 * 1文で、登録済みの項目番号は更新し、未登録の項目番号は登録する。
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param tDailyReportSubmitDetailList
+	 * @return 登録結果
+	 */
+	Boolean upsertBatch(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("list") List<TDailyReportSubmitDetail> tDailyReportSubmitDetailList);
+
 }
@@ -1,6 +1,9 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import jp.co.sss.lms.entity.TExamResultDetail;
 
@@ -20,4 +23,13 @@ public interface TExamResultDetailMapper {
 	 */
 	Boolean insert(TExamResultDetail tExamResultDetail);
 
+	/**
+	 * 試験結果詳細一括登録<br>
+	 * 1文で全件を登録する。
+	 * 
+	 * @param tExamResultDetailList
+	 * @return 登録結果
+	 */
+	Boolean insertBatch(@Param("list") List<TExamResultDetail> tExamResultDetailList);
+
 }
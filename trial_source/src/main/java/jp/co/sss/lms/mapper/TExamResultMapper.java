@@ -1,5 +1,6 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
@@ -8,6 +9,7 @@ import org.apache.ibatis.annotations.Param;
 import jp.co.sss.lms.dto.ExamDetailDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
 import jp.co.sss.lms.dto.ExamResultDto;
+import jp.co.sss.lms.dto.ExamStatDto;
 import jp.co.sss.lms.entity.TExamResult;
 
 /**
@@ -58,6 +60,26 @@ public interface TExamResultMapper {
 	 */
 	Boolean insert(TExamResult tExamResult);
 
+	/**
+	 * 試験結果登録（採点対象判定）<br>
+	 * 同一試験・同一ユーザーの試験結果が存在しない場合のみ採点対象として登録する。
+	 * 登録した試験結果IDと採点フラグを設定する。
+	 * 
+	 * @param tExamResult
+	 * @return 登録結果
+	 */
+	Boolean insertWithMarkFlg(TExamResult tExamResult);
+
+	/**
+	 * 試験結果登録のロック取得<br>
+	 * 同一試験・同一ユーザーの試験結果登録をトランザクション終了まで直列化する。
+	 * 
+	 * @param examSectionId
+	 * @param lmsUserId
+	 */
+	void lockExamResult(@Param("examSectionId") Integer examSectionId,
+			@Param("lmsUserId") Integer lmsUserId);
+
 	/**
 	 * 試験件数取得
 	 * 
@@ -69,4 +91,17 @@ public interface TExamResultMapper {
 	Integer getExamCount(@Param("examSectionId") Integer examSectionId,
 			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * 試験統計DTO取得<br>
+	 * 採点対象の試験結果を試験・セクション紐づけID毎に集計する。
+	 * 集計と同じ時点の、指定日時以降に登録された試験結果IDも取得する。
+	 * 
+	 * @param examSectionId 試験・セクション紐づけID（nullの場合は全件）
+	 * @param since         試験結果IDを取得する登録日時の下限
+	 * @param deleteFlg
+	 * @return 試験統計DTOリスト
+	 */
+	List<ExamStatDto> getExamStatList(@Param("examSectionId") Integer examSectionId,
+			@Param("since") Date since, @Param("deleteFlg") Short deleteFlg);
+
 }
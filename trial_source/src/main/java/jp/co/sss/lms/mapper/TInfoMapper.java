@@ -20,4 +20,11 @@ public interface TInfoMapper {
 	 */
 	TInfo findBySingleResult();
 
+	/**
+	 * お知らせのバージョン取得（最終更新日時・件数）
+	 * 
+	 * @return バージョン
+	 */
+	String getInfoVersion();
+
 }
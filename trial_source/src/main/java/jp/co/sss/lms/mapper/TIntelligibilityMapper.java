@@ -1,5 +1,7 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -14,21 +16,23 @@ import jp.co.sss.lms.entity.TIntelligibility;
 public interface TIntelligibilityMapper {
 
 	/**
-	 * 理解度件数取得（日報提出ID）
+	 * 理解度取得（日報提出ID）
 	 * 
 	 * @param dailyReportSubmitId
-	 * @return 件数
+	 * @return 理解度エンティティリスト（項目番号順）
 	 */
-	Integer getCountByDailyReportSubmitId(
+	List<TIntelligibility> findByDailyReportSubmitId(
 			@Param("dailyReportSubmitId") Integer dailyReportSubmitId);
 
 	/**
-	 * 理解度削除
+	 * 理解度削除（指定した項目番号より後）
 	 * 
 	 * @param dailyReportSubmitId
+	 * @param fieldNum
 	 * @return 削除結果
 	 */
-	Boolean delete(@Param("dailyReportSubmitId") Integer dailyReportSubmitId);
+	Boolean deleteAfterFieldNum(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("fieldNum") Integer fieldNum);
 
 	/**
 	 * 理解度登録
@@ -38,4 +42,15 @@ public interface TIntelligibilityMapper {
 	 */
 	Boolean insert(TIntelligibility tIntelligibility);
 
+	/**
+	 * 理解度一括登録・更新<br>
+	 * 1文で、登録済みの項目番号は更新し、未登録の項目番号は登録する。
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param tIntelligibilityList
+	 * @return 登録結果
+	 */
+	Boolean upsertBatch(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("list") List<TIntelligibility> tIntelligibilityList);
+
 }
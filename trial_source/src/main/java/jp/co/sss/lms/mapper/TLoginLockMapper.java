@@ -0,0 +1,51 @@
+package jp.co.sss.lms.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * ログインロックテーブルマッパー
+ *
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TLoginLockMapper {
+
+	/**
+	 * ロック判定
+	 *
+	 * @param loginId
+	 * @param lockCount
+	 * @param lockMinute
+	 * @return ロック中の場合true
+	 */
+	Boolean isLocked(@Param("loginId") String loginId, @Param("lockCount") Integer lockCount,
+			@Param("lockMinute") Integer lockMinute);
+
+	/**
+	 * パスワードNG回数加算（ロック期間・リセット期間を過ぎている場合は1回目とする）
+	 *
+	 * @param loginId
+	 * @param lockCount
+	 * @param lockMinute
+	 * @param resetMinute
+	 * @return 加算後のNG回数
+	 */
+	Integer addFailure(@Param("loginId") String loginId, @Param("lockCount") Integer lockCount,
+			@Param("lockMinute") Integer lockMinute, @Param("resetMinute") Integer resetMinute);
+
+	/**
+	 * ログインロック削除
+	 *
+	 * @param loginId
+	 */
+	void delete(@Param("loginId") String loginId);
+
+	/**
+	 * 期限切れのログインロック削除
+	 *
+	 * @param minute
+	 */
+	void deleteExpired(@Param("minute") Integer minute);
+
+}
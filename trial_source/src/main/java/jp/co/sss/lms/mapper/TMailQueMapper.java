@@ -1,6 +1,10 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import jp.co.sss.lms.entity.TMailQue;
 
@@ -20,4 +24,64 @@ public interface TMailQueMapper {
 	 */
 	Boolean insert(TMailQue tMailQue);
 
+	/**
+	 * 未送信のメール送信キューを送信中として確保する<br>
+	 * 次回送信日時を過ぎたキューを1文で取得・更新し（他のトランザクションがロック中の行は読み飛ばす）、
+	 * 次回送信日時を送信中の期限に更新する。行ロックは文の終了時に解放する。
+	 * 送信開始日時より前に登録されたキュー、添付ファイルのあるキュー、送信失敗回数が上限に達したキューは対象外とする。
+	 * 
+	 * @param limit        取得件数
+	 * @param since        送信開始日時
+	 * @param maxFailCount 送信失敗回数の上限
+	 * @param leaseSeconds 送信中の期限（秒）
+	 * @param deleteFlg
+	 * @return メール送信キューリスト
+	 */
+	List<TMailQue> claimUnsent(@Param("limit") Integer limit, @Param("since") Date since,
+			@Param("maxFailCount") Integer maxFailCount, @Param("leaseSeconds") Long leaseSeconds,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 未送信のメール送信キュー件数取得<br>
+	 * 取得対象は{@link #claimUnsent}と同じ（次回送信日時は問わない）。
+	 * 
+	 * @param since        送信開始日時
+	 * @param maxFailCount 送信失敗回数の上限
+	 * @param deleteFlg
+	 * @return 件数
+	 */
+	Integer getUnsentCount(@Param("since") Date since, @Param("maxFailCount") Integer maxFailCount,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 再送待ちのメール送信キュー件数取得<br>
+	 * 未送信のキューのうち、送信に失敗したことのあるもの。
+	 * 
+	 * @param since        送信開始日時
+	 * @param maxFailCount 送信失敗回数の上限
+	 * @param deleteFlg
+	 * @return 件数
+	 */
+	Integer getRetryCount(@Param("since") Date since, @Param("maxFailCount") Integer maxFailCount,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * メール送信キュー送信済み更新（論理削除）
+	 * 
+	 * @param tMailQue
+	 * @return 更新結果
+	 */
+	Boolean updateSent(TMailQue tMailQue);
+
+	/**
+	 * メール送信キュー送信失敗更新<br>
+	 * 送信失敗回数を更新し、次回送信日時を再送間隔後とする。
+	 * 
+	 * @param tMailQue
+	 * @param retrySeconds 再送間隔（秒）
+	 * @return 更新結果
+	 */
+	Boolean updateFailed(@Param("tMailQue") TMailQue tMailQue,
+			@Param("retrySeconds") Long retrySeconds);
+
 }
@@ -0,0 +1,56 @@
+package jp.co.sss.lms.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.entity.TSession;
+
+/**
+ * セッションテーブルマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TSessionMapper {
+
+	/**
+	 * セッション取得（有効期限内）
+	 * 
+	 * @param sessionId
+	 * @param now       現在日時（ミリ秒）
+	 * @return セッションエンティティ
+	 */
+	TSession findById(@Param("sessionId") String sessionId, @Param("now") Long now);
+
+	/**
+	 * セッション登録・更新
+	 * 
+	 * @param tSession
+	 * @return 登録結果
+	 */
+	Boolean upsert(TSession tSession);
+
+	/**
+	 * セッションの最終アクセス日時更新
+	 * 
+	 * @param tSession
+	 * @return 更新結果
+	 */
+	Boolean updateLastAccessTime(TSession tSession);
+
+	/**
+	 * セッション削除
+	 * 
+	 * @param sessionId
+	 */
+	void delete(@Param("sessionId") String sessionId);
+
+	/**
+	 * 有効期限切れのセッション削除
+	 * 
+	 * @param now 現在日時（ミリ秒）
+	 * @return 削除件数
+	 */
+	int deleteExpired(@Param("now") Long now);
+
+}
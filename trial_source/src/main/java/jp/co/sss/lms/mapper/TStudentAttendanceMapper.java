@@ -65,6 +65,15 @@ public interface TStudentAttendanceMapper {
 	 */
 	Boolean update(TStudentAttendance tStudentAttendance);
 
+	/**
+	 * 勤怠情報（受講生入力）一括登録・更新<br>
+	 * 受講生勤怠IDが未設定の行は登録、設定済みの行は更新を1文で行う。
+	 *
+	 * @param tStudentAttendanceList
+	 * @return 登録・更新結果
+	 */
+	Boolean upsertBatch(@Param("list") List<TStudentAttendance> tStudentAttendanceList);
+
 	// 飯塚麻美子 - Task.25
 	/**
 	 * 過去日の勤怠未入力カウント
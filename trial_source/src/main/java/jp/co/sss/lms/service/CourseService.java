@@ -8,8 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import jp.co.sss.lms.dto.CourseServiceCourseDto;
-import jp.co.sss.lms.mapper.MCourseMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.CourseDetailUtil;
 import jp.co.sss.lms.util.LoggingUtil;
 import jp.co.sss.lms.util.MessageUtil;
 
@@ -22,7 +22,7 @@ import jp.co.sss.lms.util.MessageUtil;
 public class CourseService {
 
 	@Autowired
-	private MCourseMapper mCourseMapper;
+	private CourseDetailUtil courseDetailUtil;
 	@Autowired
 	private MessageUtil messageUtil;
 	@Autowired
@@ -37,11 +37,10 @@ public class CourseService {
 	 * @return エラーメッセージ
 	 */
 	public String checkCourseId(Integer courseId) {
-		Integer courseCount = mCourseMapper.getCourseCount(courseId);
-		if (courseCount == 0) {
+		if (!courseDetailUtil.exists(courseId)) {
 			String message = messageUtil.getMessage(Constants.VALID_KEY_ALREADYDELETE,
 					new String[] { "コースID " + courseId });
-			StringBuffer sb = new StringBuffer(message);
+			StringBuilder sb = new StringBuilder(message);
 			loggingUtil.appendLog(sb);
 			logger.info(sb.toString());
 			return message;
@@ -50,7 +49,8 @@ public class CourseService {
 	}
 
 	/**
-	 * コース情報サービス コースDTOの取得
+	 * コース情報サービス コースDTOの取得<br>
+	 * コースDTOは全利用者で共有するため変更しないこと。
 	 * 
 	 * @param courseId
 	 * @return courseServiceCourseDto
@@ -58,8 +58,8 @@ public class CourseService {
 	 */
 	public CourseServiceCourseDto getCourseDetail(Integer courseId) throws ParseException {
 
-		CourseServiceCourseDto courseServiceCourseDto = mCourseMapper.getCourseDetail(courseId,
-				Constants.DB_FLG_FALSE);
+		CourseServiceCourseDto courseServiceCourseDto = courseDetailUtil
+				.getCourseServiceCourseDto(courseId);
 
 		return courseServiceCourseDto;
 
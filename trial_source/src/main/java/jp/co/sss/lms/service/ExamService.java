@@ -1,27 +1,28 @@
 package jp.co.sss.lms.service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jp.co.sss.lms.dto.ExamDetailDto;
-import jp.co.sss.lms.dto.ExamQuestionDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
+import jp.co.sss.lms.dto.ExamResultDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.dto.QuestionDto;
-import jp.co.sss.lms.entity.MQuestion;
 import jp.co.sss.lms.entity.TExamResult;
 import jp.co.sss.lms.entity.TExamResultDetail;
 import jp.co.sss.lms.form.ExamQuestionForm;
-import jp.co.sss.lms.mapper.MExamMapper;
-import jp.co.sss.lms.mapper.MQuestionMapper;
 import jp.co.sss.lms.mapper.TExamResultDetailMapper;
 import jp.co.sss.lms.mapper.TExamResultMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.ExamDefinitionUtil;
+import jp.co.sss.lms.util.ExamDefinitionUtil.ExamDefinition;
+import jp.co.sss.lms.util.ExamStatUtil;
 
 /**
  * 試験情報サービス
@@ -34,11 +35,11 @@ public class ExamService {
 	@Autowired
 	private TExamResultMapper tExamResultMapper;
 	@Autowired
-	private MExamMapper mExamMapper;
-	@Autowired
 	private TExamResultDetailMapper tExamResultDetailMapper;
 	@Autowired
-	private MQuestionMapper mQuestionMapper;
+	private ExamDefinitionUtil examDefinitionUtil;
+	@Autowired
+	private ExamStatUtil examStatUtil;
 	@Autowired
 	private LoginUserDto loginUserDto;
 
@@ -54,10 +55,35 @@ public class ExamService {
 		// 試験詳細DTOを取得
 		ExamDetailDto examDetailDto = tExamResultMapper.getExamDetailDto(examSectionId, lmsUserId,
 				Constants.DB_FLG_FALSE);
+		if (examDetailDto == null) {
+			return null;
+		}
+
+		// 問題数、平均点、点数を設定
+		Integer numOfQuestion = getNumOfQuestion(examDetailDto.getExamId());
+		examDetailDto.setNumOfQuestion(numOfQuestion);
+		examDetailDto.setAvgScore(ExamStatUtil
+				.toPoint(examStatUtil.getExamStat(examSectionId).getAvgScore(), numOfQuestion));
+		for (ExamResultDto examResultDto : examDetailDto.getExamResultDtoList()) {
+			setPoint(examResultDto, numOfQuestion);
+		}
 
 		return examDetailDto;
 	}
 
+	/**
+	 * 試験結果DTOリストの問題数・点数を設定
+	 * 
+	 * @param examResultDtoList
+	 */
+	public void setExamResultPoint(List<ExamResultDto> examResultDtoList) {
+		for (ExamResultDto examResultDto : examResultDtoList) {
+			Integer numOfQuestion = getNumOfQuestion(examResultDto.getExamId());
+			examResultDto.setNumOfQuestion(numOfQuestion);
+			setPoint(examResultDto, numOfQuestion);
+		}
+	}
+
 	/**
 	 * 試験結果詳細情報取得
 	 * 
@@ -70,6 +96,12 @@ public class ExamService {
 		ExamResultDetailDto examResultDetailDto = tExamResultMapper
 				.getExamResultDetail(examResultId, Constants.DB_FLG_FALSE);
 
+		// 問題数、点数を設定
+		Integer numOfQuestion = getNumOfQuestion(examResultDetailDto.getExamId());
+		examResultDetailDto.setNumOfQuestion(numOfQuestion);
+		examResultDetailDto
+				.setPoint(ExamStatUtil.toPoint(examResultDetailDto.getScore(), numOfQuestion));
+
 		// 試験結果詳細を基に試験結果詳細DTO．問題DTOリスト．回答リストを設定
 		for (QuestionDto questionDto : examResultDetailDto.getQuestionDtoList()) {
 			List<String> answerList = new LinkedList<>();
@@ -90,25 +122,19 @@ public class ExamService {
 	 * @param examQuestionForm
 	 */
 	public void setExamQuestionForm(ExamQuestionForm examQuestionForm) {
-		// 試験問題情報を取得
-		ExamQuestionDto examQuestionDto = mExamMapper.getExamQuestion(examQuestionForm.getExamId(),
-				Constants.DB_FLG_FALSE);
-		BeanUtils.copyProperties(examQuestionDto, examQuestionForm);
-		// 試験問題情報を基に試験問題DTO．問題DTOリスト．回答リストを設定
-		for (QuestionDto questionDto : examQuestionForm.getQuestionDtoList()) {
-			List<String> answerList = new LinkedList<>();
-			answerList.add(questionDto.getChoice1());
-			answerList.add(questionDto.getChoice2());
-			answerList.add(questionDto.getChoice3());
-			answerList.add(questionDto.getChoice4());
-			questionDto.setAnswerList(answerList);
-		}
+		// 試験定義を取得し、試験問題DTO．問題DTOリスト．回答リストを設定
+		ExamDefinition examDefinition = examDefinitionUtil
+				.getExamDefinition(examQuestionForm.getExamId());
+		examQuestionForm.setExamId(examDefinition.getExamId());
+		examQuestionForm.setExamName(examDefinition.getExamName());
+		examQuestionForm.setLimitTime(examDefinition.getLimitTime());
+		examQuestionForm.setQuestionDtoList(examDefinition.createQuestionDtoList());
 		// 経過時間の初期化
 		if (examQuestionForm.getTime() == null) {
 			examQuestionForm.setTime(0);
 		}
 		// 回答の再設定
-		int questionCount = examQuestionDto.getQuestionDtoList().size();
+		int questionCount = examDefinition.getQuestionCount();
 		Short[] answerArray = new Short[questionCount];
 		Short[] userAnswer = examQuestionForm.getAnswer();
 		if (userAnswer != null) {
@@ -120,16 +146,20 @@ public class ExamService {
 	}
 
 	/**
-	 * 試験結果登録
+	 * 試験結果登録<br>
+	 * 初回の試験結果のみ採点対象とする。採点対象の判定は登録と同時に行い、
+	 * 同一ユーザーの同時登録はロックで直列化する。試験結果詳細は1文で一括登録する。
 	 * 
 	 * @param examQuestionForm
 	 * @return examResultId
 	 */
+	@Transactional
 	public Integer insert(ExamQuestionForm examQuestionForm) {
 
-		// 試験IDに紐づく試験問題リストを取得
-		List<MQuestion> mQuestionList = mQuestionMapper.findByExamId(examQuestionForm.getExamId(),
-				Constants.DB_FLG_FALSE);
+		// 試験IDに紐づく試験定義を取得
+		ExamDefinition examDefinition = examDefinitionUtil
+				.getExamDefinition(examQuestionForm.getExamId());
+		int questionCount = examDefinition.getMarkQuestionCount();
 
 		// 現在日時情報
 		Date now = new Date();
@@ -138,28 +168,19 @@ public class ExamService {
 		TExamResult tExamResult = new TExamResult();
 
 		// 得点設定
-		Short score = 0;
+		short score = 0;
 		Short[] answerArray = examQuestionForm.getAnswer();
-		for (int i = 0; i < answerArray.length; i++) {
-			if (answerArray[i] != null && answerArray[i] == mQuestionList.get(i).getAnswerNum()) {
+		for (int i = 0; i < answerArray.length && i < questionCount; i++) {
+			if (examDefinition.isCorrect(i, answerArray[i])) {
 				score++;
 			}
 		}
 
-		// 試験結果件数取得
-		Integer examCount = tExamResultMapper.getExamCount(examQuestionForm.getExamSectionId(),
-				loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE);
-
 		// 試験結果の設定
 		tExamResult.setExamSectionId(examQuestionForm.getExamSectionId());
 		tExamResult.setLmsUserId(loginUserDto.getLmsUserId());
 		tExamResult.setScore(score);
 		tExamResult.setTime(examQuestionForm.getTime());
-		if (examCount == 0) {
-			tExamResult.setMarkFlg(Constants.DB_FLG_TRUE);
-		} else {
-			tExamResult.setMarkFlg(Constants.DB_FLG_FALSE);
-		}
 		tExamResult.setAccountId(loginUserDto.getAccountId());
 		tExamResult.setDeleteFlg(Constants.DB_FLG_FALSE);
 		tExamResult.setFirstCreateUser(loginUserDto.getLmsUserId());
@@ -167,21 +188,28 @@ public class ExamService {
 		tExamResult.setLastModifiedUser(loginUserDto.getLmsUserId());
 		tExamResult.setLastModifiedDate(now);
 
-		// 試験結果へ登録
-		tExamResultMapper.insert(tExamResult);
+		// 試験結果へ登録（初回の場合は採点対象）
+		tExamResultMapper.lockExamResult(examQuestionForm.getExamSectionId(),
+				loginUserDto.getLmsUserId());
+		tExamResultMapper.insertWithMarkFlg(tExamResult);
+
+		// 採点対象の場合は試験統計へ加算
+		if (Short.valueOf(Constants.DB_FLG_TRUE).equals(tExamResult.getMarkFlg())) {
+			examStatUtil.add(tExamResult.getExamSectionId(), tExamResult.getExamResultId(), score);
+		}
 
 		// 試験結果詳細登録
-		for (int j = 0; j < mQuestionList.size(); j++) {
+		List<TExamResultDetail> tExamResultDetailList = new ArrayList<>(questionCount);
+		for (int j = 0; j < questionCount; j++) {
 			// 試験結果詳細を生成
 			TExamResultDetail tExamResultDetail = new TExamResultDetail();
 			tExamResultDetail.setExamResultId(tExamResult.getExamResultId());
 			tExamResultDetail.setLmsUserId(loginUserDto.getLmsUserId());
-			tExamResultDetail.setQuestionId(mQuestionList.get(j).getQuestionId());
-			Short reply = 0;
-			try {
-				reply = examQuestionForm.getAnswer()[j];
-			} catch (Exception e) {
-				reply = 0;
+			tExamResultDetail.setQuestionId(examDefinition.getMarkQuestionId(j));
+			// 未回答（null）はそのまま登録し、回答欄がない問題は0とする
+			Short reply = Short.valueOf((short) 0);
+			if (j < answerArray.length) {
+				reply = answerArray[j];
 			}
 			tExamResultDetail.setReply(reply);
 			tExamResultDetail.setAccountId(loginUserDto.getAccountId());
@@ -190,11 +218,42 @@ public class ExamService {
 			tExamResultDetail.setFirstCreateDate(now);
 			tExamResultDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tExamResultDetail.setLastModifiedDate(now);
-			// 試験結果詳細へ登録
-			tExamResultDetailMapper.insert(tExamResultDetail);
+			tExamResultDetailList.add(tExamResultDetail);
+		}
+		// 試験結果詳細へ一括登録
+		if (!tExamResultDetailList.isEmpty()) {
+			tExamResultDetailMapper.insertBatch(tExamResultDetailList);
 		}
 
 		return tExamResult.getExamResultId();
 	}
 
-}
\ No newline at end of file
+	/**
+	 * 問題数を取得
+	 * 
+	 * @param examId
+	 * @return 問題数（試験が存在しない場合null）
+	 */
+	private Integer getNumOfQuestion(Integer examId) {
+		if (examId == null) {
+			return null;
+		}
+		ExamDefinition examDefinition = examDefinitionUtil.getExamDefinition(examId);
+		if (examDefinition == null || examDefinition.getMarkQuestionCount() == 0) {
+			return null;
+		}
+		return examDefinition.getMarkQuestionCount();
+	}
+
+	/**
+	 * 試験結果DTOの点数を設定
+	 * 
+	 * @param examResultDto
+	 * @param numOfQuestion
+	 */
+	private void setPoint(ExamResultDto examResultDto, Integer numOfQuestion) {
+		Double point = ExamStatUtil.toPoint(examResultDto.getScore(), numOfQuestion);
+		examResultDto.setPoint(point == null ? 0 : point);
+	}
+
+}
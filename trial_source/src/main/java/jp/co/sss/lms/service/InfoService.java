@@ -1,29 +1,84 @@
 package jp.co.sss.lms.service;
 
+import java.nio.charset.StandardCharsets;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import jakarta.annotation.PostConstruct;
 import jp.co.sss.lms.dto.InfoDto;
 import jp.co.sss.lms.entity.TInfo;
 import jp.co.sss.lms.mapper.TInfoMapper;
+import jp.co.sss.lms.util.VersionedCache;
+import net.arnx.jsonic.JSON;
 
 /**
- * お知らせ情報サービス
- * 
+ * お知らせ情報サービス<br>
+ * 最新のお知らせはDTO・JSONに変換した状態でメモリに保持し、ログイン画面・お知らせ取得毎のDBアクセスを省略する。
+ * お知らせテーブルの変更は、設定された間隔（秒）でバージョンを照合して検知する。
+ *
  * @author 東京ITスクール
  */
 @Service
 public class InfoService {
 
+	/** キャッシュのキー（お知らせは1件のみ保持する） */
+	private static final Integer CACHE_KEY = 0;
+
 	@Autowired
 	private TInfoMapper tInfoMapper;
 
+	/** バージョンの照合間隔（秒） */
+	@Value("${setting.info.cache.check.seconds:10}")
+	private int checkSeconds;
+
+	/** お知らせのキャッシュ */
+	private VersionedCache<Integer, InfoCache> cache;
+
+	/**
+	 * キャッシュの初期化
+	 */
+	@PostConstruct
+	public void init() {
+		cache = new VersionedCache<>(1, checkSeconds * 1000L, key -> tInfoMapper.getInfoVersion(),
+				(key, version) -> load());
+	}
+
 	/**
-	 * お知らせ情報取得
-	 * 
+	 * お知らせ情報取得<br>
+	 * 返却するDTOは全利用者で共有するため変更しないこと。
+	 *
 	 * @return お知らせ情報
 	 */
 	public InfoDto getInfo() {
+		return cache.get(CACHE_KEY).getInfoDto();
+	}
+
+	/**
+	 * お知らせ情報取得（JSON・ETag付き）
+	 *
+	 * @return お知らせ情報
+	 */
+	public InfoCache getInfoCache() {
+		return cache.get(CACHE_KEY);
+	}
+
+	/**
+	 * お知らせ情報を破棄する<br>
+	 * お知らせテーブルを更新した場合に呼び出す。
+	 */
+	public void invalidate() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * お知らせ情報の読み込み
+	 *
+	 * @return お知らせ情報
+	 */
+	private InfoCache load() {
 
 		// 最新のお知らせを取得
 		TInfo tInfo = tInfoMapper.findBySingleResult();
@@ -35,7 +90,74 @@ public class InfoService {
 			infoDto.setLastModifiedDate(tInfo.getLastModifiedDate());
 		}
 
-		return infoDto;
+		return new InfoCache(infoDto);
+	}
+
+	/**
+	 * お知らせ情報<br>
+	 * 生成後は変更しない。
+	 */
+	public static final class InfoCache {
+
+		/** お知らせDTO */
+		private final InfoDto infoDto;
+		/** JSON */
+		private final String json;
+		/** ETag */
+		private final String eTag;
+		/** 最終更新日時（ミリ秒、お知らせがない場合-1） */
+		private final long lastModified;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param infoDto
+		 */
+		InfoCache(InfoDto infoDto) {
+			this.infoDto = infoDto;
+			this.json = JSON.encode(infoDto);
+			this.eTag = "\"" + DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8))
+					+ "\"";
+			this.lastModified = infoDto.getLastModifiedDate() == null ? -1
+					: infoDto.getLastModifiedDate().getTime();
+		}
+
+		/**
+		 * お知らせDTOを取得
+		 *
+		 * @return お知らせDTO
+		 */
+		public InfoDto getInfoDto() {
+			return infoDto;
+		}
+
+		/**
+		 * JSONを取得
+		 *
+		 * @return JSON
+		 */
+		public String getJson() {
+			return json;
+		}
+
+		/**
+		 * ETagを取得
+		 *
+		 * @return ETag
+		 */
+		public String getETag() {
+			return eTag;
+		}
+
+		/**
+		 * 最終更新日時を取得
+		 *
+		 * @return 最終更新日時（ミリ秒、お知らせがない場合-1）
+		 */
+		public long getLastModified() {
+			return lastModified;
+		}
+
 	}
 
 }
@@ -1,20 +1,18 @@
 package jp.co.sss.lms.service;
 
-import java.util.Calendar;
-
 import jakarta.servlet.http.HttpSession;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.entity.LoginUser;
+import jp.co.sss.lms.entity.MUser;
 import jp.co.sss.lms.mapper.LoginMapper;
 import jp.co.sss.lms.mapper.MUserMapper;
 import jp.co.sss.lms.util.Constants;
-import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.LoginLockUtil;
 import jp.co.sss.lms.util.MessageUtil;
 import jp.co.sss.lms.util.PasswordUtil;
 
@@ -31,8 +29,6 @@ public class LoginService {
 	@Autowired
 	private LoginUserDto loginUserDto;
 	@Autowired
-	private DateUtil dateUtil;
-	@Autowired
 	private MessageUtil messageUtil;
 	@Autowired
 	private HttpSession session;
@@ -40,48 +36,61 @@ public class LoginService {
 	private MUserMapper mUserMapper;
 	@Autowired
 	private PasswordUtil passwordUtil;
-
-	@Value("${setting.lock.minute}")
-	private Integer lockMinute;
-	@Value("${setting.lock.count}")
-	private Integer lockCount;
+	@Autowired
+	private LoginLockUtil loginLockUtil;
 
 	/**
-	 * ログイン処理
+	 * ログイン処理<br>
+	 * ロック中のログインIDはハッシュ化・DBアクセスを行わずに拒否する。
+	 * パスワードNG回数は未登録のログインIDも同様に加算し、応答からログインIDの存在が分からないようにする。
 	 * 
 	 * @return String
 	 */
 	public String getLoginInfo(String loginId, String password) {
 
-		// salt + ストレッチングしたパスワードを取得
-		String saltPassword = passwordUtil.getSaltedAndStrechedPassword(password, loginId);
-
 		// アカウントロックチェック
-		if (!checkLockTime()) {
+		if (!checkLockTime(loginId)) {
 			return messageUtil.getMessage(Constants.VALID_KEY_LOGIN_LOCK);
 		}
+
+		// 登録済みのハッシュ値と照合し、一致した場合は登録済みのハッシュ値で検索する
+		String storedPassword = mUserMapper.getPasswordByLoginId(loginId, Constants.DB_FLG_FALSE);
+		passwordUtil.equalizeCost(password, storedPassword);
+		// 未登録のログインIDは照合時間を揃えた後、ログイン情報を取得せずにNGとする
+		if (storedPassword == null) {
+			return getLoginFailedMessage(loginId);
+		}
+		String saltPassword;
+		if (passwordUtil.matches(password, loginId, storedPassword)) {
+			saltPassword = storedPassword;
+		} else {
+			// salt + ストレッチングしたパスワードを取得
+			saltPassword = passwordUtil.getSaltedAndStrechedPassword(password, loginId);
+		}
+
 		// ログイン情報を取得
 		LoginUser loginUser = loginMapper.getLoginDetailByLoginIdAndPassword(loginId, saltPassword,
 				Constants.DB_FLG_FALSE);
 
 		// ログイン情報を取得できなかった場合
 		if (loginUser == null) {
-			loginUserDto.setPasswordNgCount(loginUserDto.getPasswordNgCount() == null ? 1
-					: loginUserDto.getPasswordNgCount() + 1);
-			if (!checkLockCount()) {
-				return messageUtil.getMessage(Constants.VALID_KEY_LOGIN_LOCK);
-			} else {
-				return messageUtil.getMessage(Constants.VALID_KEY_LOGIN);
-			}
+			return getLoginFailedMessage(loginId);
 			// ログイン情報を取得できた場合(講師権限及びログイン．非表示フラグが立っている場合)
 		} else if (!checkPlaceDisplay(loginUser.getRole(), loginUser.getHiddenFlg())) {
 			return messageUtil.getMessage(Constants.VALID_KEY_LOGIN_PLACENODISPLAY);
 		} else {
 			// ログイン情報をセッションに格納
 			BeanUtils.copyProperties(loginUser, loginUserDto);
-			loginUserDto.setPasswordNgCount(0);
-			loginUserDto.setPasswordNgDate("");
 			session.setAttribute("loginUserDto", loginUserDto);
+			// パスワードNG回数をリセット
+			loginLockUtil.reset(loginId);
+			// 設定されたハッシュ方式と異なる場合は再ハッシュ化して移行する
+			if (passwordUtil.needsRehash(saltPassword)) {
+				MUser mUser = new MUser();
+				mUser.setUserId(loginUser.getUserId());
+				mUser.setPassword(passwordUtil.encodePassword(password, loginId));
+				mUserMapper.updatePasswordHash(mUser);
+			}
 			return "";
 		}
 	}
@@ -100,47 +109,47 @@ public class LoginService {
 		}
 		// セッションに格納
 		BeanUtils.copyProperties(loginUser, loginUserDto);
-		loginUserDto.setPasswordNgCount(0);
-		loginUserDto.setPasswordNgDate("");
 		session.setAttribute("loginUserDto", loginUserDto);
 		// ログインIDを返す
 		String loginId = mUserMapper.getLoginId(userId, Constants.DB_FLG_FALSE);
+		// パスワードNG回数をリセット
+		loginLockUtil.reset(loginId);
 		return loginId;
 	}
 
 	/**
 	 * アカウントロックチェック
 	 * 
-	 * @return boolean
+	 * @param loginId
+	 * @return ロックされていない場合true
 	 */
-	private boolean checkLockTime() {
-		if (loginUserDto.getPasswordNgDate() == null
-				|| loginUserDto.getPasswordNgDate().isEmpty()) {
-			return true;
-		}
-		// 現在日時取得
-		Calendar now = dateUtil.toCalendar(dateUtil.getCurrentDateString());
-		now.add(Calendar.MINUTE, -lockMinute);
-		// ロック日時がロック日時より規定時間たっているか確認
-		if (now.compareTo(dateUtil.toCalendar(loginUserDto.getPasswordNgDate())) > 0) {
-			loginUserDto.setPasswordNgDate("");
-			loginUserDto.setPasswordNgCount(0);
-			return true;
+	private boolean checkLockTime(String loginId) {
+		return !loginLockUtil.isLocked(loginId);
+	}
+
+	/**
+	 * ログイン失敗時のメッセージを取得<br>
+	 * NG回数を加算し、規定の回数に達した場合はロックのメッセージとする。
+	 * 
+	 * @param loginId
+	 * @return メッセージ
+	 */
+	private String getLoginFailedMessage(String loginId) {
+		if (!checkLockCount(loginId)) {
+			return messageUtil.getMessage(Constants.VALID_KEY_LOGIN_LOCK);
 		}
-		return false;
+		return messageUtil.getMessage(Constants.VALID_KEY_LOGIN);
 	}
 
 	/**
-	 * アカウントNG回数チェック
+	 * アカウントNG回数チェック<br>
+	 * NG回数を加算し、規定の回数に達した場合はロックする。
 	 * 
+	 * @param loginId
 	 * @return 判定結果
 	 */
-	private boolean checkLockCount() {
-		if (loginUserDto.getPasswordNgCount() >= lockCount) {
-			loginUserDto.setPasswordNgDate(dateUtil.getCurrentDateString());
-			return false;
-		}
-		return true;
+	private boolean checkLockCount(String loginId) {
+		return !loginLockUtil.addFailure(loginId);
 	}
 
 	/**
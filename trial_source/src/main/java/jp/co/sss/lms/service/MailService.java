@@ -1,12 +1,20 @@
 package jp.co.sss.lms.service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.SimpleMailMessage;
 import org.springframework.stereotype.Service;
 
-import jp.co.sss.lms.dto.FileDownloadDto;
 import jp.co.sss.lms.dto.FileDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.entity.TMailQue;
@@ -14,8 +22,11 @@ import jp.co.sss.lms.entity.TMailQueFile;
 import jp.co.sss.lms.mapper.TMailQueFileMapper;
 import jp.co.sss.lms.mapper.TMailQueMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
 import jp.co.sss.lms.util.FileUtil;
 import jp.co.sss.lms.util.LoginUserUtil;
+import jp.co.sss.lms.util.MailUtil;
+import jp.co.sss.lms.util.MessageUtil;
 
 /**
  * メール情報サービス
@@ -35,6 +46,26 @@ public class MailService {
 	private LoginUserUtil loginUserUtil;
 	@Autowired
 	private FileUtil fileUtil;
+	@Autowired
+	private MailUtil mailUtil;
+	@Autowired
+	private MessageUtil messageUtil;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** メール送信キューの1回の取得件数 */
+	public static final int MAIL_QUE_BATCH_SIZE = 50;
+	/** 送信開始日時の形式 */
+	private static final String SINCE_FORMAT = "yyyy/MM/dd HH:mm:ss";
+	/** 再送間隔の上限（秒） */
+	private static final long MAX_RETRY_SECONDS = 60 * 60L;
+	/** 送信中の期限（秒）。期限までに結果を更新できなかったキューは再度送信対象となる */
+	private static final long SEND_LEASE_SECONDS = 10 * 60L;
+
+	/** 送信件数 */
+	private final LongAdder sentCount = new LongAdder();
+	/** 送信失敗件数 */
+	private final LongAdder failedCount = new LongAdder();
 
 	/**
 	 * メールキュー登録
@@ -71,8 +102,7 @@ public class MailService {
 			for (FileDto fileDto : fileDtoList) {
 				TMailQueFile tMailQueFile = new TMailQueFile();
 				tMailQueFile.setMailQueId(tMailQue.getMailQueId());
-				tMailQueFile.setFileId(
-						fileUtil.getPlaneFileId(new FileDownloadDto(), fileDto.getFileId()));
+				tMailQueFile.setFileId(fileUtil.getPlaneFileId(fileDto.getFileId()));
 				tMailQueFile.setDeleteFlg(Constants.DB_FLG_FALSE);
 				tMailQueFile.setFirstCreateDate(now);
 				tMailQueFile.setLastModifiedDate(now);
@@ -87,4 +117,173 @@ public class MailService {
 		}
 	}
 
+	/**
+	 * メール送信キューの送信開始日時を取得<br>
+	 * 送信開始日時より前に登録されたキューは送信済みの履歴として扱い、送信しない。
+	 * 
+	 * @return 送信開始日時（未設定の場合null）
+	 */
+	public Date getMailQueSince() {
+		String since = messageUtil.getMessage("setting.mail.que.since");
+		if (since == null || since.isBlank()) {
+			return null;
+		}
+		try {
+			return Date.from(LocalDateTime.parse(since.trim(), DateUtil.getFormatter(SINCE_FORMAT))
+					.atZone(ZoneId.systemDefault()).toInstant());
+		} catch (DateTimeParseException e) {
+			throw new IllegalStateException("setting.mail.que.since=" + since, e);
+		}
+	}
+
+	/**
+	 * メール送信キューの送信<br>
+	 * 未送信のキューを1文で送信中として確保し（他のサーバーが確保中の行は読み飛ばす）、
+	 * トランザクション・DB接続を保持せずに1回の接続でまとめて送信する。
+	 * 送信に成功したキューは論理削除し、失敗したキューは送信間隔を倍にしながら再送する。
+	 * 送信失敗回数が上限に達したキューは送信を中止する。
+	 * 送信開始日時より前に登録されたキュー、添付ファイルのあるキューは送信しない（添付ファイルは未対応）。
+	 * 
+	 * @return 取得したキューの件数
+	 */
+	public int sendMailQue() {
+		Date since = getMailQueSince();
+		if (since == null) {
+			return 0;
+		}
+		List<TMailQue> tMailQueList = tMailQueMapper.claimUnsent(MAIL_QUE_BATCH_SIZE, since,
+				getMaxFailCount(), SEND_LEASE_SECONDS, Constants.DB_FLG_FALSE);
+		if (tMailQueList.isEmpty()) {
+			return 0;
+		}
+
+		List<SimpleMailMessage> msgList = new ArrayList<>();
+		for (TMailQue tMailQue : tMailQueList) {
+			msgList.add(mailUtil.createMail(tMailQue.getMailAddressTo(),
+					split(tMailQue.getMailAddressCc()), split(tMailQue.getMailAddressBcc()),
+					tMailQue.getSubject(), tMailQue.getBody()));
+		}
+		Map<Integer, Exception> failedMap = mailUtil.sendMails(msgList);
+
+		Date sentDate = new Date();
+		for (int i = 0; i < tMailQueList.size(); i++) {
+			TMailQue tMailQue = tMailQueList.get(i);
+			Exception e = failedMap.get(i);
+			tMailQue.setLastModifiedDate(sentDate);
+			if (e == null) {
+				tMailQue.setDeleteFlg(Constants.DB_FLG_TRUE);
+				tMailQueMapper.updateSent(tMailQue);
+				sentCount.increment();
+			} else {
+				retry(tMailQue, e);
+				failedCount.increment();
+			}
+		}
+		return tMailQueList.size();
+	}
+
+	/**
+	 * 未送信のメール送信キュー件数を取得
+	 * 
+	 * @return 件数
+	 */
+	public int getMailQueDepth() {
+		Date since = getMailQueSince();
+		if (since == null) {
+			return 0;
+		}
+		return tMailQueMapper.getUnsentCount(since, getMaxFailCount(), Constants.DB_FLG_FALSE);
+	}
+
+	/**
+	 * 送信件数を取得
+	 * 
+	 * @return 件数
+	 */
+	public long getSentCount() {
+		return sentCount.sum();
+	}
+
+	/**
+	 * 送信失敗件数を取得
+	 * 
+	 * @return 件数
+	 */
+	public long getFailedCount() {
+		return failedCount.sum();
+	}
+
+	/**
+	 * 再送待ち件数を取得
+	 * 
+	 * @return 件数
+	 */
+	public int getRetryCount() {
+		Date since = getMailQueSince();
+		if (since == null) {
+			return 0;
+		}
+		return tMailQueMapper.getRetryCount(since, getMaxFailCount(), Constants.DB_FLG_FALSE);
+	}
+
+	/**
+	 * 再送の設定<br>
+	 * 送信失敗回数を加算し、次回送信日時を再送間隔後とする。
+	 * 送信失敗が設定された回数に達した場合、送信失敗回数が上限に達して送信を中止した場合は管理者へ通知する。
+	 * 
+	 * @param tMailQue
+	 * @param e
+	 */
+	private void retry(TMailQue tMailQue, Exception e) {
+		int count = (tMailQue.getSendFailCount() == null ? 0 : tMailQue.getSendFailCount()) + 1;
+		tMailQue.setSendFailCount(count);
+		long sendWait = Long.parseLong(messageUtil.getMessage("setting.mail.send.wait"));
+		long interval = Math.min(sendWait << Math.min(count - 1, 20), MAX_RETRY_SECONDS);
+		tMailQueMapper.updateFailed(tMailQue, interval);
+
+		boolean abandoned = count >= getMaxFailCount();
+		String message = "mailQueId=" + tMailQue.getMailQueId() + " count=" + count;
+		if (abandoned) {
+			logger.error("メール送信中止 " + message + " " + e.getMessage());
+		} else {
+			logger.warn("メール送信失敗 " + message + " " + e.getMessage());
+		}
+
+		int notificationPeriod = Integer
+				.parseInt(messageUtil.getMessage("setting.mail.fail.notification.period"));
+		if (count == notificationPeriod || abandoned) {
+			try {
+				mailUtil.sendMail(messageUtil.getMessage("setting.tismail"), null,
+						(abandoned ? "メール送信中止 " : "メール送信失敗 ") + "mailQueId="
+								+ tMailQue.getMailQueId(),
+						"宛先：" + tMailQue.getMailAddressTo() + "\n件名：" + tMailQue.getSubject()
+								+ "\n送信失敗回数：" + count + "\n" + e.getMessage());
+			} catch (Exception ex) {
+				logger.error("メール送信失敗通知の送信に失敗しました。", ex);
+			}
+		}
+	}
+
+	/**
+	 * 送信失敗回数の上限を取得
+	 * 
+	 * @return 送信失敗回数の上限
+	 */
+	private int getMaxFailCount() {
+		return Integer.parseInt(messageUtil.getMessage("setting.mail.fail.max"));
+	}
+
+	/**
+	 * カンマ区切りのメールアドレスを分割
+	 * 
+	 * @param mailAddress
+	 * @return メールアドレス配列
+	 */
+	private String[] split(String mailAddress) {
+		if (mailAddress == null || mailAddress.isEmpty()) {
+			return null;
+		}
+		return mailAddress.split("\\s*,\\s*");
+	}
+
 }
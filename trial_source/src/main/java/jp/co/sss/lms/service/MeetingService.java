@@ -47,7 +47,7 @@ public class MeetingService {
 		// テンプレートファイルのパスを設定
 		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
 		String excelFilePath = commonFileDir + "/" + meetingDownloadDto.getFileName();
-		ExcelUtil excelUtil = new ExcelUtil(excelFilePath);
+		ExcelUtil excelUtil = new ExcelUtil(excelFilePath, true);
 
 		// 企業名
 		excelUtil.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowCompany(),
@@ -21,9 +21,11 @@ import jp.co.sss.lms.form.MailAddressForm;
 import jp.co.sss.lms.mapper.LoginMapper;
 import jp.co.sss.lms.mapper.MUserMapper;
 import jp.co.sss.lms.mapper.TTemporaryPassStorageMapper;
+import jp.co.sss.lms.util.AccessGateUtil;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
-import jp.co.sss.lms.util.MailUtil;
+import jp.co.sss.lms.util.LoginLockUtil;
+import jp.co.sss.lms.util.MailQueDispatcher;
 import jp.co.sss.lms.util.MessageUtil;
 import jp.co.sss.lms.util.PasswordUtil;
 
@@ -54,7 +56,11 @@ public class PasswordService {
 	@Autowired
 	private MailService mailService;
 	@Autowired
-	private MailUtil mailUtil;
+	private MailQueDispatcher mailQueDispatcher;
+	@Autowired
+	private AccessGateUtil accessGateUtil;
+	@Autowired
+	private LoginLockUtil loginLockUtil;
 
 	/**
 	 * パスワード相関チェック（パスワード変更）
@@ -68,9 +74,8 @@ public class PasswordService {
 		}
 		MUser mUser = mUserMapper.findByUserId(loginUserDto.getUserId(), Constants.DB_FLG_FALSE);
 		// 現在のパスワードと登録パスワードが一致しない場合
-		String hashedCurrentPassword = passwordUtil
-				.getSaltedAndStrechedPassword(loginForm.getCurrentPassword(), mUser.getLoginId());
-		if (!mUser.getPassword().equals(hashedCurrentPassword)) {
+		if (!passwordUtil.matches(loginForm.getCurrentPassword(), mUser.getLoginId(),
+				mUser.getPassword())) {
 			String currentPassword = "「" + messageUtil.getMessage("currentPassword") + "」";
 			String registPassword = messageUtil.getMessage("registPassword");
 			result.addError(new FieldError(result.getObjectName(), "currentPassword", messageUtil
@@ -100,8 +105,7 @@ public class PasswordService {
 	public String changePassword(LoginForm loginForm) {
 		// 更新
 		MUser mUser = mUserMapper.findByUserId(loginUserDto.getUserId(), Constants.DB_FLG_FALSE);
-		mUser.setPassword(passwordUtil.getSaltedAndStrechedPassword(loginForm.getPassword(),
-				mUser.getLoginId()));
+		mUser.setPassword(passwordUtil.encodePassword(loginForm.getPassword(), mUser.getLoginId()));
 		mUser.setPasswordChangeDate(dateUtil.stringToTimestamp(dateUtil.getCurrentDateString()));
 		mUser.setLastModifiedUser(loginUserDto.getUserId());
 		Date now = new Date();
@@ -113,9 +117,11 @@ public class PasswordService {
 					Constants.DB_FLG_FALSE);
 			if (loginUser != null) {
 				BeanUtils.copyProperties(loginUser, loginUserDto);
-				loginUserDto.setPasswordNgCount(0);
-				loginUserDto.setPasswordNgDate("");
 				session.setAttribute("loginUserDto", loginUserDto);
+				// パスワードNG回数をリセット
+				loginLockUtil.reset(mUser.getLoginId());
+				// パスワード有効期限の判定結果を破棄
+				accessGateUtil.invalidate();
 				// パスワード変更テーブルの情報があれば削除
 				TTemporaryPassStorage tTemporaryPassStorage = tTemporaryPassStorageMapper
 						.findByUserId(loginUserDto.getUserId(), Constants.DB_FLG_FALSE);
@@ -220,7 +226,7 @@ public class PasswordService {
 		String body = messageUtil.getMessage(Constants.PROP_KEY_MAIL_RESETPASS_BODY);
 		body = body.replace(Constants.REPLACE_CHAR_RESET_PASSWORD_URL, url);
 		mailService.registMailQue(to, subject, body, null, null);
-		mailUtil.sendMail(to, null, subject, body);
+		mailQueDispatcher.wakeUp();
 	}
 
 	/**
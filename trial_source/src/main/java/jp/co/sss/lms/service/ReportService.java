@@ -2,13 +2,19 @@ package jp.co.sss.lms.service;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jp.co.sss.lms.dto.DailyReportDetailDto;
 import jp.co.sss.lms.dto.DailyReportDownloadDto;
@@ -134,11 +140,13 @@ public class ReportService {
 	}
 
 	/**
-	 * レポート登録
+	 * レポート登録<br>
+	 * 再提出の場合は登録済みの内容と比較し、変更された項目のみ1文で一括更新する。
 	 * 
 	 * @param form
 	 * @throws ParseException
 	 */
+	@Transactional
 	public void submit(DailyReportSubmitForm dailyReportSubmitForm) throws ParseException {
 
 		Date today = new Date();
@@ -154,6 +162,9 @@ public class ReportService {
 		tDailyReportSubmit.setLastModifiedUser(loginUserDto.getLmsUserId());
 		tDailyReportSubmit.setLastModifiedDate(today);
 
+		// 登録済みのレポート詳細・理解度
+		List<TDailyReportSubmitDetail> storedDetailList = Collections.emptyList();
+		List<TIntelligibility> storedIntelligibilityList = Collections.emptyList();
 		// 日報提出IDがnullの場合
 		if (dailyReportSubmitForm.getDailyReportSubmitId() == null) {
 			tDailyReportSubmit.setFirstCreateUser(loginUserDto.getLmsUserId());
@@ -163,51 +174,83 @@ public class ReportService {
 			tDailyReportSubmit
 					.setDailyReportSubmitId(dailyReportSubmitForm.getDailyReportSubmitId());
 			tDailyReportSubmitMapper.update(tDailyReportSubmit);
-			// 日報提出詳細の削除
-			Integer countSubmitDetail = tDailyReportSubmitDetailMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countSubmitDetail > 0) {
-				tDailyReportSubmitDetailMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
-			// 理解度の削除
-			Integer countIntelligibility = tIntelligibilityMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countIntelligibility > 0) {
-				tIntelligibilityMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
+			storedDetailList = tDailyReportSubmitDetailMapper
+					.findByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
+			storedIntelligibilityList = tIntelligibilityMapper
+					.findByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
+		}
+		Integer dailyReportSubmitId = tDailyReportSubmit.getDailyReportSubmitId();
+
+		// レポート詳細登録（変更された項目のみ）
+		String[] contentArray = dailyReportSubmitForm.getContentArray();
+		Map<Integer, TDailyReportSubmitDetail> storedDetailMap = new HashMap<>();
+		for (TDailyReportSubmitDetail stored : storedDetailList) {
+			storedDetailMap.put(stored.getFieldNum(), stored);
 		}
-		// レポート詳細登録
-		for (int i = 0; i < dailyReportSubmitForm.getContentArray().length; i++) {
+		List<TDailyReportSubmitDetail> tDailyReportSubmitDetailList = new ArrayList<>();
+		for (int i = 0; i < contentArray.length; i++) {
+			TDailyReportSubmitDetail stored = storedDetailMap.get(i + 1);
+			if (stored != null && Objects.equals(stored.getContent(), contentArray[i])
+					&& Objects.equals(stored.getDeleteFlg(), Constants.DB_FLG_FALSE)) {
+				continue;
+			}
 			TDailyReportSubmitDetail tDailyReportSubmitDetail = new TDailyReportSubmitDetail();
-			tDailyReportSubmitDetail
-					.setDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
+			tDailyReportSubmitDetail.setDailyReportSubmitId(dailyReportSubmitId);
 			tDailyReportSubmitDetail.setFieldNum(i + 1);
-			tDailyReportSubmitDetail.setContent(dailyReportSubmitForm.getContentArray()[i]);
+			tDailyReportSubmitDetail.setContent(contentArray[i]);
 			tDailyReportSubmitDetail.setAccountId(tDailyReportSubmit.getAccountId());
 			tDailyReportSubmitDetail.setDeleteFlg(Constants.DB_FLG_FALSE);
 			tDailyReportSubmitDetail.setFirstCreateUser(loginUserDto.getLmsUserId());
 			tDailyReportSubmitDetail.setFirstCreateDate(today);
 			tDailyReportSubmitDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tDailyReportSubmitDetail.setLastModifiedDate(today);
-			tDailyReportSubmitDetailMapper.insert(tDailyReportSubmitDetail);
+			tDailyReportSubmitDetailList.add(tDailyReportSubmitDetail);
+		}
+		if (storedDetailMap.keySet().stream()
+				.anyMatch(fieldNum -> fieldNum > contentArray.length)) {
+			tDailyReportSubmitDetailMapper.deleteAfterFieldNum(dailyReportSubmitId, contentArray.length);
 		}
-		// 理解度登録
-		if (dailyReportSubmitForm.getIntFieldNameArray() != null) {
-			for (int j = 0; j < dailyReportSubmitForm.getIntFieldNameArray().length; j++) {
-				TIntelligibility tIntelligibility = new TIntelligibility();
-				tIntelligibility
-						.setDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-				tIntelligibility.setFieldNum(j + 1);
-				tIntelligibility.setFieldName(dailyReportSubmitForm.getIntFieldNameArray()[j]);
-				tIntelligibility.setFieldValue(dailyReportSubmitForm.getIntFieldValueArray()[j]);
-				tIntelligibility.setAccountId(tDailyReportSubmit.getAccountId());
-				tIntelligibility.setDeleteFlg(Constants.DB_FLG_FALSE);
-				tIntelligibility.setFirstCreateUser(loginUserDto.getLmsUserId());
-				tIntelligibility.setFirstCreateDate(today);
-				tIntelligibility.setLastModifiedUser(loginUserDto.getLmsUserId());
-				tIntelligibility.setLastModifiedDate(today);
-				tIntelligibilityMapper.insert(tIntelligibility);
+		if (!tDailyReportSubmitDetailList.isEmpty()) {
+			tDailyReportSubmitDetailMapper.upsertBatch(dailyReportSubmitId,
+					tDailyReportSubmitDetailList);
+		}
+
+		// 理解度登録（変更された項目のみ）
+		String[] intFieldNameArray = dailyReportSubmitForm.getIntFieldNameArray() == null
+				? new String[0]
+				: dailyReportSubmitForm.getIntFieldNameArray();
+		Short[] intFieldValueArray = dailyReportSubmitForm.getIntFieldValueArray();
+		Map<Integer, TIntelligibility> storedIntelligibilityMap = new HashMap<>();
+		for (TIntelligibility stored : storedIntelligibilityList) {
+			storedIntelligibilityMap.put(stored.getFieldNum(), stored);
+		}
+		List<TIntelligibility> tIntelligibilityList = new ArrayList<>();
+		for (int j = 0; j < intFieldNameArray.length; j++) {
+			TIntelligibility stored = storedIntelligibilityMap.get(j + 1);
+			if (stored != null && Objects.equals(stored.getFieldName(), intFieldNameArray[j])
+					&& Objects.equals(stored.getFieldValue(), intFieldValueArray[j])
+					&& Objects.equals(stored.getDeleteFlg(), Constants.DB_FLG_FALSE)) {
+				continue;
 			}
+			TIntelligibility tIntelligibility = new TIntelligibility();
+			tIntelligibility.setDailyReportSubmitId(dailyReportSubmitId);
+			tIntelligibility.setFieldNum(j + 1);
+			tIntelligibility.setFieldName(intFieldNameArray[j]);
+			tIntelligibility.setFieldValue(intFieldValueArray[j]);
+			tIntelligibility.setAccountId(tDailyReportSubmit.getAccountId());
+			tIntelligibility.setDeleteFlg(Constants.DB_FLG_FALSE);
+			tIntelligibility.setFirstCreateUser(loginUserDto.getLmsUserId());
+			tIntelligibility.setFirstCreateDate(today);
+			tIntelligibility.setLastModifiedUser(loginUserDto.getLmsUserId());
+			tIntelligibility.setLastModifiedDate(today);
+			tIntelligibilityList.add(tIntelligibility);
+		}
+		if (storedIntelligibilityMap.keySet().stream()
+				.anyMatch(fieldNum -> fieldNum > intFieldNameArray.length)) {
+			tIntelligibilityMapper.deleteAfterFieldNum(dailyReportSubmitId, intFieldNameArray.length);
+		}
+		if (!tIntelligibilityList.isEmpty()) {
+			tIntelligibilityMapper.upsertBatch(dailyReportSubmitId, tIntelligibilityList);
 		}
 	}
 
@@ -245,7 +288,7 @@ public class ReportService {
 		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
 		String excelFilePath = commonFileDir + "/" + dailyReportDownloadDto.getFileName();
 
-		ExcelUtil excelUtil = new ExcelUtil(excelFilePath);
+		ExcelUtil excelUtil = new ExcelUtil(excelFilePath, true);
 
 		// 企業名
 		excelUtil.setVal(dailyReportDownloadDto.getSheetName(),
@@ -290,12 +333,14 @@ public class ReportService {
 		}
 
 		if (dailyReportDownloadDto.getDailyReportFbDtoList() != null) {
-			if (dailyReportDownloadDto.getDailyReportFbDtoList().size() > 1) {
-				for (int i = 1; i < dailyReportDownloadDto.getDailyReportFbDtoList().size(); i++) {
+			int fbCount = dailyReportDownloadDto.getDailyReportFbDtoList().size();
+			// 行のコピーと値の設定を上から順に行い、出力済みの行に戻らないようにする。
+			// 先頭のコメントはコピー元の行に設定するため最後に設定する。
+			for (int j = 1; j <= fbCount; j++) {
+				int i = j % fbCount;
+				if (i > 0) {
 					excelUtil.sheetCopy("フィードバックコメント", 6, 8, i);
 				}
-			}
-			for (int i = 0; i < dailyReportDownloadDto.getDailyReportFbDtoList().size(); i++) {
 				DailyReportFbDto dailyReportFbDto = dailyReportDownloadDto.getDailyReportFbDtoList()
 						.get(i);
 				// 指定位置にフィードバックしたユーザを設定
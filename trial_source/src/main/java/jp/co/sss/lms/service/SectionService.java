@@ -16,9 +16,9 @@ import jp.co.sss.lms.form.SectionDetailForm;
 import jp.co.sss.lms.mapper.MSectionMapper;
 import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.FileIdTokenUtil;
 import jp.co.sss.lms.util.LoggingUtil;
 import jp.co.sss.lms.util.MessageUtil;
-import jp.co.sss.lms.util.PasswordUtil;
 
 /**
  * セクション情報サービス
@@ -37,7 +37,7 @@ public class SectionService {
 	@Autowired
 	private LoginUserDto loginUserDto;
 	@Autowired
-	private PasswordUtil passwordUtil;
+	private FileIdTokenUtil fileIdTokenUtil;
 	@Autowired
 	private LoggingUtil loggingUtil;
 
@@ -54,7 +54,7 @@ public class SectionService {
 		if (count == 0) {
 			String message = messageUtil.getMessage(Constants.VALID_KEY_ALREADYDELETE,
 					new String[] { "セクションID " + sectionId });
-			StringBuffer sb = new StringBuffer(message);
+			StringBuilder sb = new StringBuilder(message);
 			loggingUtil.appendLog(sb);
 			logger.info(sb.toString());
 			return message;
@@ -69,9 +69,18 @@ public class SectionService {
 	 */
 	public void getSectionDetail(SectionDetailForm sectionDetailForm) {
 		// セクションサービスDTOの取得
+		// ファイル・試験・レポート・成果物は個別に取得し、結合による行数の増加を防ぐ
+		Integer sectionId = sectionDetailForm.getSectionId();
 		SectionServiceSectionDto sectionServiceSectionDto = mSectionMapper.getSectionDetail(
-				sectionDetailForm.getSectionId(), loginUserDto.getAccountId(),
-				loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE);
+				sectionId, loginUserDto.getAccountId(), loginUserDto.getLmsUserId(),
+				Constants.DB_FLG_FALSE);
+		sectionServiceSectionDto.setFileDtoList(mSectionMapper.getSectionFileList(sectionId));
+		sectionServiceSectionDto
+				.setExamDtoList(mSectionMapper.getSectionExamList(sectionId, Constants.DB_FLG_FALSE));
+		sectionServiceSectionDto.setReportDtoList(mSectionMapper.getSectionReportList(sectionId,
+				loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE));
+		sectionServiceSectionDto.setDeliverablesDtoList(
+				mSectionMapper.getSectionDeliverablesList(sectionId, Constants.DB_FLG_FALSE));
 		BeanUtils.copyProperties(sectionServiceSectionDto, sectionDetailForm);
 		// セクション・日報紐付け情報の取得
 		List<SectionServiceDailyReportDto> sectionServiceDailyReportDtoList = tSectionDailyReportMapper
@@ -82,9 +91,7 @@ public class SectionService {
 		}
 		// ファイル情報の設定
 		for (SectionServiceFileDto fileDto : sectionServiceSectionDto.getFileDtoList()) {
-			String hashFileId = passwordUtil.getSaltedAndStrechedPassword(fileDto.getFileId(),
-					loginUserDto.getUserId().toString());
-			fileDto.setFileId(hashFileId);
+			fileDto.setFileId(fileIdTokenUtil.encode(fileDto.getFileId()));
 		}
 		sectionServiceSectionDto.setMaxFileSize(Constants.DELIVERABLES_UPLOAD_MAX_SIZE);
 	}
@@ -1,12 +1,14 @@
 package jp.co.sss.lms.service;
 
 import java.text.ParseException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -115,9 +117,9 @@ public class StudentAttendanceService {
 				// 本日の勤怠情報は既に入力されています。直接編集してください。
 				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHALREADYEXISTS);
 			}
-			TrainingTime trainingStartTime = new TrainingTime(
-					tStudentAttendance.getTrainingStartTime());
-			TrainingTime trainingEndTime = new TrainingTime();
+			TrainingTime trainingStartTime = TrainingTime
+					.valueOf(tStudentAttendance.getTrainingStartTime());
+			TrainingTime trainingEndTime = TrainingTime.now();
 			if (trainingStartTime.compareTo(trainingEndTime) > 0) {
 				// 退勤時刻は出勤時刻より後でなければいけません。
 				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_TRAININGTIMERANGE);
@@ -138,7 +140,7 @@ public class StudentAttendanceService {
 		// 本日の研修日
 		Date trainingDate = attendanceUtil.getTrainingDate();
 		// 現在の研修時刻
-		TrainingTime trainingStartTime = new TrainingTime();
+		TrainingTime trainingStartTime = TrainingTime.now();
 		// 遅刻早退ステータス
 		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(trainingStartTime,
 				null);
@@ -191,9 +193,9 @@ public class StudentAttendanceService {
 				.findByLmsUserIdAndTrainingDate(loginUserDto.getLmsUserId(), trainingDate,
 						Constants.DB_FLG_FALSE);
 		// 出退勤時刻
-		TrainingTime trainingStartTime = new TrainingTime(
-				tStudentAttendance.getTrainingStartTime());
-		TrainingTime trainingEndTime = new TrainingTime();
+		TrainingTime trainingStartTime = TrainingTime
+				.valueOf(tStudentAttendance.getTrainingStartTime());
+		TrainingTime trainingEndTime = TrainingTime.now();
 		// 遅刻早退ステータス
 		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(trainingStartTime,
 				trainingEndTime);
@@ -289,9 +291,14 @@ public class StudentAttendanceService {
 		Integer lmsUserId = loginUserUtil.isStudent() ? loginUserDto.getLmsUserId()
 				: attendanceForm.getLmsUserId();
 
-		// 現在の勤怠情報（受講生入力）リストを取得
+		// 現在の勤怠情報（受講生入力）リストを取得し、研修日をキーにしたマップへ格納
 		List<TStudentAttendance> tStudentAttendanceList = tStudentAttendanceMapper
 				.findByLmsUserId(lmsUserId, Constants.DB_FLG_FALSE);
+		Map<LocalDate, TStudentAttendance> tStudentAttendanceMap = new HashMap<>(
+				tStudentAttendanceList.size() * 2);
+		for (TStudentAttendance entity : tStudentAttendanceList) {
+			tStudentAttendanceMap.put(dateUtil.toLocalDate(entity.getTrainingDate()), entity);
+		}
 
 		// 飯塚麻美子 -Task.27
 		// エラーチェック用のStringリストとエラーメッセージ一覧
@@ -306,6 +313,8 @@ public class StudentAttendanceService {
 
 		// 入力された情報を更新用のエンティティに移し替え
 		Date date = new Date();
+		// 登録・更新対象の勤怠情報リスト
+		List<TStudentAttendance> upsertList = new ArrayList<>();
 		for (DailyAttendanceForm dailyAttendanceForm : attendanceForm.getAttendanceList()) {
 
 			// 飯塚麻美子 - Task.27
@@ -317,12 +326,15 @@ public class StudentAttendanceService {
 			// 研修日付
 			tStudentAttendance
 					.setTrainingDate(dateUtil.parse(dailyAttendanceForm.getTrainingDate()));
-			// 現在の勤怠情報リストのうち、研修日が同じものを更新用エンティティで上書き
-			for (TStudentAttendance entity : tStudentAttendanceList) {
-				if (entity.getTrainingDate().equals(tStudentAttendance.getTrainingDate())) {
-					tStudentAttendance = entity;
-					break;
-				}
+			// 現在の勤怠情報のうち、研修日が同じものを更新用エンティティで上書き
+			TStudentAttendance beforeAttendance = null;
+			TStudentAttendance entity = tStudentAttendanceMap
+					.get(dateUtil.toLocalDate(tStudentAttendance.getTrainingDate()));
+			if (entity != null) {
+				tStudentAttendance = entity;
+				// 変更有無の判定用に更新前の値を退避
+				beforeAttendance = new TStudentAttendance();
+				BeanUtils.copyProperties(entity, beforeAttendance);
 			}
 			tStudentAttendance.setLmsUserId(lmsUserId);
 			tStudentAttendance.setAccountId(loginUserDto.getAccountId());
@@ -331,7 +343,7 @@ public class StudentAttendanceService {
 			// 出勤時刻整形
 			TrainingTime trainingStartTime = null;
 			try {
-				trainingStartTime = new TrainingTime(dailyAttendanceForm.getTrainingStartHour(),
+				trainingStartTime = TrainingTime.of(dailyAttendanceForm.getTrainingStartHour(),
 						dailyAttendanceForm.getTrainingStartMinute());
 				tStudentAttendance.setTrainingStartTime(trainingStartTime.getFormattedString());
 			} catch (IllegalArgumentException e) {
@@ -355,7 +367,7 @@ public class StudentAttendanceService {
 			// 退勤時刻整形
 			TrainingTime trainingEndTime = null;
 			try {
-				trainingEndTime = new TrainingTime(dailyAttendanceForm.getTrainingEndHour(),
+				trainingEndTime = TrainingTime.of(dailyAttendanceForm.getTrainingEndHour(),
 						dailyAttendanceForm.getTrainingEndMinute());
 				tStudentAttendance.setTrainingEndTime(trainingEndTime.getFormattedString());
 			} catch (IllegalArgumentException e) {
@@ -406,9 +418,7 @@ public class StudentAttendanceService {
 
 					// 勤務時間(出勤時間～退勤時間までの時間)
 					TrainingTime jukoTime = attendanceUtil.calcJukoTime(trainingStartTime, trainingEndTime);
-					Integer total = 0;
-					total = total + attendanceUtil.getHour(jukoTime.getFormattedString()) * 60;
-					total = total + attendanceUtil.getMinute(jukoTime.getFormattedString());
+					Integer total = jukoTime.toMinutes();
 					// 中抜け時間
 					Integer blank = 0;
 					if (dailyAttendanceForm.getBlankTime()!= null) {
@@ -430,7 +440,7 @@ public class StudentAttendanceService {
 							countString);
 					errors.add(errorMessage);
 					// 出勤・退勤ともに空欄の場合 → 特に何もしなくていい。
-				} catch (NullPointerException e) {
+				} catch (IllegalStateException e) {
 				}
 			}
 			// 更新者と更新日時
@@ -438,8 +448,10 @@ public class StudentAttendanceService {
 			tStudentAttendance.setLastModifiedDate(date);
 			// 削除フラグ
 			tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
-			// 登録用Listへ追加
-			tStudentAttendanceList.add(tStudentAttendance);
+			// 登録用Listへ追加（既存の勤怠情報は値に変更がある場合のみ）
+			if (beforeAttendance == null || isModified(beforeAttendance, tStudentAttendance)) {
+				upsertList.add(tStudentAttendance);
+			}
 		}
 		if (!errors.isEmpty()) {
 			// エラーメッセージの整頓
@@ -458,20 +470,36 @@ public class StudentAttendanceService {
 			String errorMessages = String.join(";", errorList);
 			throw new IllegalArgumentException(errorMessages);
 		}
-		// 登録・更新処理
-		for (TStudentAttendance tStudentAttendance : tStudentAttendanceList) {
+		// 登録・更新処理（変更のあった勤怠情報のみ1文でまとめて登録・更新）
+		for (TStudentAttendance tStudentAttendance : upsertList) {
 			if (tStudentAttendance.getStudentAttendanceId() == null) {
 				tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
 				tStudentAttendance.setFirstCreateDate(date);
-				tStudentAttendanceMapper.insert(tStudentAttendance);
-			} else {
-				tStudentAttendanceMapper.update(tStudentAttendance);
 			}
 		}
+		if (!upsertList.isEmpty()) {
+			tStudentAttendanceMapper.upsertBatch(upsertList);
+		}
 		// 完了メッセージ
 		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
 	}
 
+	/**
+	 * 勤怠情報の変更有無を判定<br>
+	 * 更新対象の項目（出退勤時刻・ステータス・備考・中抜け時間）のみを比較する。
+	 * 
+	 * @param before 更新前の勤怠情報
+	 * @param after  更新後の勤怠情報
+	 * @return 変更がある場合true
+	 */
+	private boolean isModified(TStudentAttendance before, TStudentAttendance after) {
+		return !Objects.equals(before.getTrainingStartTime(), after.getTrainingStartTime())
+				|| !Objects.equals(before.getTrainingEndTime(), after.getTrainingEndTime())
+				|| !Objects.equals(before.getStatus(), after.getStatus())
+				|| !Objects.equals(before.getNote(), after.getNote())
+				|| !Objects.equals(before.getBlankTime(), after.getBlankTime());
+	}
+
 	/**
 	 * 過去日の勤怠不備確認
 	 * 
@@ -43,6 +43,8 @@ public class UserService {
 	private TDailyReportSubmitMapper tDailyReportSubmitMapper;
 	@Autowired
 	private TExamResultMapper tExamResultMapper;
+	@Autowired
+	private ExamService examService;
 
 	/**
 	 * セキュリティ同意フラグ登録
@@ -76,6 +78,7 @@ public class UserService {
 
 		List<ExamResultDto> examResultDtoList = tExamResultMapper.getExamResultDto(lmsUserId,
 				loginUserDto.getAccountId(), Constants.DB_FLG_FALSE);
+		examService.setExamResultPoint(examResultDtoList);
 		lmsUserDto.setExamResultDtoList(examResultDtoList);
 
 		List<DailyReportDto> dailyReportDtoList = tDailyReportSubmitMapper
@@ -0,0 +1,101 @@
+package jp.co.sss.lms.util;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.dto.AccessGateDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.service.ContractService;
+
+/**
+ * アクセス判定ユーティリティ<br>
+ * パスワード有効期限・契約同意状況の判定結果をセッションに保持し、リクエスト毎のDBアクセスと日付計算を省略する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class AccessGateUtil {
+
+	@Autowired
+	private LoginUserDto loginUserDto;
+	@Autowired
+	private AccessGateDto accessGateDto;
+	@Autowired
+	private ContractService contractService;
+	@Autowired
+	private MessageUtil messageUtil;
+
+	/**
+	 * 最終パスワード変更日時から1ヶ月を経過しているか判定
+	 *
+	 * @return 経過している場合true
+	 */
+	public boolean isPasswordExpired() {
+		Date passwordChangeDate = loginUserDto.getPasswordChangeDate();
+		if (passwordChangeDate == null) {
+			return true;
+		}
+		checkUser();
+		// 最終パスワード変更日時が変わった場合のみ有効期限を再計算
+		long passwordChangeTime = passwordChangeDate.getTime();
+		if (accessGateDto.getPasswordExpireTime() == null
+				|| accessGateDto.getPasswordChangeTime() != passwordChangeTime) {
+			Calendar cal = Calendar.getInstance();
+			cal.setTimeInMillis(passwordChangeTime);
+			cal.add(Calendar.MONTH, 1);
+			accessGateDto.setPasswordChangeTime(passwordChangeTime);
+			accessGateDto.setPasswordExpireTime(cal.getTimeInMillis());
+		}
+		return System.currentTimeMillis() > accessGateDto.getPasswordExpireTime();
+	}
+
+	/**
+	 * 未同意の契約が存在するか判定<br>
+	 * 判定結果は設定された時間（分）だけ保持する。
+	 *
+	 * @return 存在する場合true
+	 */
+	public boolean hasDisagreementConsent() {
+		checkUser();
+		long now = System.currentTimeMillis();
+		if (accessGateDto.getDisagreementExists() == null
+				|| !Objects.equals(accessGateDto.getCompanyId(), loginUserDto.getCompanyId())
+				|| now > accessGateDto.getConsentExpireTime()) {
+			int consentMinute = Integer
+					.parseInt(messageUtil.getMessage("setting.accessgate.consent.minute"));
+			accessGateDto.setCompanyId(loginUserDto.getCompanyId());
+			accessGateDto
+					.setDisagreementExists(!contractService.getDisagreementConsentDtoList().isEmpty());
+			accessGateDto.setConsentExpireTime(now + consentMinute * 60 * 1000L);
+		}
+		return accessGateDto.getDisagreementExists();
+	}
+
+	/**
+	 * 保持している判定結果を破棄する<br>
+	 * パスワード変更、契約同意など判定条件が変わった場合に呼び出す。
+	 */
+	public void invalidate() {
+		accessGateDto.setUserId(null);
+		accessGateDto.setPasswordChangeTime(null);
+		accessGateDto.setPasswordExpireTime(null);
+		accessGateDto.setCompanyId(null);
+		accessGateDto.setDisagreementExists(null);
+		accessGateDto.setConsentExpireTime(null);
+	}
+
+	/**
+	 * ログインユーザーが変わっていれば判定結果を破棄する
+	 */
+	private void checkUser() {
+		if (!Objects.equals(accessGateDto.getUserId(), loginUserDto.getUserId())) {
+			invalidate();
+			accessGateDto.setUserId(loginUserDto.getUserId());
+		}
+	}
+
+}
@@ -1,14 +1,15 @@
 package jp.co.sss.lms.util;
 
 import java.text.ParseException;
+import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import jp.co.sss.lms.enums.AttendanceStatusEnum;
-import jp.co.sss.lms.mapper.MSectionMapper;
 
 /**
  * 勤怠管理のユーティリティクラス
@@ -18,10 +19,17 @@ import jp.co.sss.lms.mapper.MSectionMapper;
 @Component
 public class AttendanceUtil {
 
+	/** 時間のプルダウン（0～23時、変更不可） */
+	private static final Map<Integer, String> HOUR_MAP = createTimeMap(24);
+	/** 分のプルダウン（0～59分、変更不可） */
+	private static final Map<Integer, String> MINUTE_MAP = createTimeMap(60);
+	/** 中抜け時間のプルダウン（15分刻み、変更不可） */
+	private static final Map<Integer, String> BLANK_TIME_MAP = createBlankTimeMap();
+
 	@Autowired
 	private DateUtil dateUtil;
 	@Autowired
-	private MSectionMapper mSectionMapper;
+	private CourseDetailUtil courseDetailUtil;
 
 	/**
 	 * SSS定時・出退勤時間を元に、遅刻早退を判定をする
@@ -80,10 +88,7 @@ public class AttendanceUtil {
 	 * @return 時(hour)と分(minute)に変換したクラス
 	 */
 	public TrainingTime calcBlankTime(int min) {
-		int hour = min / 60;
-		int minute = min % 60;
-		TrainingTime total = new TrainingTime(hour, minute);
-		return total;
+		return TrainingTime.ofMinutes(min);
 	}
 
 	/**
@@ -103,11 +108,21 @@ public class AttendanceUtil {
 	}
 
 	/**
-	 * 休憩時間取得
+	 * 休憩時間取得<br>
+	 * 全画面で共有するため変更不可。
+	 * 
+	 * @return 休憩時間
+	 */
+	public Map<Integer, String> setBlankTime() {
+		return BLANK_TIME_MAP;
+	}
+
+	/**
+	 * 休憩時間のプルダウンマップを生成
 	 * 
 	 * @return 休憩時間
 	 */
-	public LinkedHashMap<Integer, String> setBlankTime() {
+	private static Map<Integer, String> createBlankTimeMap() {
 		LinkedHashMap<Integer, String> map = new LinkedHashMap<>();
 		map.put(null, "");
 		for (int i = 15; i < 480;) {
@@ -129,50 +144,55 @@ public class AttendanceUtil {
 			i = i + 15;
 
 		}
-		return map;
+		return Collections.unmodifiableMap(map);
 	}
 
 	/**
-	 * 研修日の判定
+	 * 研修日の判定<br>
+	 * コースのセクションの日付はコース詳細ユーティリティが保持するものを使用する。
 	 * 
 	 * @param courseId
 	 * @param trainingDate
 	 * @return 判定結果
 	 */
 	public boolean isWorkDay(Integer courseId, Date trainingDate) {
-		Integer count = mSectionMapper.getSectionCountByCourseId(courseId, trainingDate);
-		if (count > 0) {
-			return true;
-		}
-		return false;
+		return courseDetailUtil.isWorkDay(courseId, trainingDate);
 	}
 
 	/**
-	 * 時間のプルダウンマップを生成
+	 * 時間のプルダウンマップを取得<br>
+	 * 全画面で共有するため変更不可。
 	 * 
 	 * @author 飯塚麻美子 - Task.26
 	 * @return 1時間刻みの時間(数値)マップ
 	 */
-	public LinkedHashMap<Integer, String> getHourMap() {
-		LinkedHashMap<Integer, String> hours = new LinkedHashMap<>();
-		for (int i = 0; i < 24; i++) {
-			hours.put(i, String.format("%02d", i));
-		}
-		return hours;
+	public Map<Integer, String> getHourMap() {
+		return HOUR_MAP;
 	}
 
 	/**
-	 * 分のプルダウンマップを生成
+	 * 分のプルダウンマップを取得<br>
+	 * 全画面で共有するため変更不可。
 	 * 
 	 * @author 飯塚麻美子 - Task.26
 	 * @return 1分刻みの分(数値)マップ
 	 */
-	public LinkedHashMap<Integer, String> getMinuteMap() {
-		LinkedHashMap<Integer, String> minutes = new LinkedHashMap<>();
-		for (int i = 0; i < 60; i++) {
-			minutes.put(i, String.format("%02d", i));
+	public Map<Integer, String> getMinuteMap() {
+		return MINUTE_MAP;
+	}
+
+	/**
+	 * 時間・分のプルダウンマップを生成
+	 * 
+	 * @param size 件数
+	 * @return 0から始まる2桁表記のマップ
+	 */
+	private static Map<Integer, String> createTimeMap(int size) {
+		LinkedHashMap<Integer, String> map = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++) {
+			map.put(i, i < 10 ? "0" + i : String.valueOf(i));
 		}
-		return minutes;
+		return Collections.unmodifiableMap(map);
 	}
 
 	/**
@@ -223,8 +243,8 @@ public class AttendanceUtil {
 			return jukoTime;
 		} catch (UnsupportedOperationException e) {
 			throw new UnsupportedOperationException("算出不可");
-		} catch (NullPointerException e) {
-			throw new NullPointerException("NULL参照");
+		} catch (IllegalStateException e) {
+			throw new IllegalStateException("NULL参照", e);
 		}
 	}
 
@@ -263,8 +283,6 @@ public class AttendanceUtil {
 	 * @return 中抜け時間（〇〇時〇〇分の文字列）
 	 */
 	public String convertBlankTime(Integer blankTime) {
-		LinkedHashMap<Integer, String> blankTimeList = setBlankTime();
-		String blank = blankTimeList.get(blankTime);
-		return blank;
+		return BLANK_TIME_MAP.get(blankTime);
 	}
 }
\ No newline at end of file
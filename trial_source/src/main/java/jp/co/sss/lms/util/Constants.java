@@ -276,13 +276,13 @@ public interface Constants {
 	public static final int SELECT_MAX_LENGTH = 70;
 
 	/** システムシェアード定時開始 */
-	public static final TrainingTime SSS_WORK_START_TIME = new TrainingTime("09:00");
+	public static final TrainingTime SSS_WORK_START_TIME = TrainingTime.valueOf("09:00");
 	/** システムシェアード定時終了 */
-	public static final TrainingTime SSS_WORK_END_TIME = new TrainingTime("18:00");
+	public static final TrainingTime SSS_WORK_END_TIME = TrainingTime.valueOf("18:00");
 	/** システムシェアード休憩開始 */
-	public static final TrainingTime SSS_REST_START_TIME = new TrainingTime("12:00");
+	public static final TrainingTime SSS_REST_START_TIME = TrainingTime.valueOf("12:00");
 	/** システムシェアード休憩終了 */
-	public static final TrainingTime SSS_REST_END_TIME = new TrainingTime("13:00");
+	public static final TrainingTime SSS_REST_END_TIME = TrainingTime.valueOf("13:00");
 
 	/** 勤怠タイプ：出勤 */
 	public static final short CODE_VAL_ATWORK = 0;
@@ -0,0 +1,178 @@
+package jp.co.sss.lms.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.sss.lms.dto.CourseServiceCategoryDto;
+import jp.co.sss.lms.dto.CourseServiceCourseDto;
+import jp.co.sss.lms.mapper.MCourseMapper;
+import jp.co.sss.lms.mapper.MSectionMapper;
+
+/**
+ * コース詳細ユーティリティ<br>
+ * コース→カテゴリ→セクションの構成と研修日をコース毎にメモリに保持し、コース詳細画面・出退勤の研修日判定毎のDBアクセスを省略する。
+ * コースマスタ・セクションマスタ・カテゴリマスタの変更は、設定された間隔（秒）でバージョンを照合して検知する。
+ * 保持・照合の方式は{@link VersionedCache}を参照。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class CourseDetailUtil {
+
+	@Autowired
+	private MCourseMapper mCourseMapper;
+	@Autowired
+	private MSectionMapper mSectionMapper;
+
+	/** 保持するコースの上限件数 */
+	@Value("${setting.course.cache.size:200}")
+	private int maxSize;
+	/** バージョンの照合間隔（秒） */
+	@Value("${setting.course.cache.check.seconds:60}")
+	private int checkSeconds;
+
+	/** コース詳細のキャッシュ */
+	private VersionedCache<Integer, CourseDetail> cache;
+
+	/**
+	 * キャッシュの初期化
+	 */
+	@PostConstruct
+	public void init() {
+		cache = new VersionedCache<>(maxSize, checkSeconds * 1000L,
+				courseId -> mCourseMapper.getCourseVersion(courseId, Constants.DB_FLG_FALSE),
+				this::load);
+	}
+
+	/**
+	 * コースが存在するか判定
+	 *
+	 * @param courseId
+	 * @return 存在する場合true
+	 */
+	public boolean exists(Integer courseId) {
+		return courseId != null && cache.get(courseId) != null;
+	}
+
+	/**
+	 * コースDTOを取得<br>
+	 * 返却するDTOは全利用者で共有するため変更しないこと。
+	 *
+	 * @param courseId
+	 * @return コースDTO（コースが存在しない、またはセクションがない場合null）
+	 */
+	public CourseServiceCourseDto getCourseServiceCourseDto(Integer courseId) {
+		CourseDetail courseDetail = courseId == null ? null : cache.get(courseId);
+		return courseDetail == null ? null : courseDetail.courseServiceCourseDto;
+	}
+
+	/**
+	 * 研修日の判定
+	 *
+	 * @param courseId
+	 * @param trainingDate
+	 * @return 研修日の場合true
+	 */
+	public boolean isWorkDay(Integer courseId, Date trainingDate) {
+		CourseDetail courseDetail = courseId == null ? null : cache.get(courseId);
+		return courseDetail != null && trainingDate != null
+				&& courseDetail.workDaySet.contains(trainingDate.getTime());
+	}
+
+	/**
+	 * コース詳細を破棄する<br>
+	 * コースマスタ・セクションマスタ・カテゴリマスタを更新した場合に呼び出す。
+	 *
+	 * @param courseId
+	 */
+	public void invalidate(Integer courseId) {
+		cache.invalidate(courseId);
+	}
+
+	/**
+	 * 全てのコース詳細を破棄する
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * 保持しているコース詳細を使用した件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	/**
+	 * DBからコース詳細を読み込んだ件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getLoadCount() {
+		return cache.getLoadCount();
+	}
+
+	/**
+	 * コース詳細の読み込み
+	 *
+	 * @param courseId
+	 * @param version
+	 * @return コース詳細
+	 */
+	private CourseDetail load(Integer courseId, String version) {
+		CourseServiceCourseDto courseServiceCourseDto = mCourseMapper.getCourseDetail(courseId,
+				Constants.DB_FLG_FALSE);
+		if (courseServiceCourseDto != null) {
+			List<CourseServiceCategoryDto> categoryDtoList = new ArrayList<>();
+			for (CourseServiceCategoryDto categoryDto : courseServiceCourseDto
+					.getCourseServiceCategoryDtoList()) {
+				categoryDto.setCourseServiceSectionDtoList(
+						Collections.unmodifiableList(categoryDto.getCourseServiceSectionDtoList()));
+				categoryDtoList.add(categoryDto);
+			}
+			courseServiceCourseDto
+					.setCourseServiceCategoryDtoList(Collections.unmodifiableList(categoryDtoList));
+		}
+		Set<Long> workDaySet = new HashSet<>();
+		for (Date date : mSectionMapper.getSectionDateList(courseId)) {
+			workDaySet.add(date.getTime());
+		}
+		return new CourseDetail(courseServiceCourseDto, Collections.unmodifiableSet(workDaySet));
+	}
+
+	/**
+	 * コース詳細<br>
+	 * 生成後は変更しない。
+	 */
+	private static final class CourseDetail {
+
+		/** コースDTO（セクションがない場合null） */
+		private final CourseServiceCourseDto courseServiceCourseDto;
+		/** 研修日（セクションの日付のエポックミリ秒） */
+		private final Set<Long> workDaySet;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param courseServiceCourseDto
+		 * @param workDaySet
+		 */
+		CourseDetail(CourseServiceCourseDto courseServiceCourseDto, Set<Long> workDaySet) {
+			this.courseServiceCourseDto = courseServiceCourseDto;
+			this.workDaySet = workDaySet;
+		}
+
+	}
+
+}
@@ -2,16 +2,120 @@ package jp.co.sss.lms.util;
 
 import java.sql.Timestamp;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Component;
 
 @Component
 public class DateUtil {
+
+	/** 既定の日付形式 */
+	private static final String DEFAULT_DATE_PATTERN = "yyyy/M/d";
+	/** 既定の日時形式 */
+	private static final String DEFAULT_DATETIME_PATTERN = "yyyy/MM/dd HH:mm:ss";
+	/** 既定の日付・時刻フォーマットの区切り文字（0は数字） */
+	private static final String DEFAULT_FORMAT_SEPARATORS = "0000/00/00 00:00:00.000";
+
+	/** 日付形式ごとのフォーマッタ（既定ロケール） */
+	private static final Map<String, DateTimeFormatter> FORMATTER_MAP = new ConcurrentHashMap<>();
+	/** 日付形式ごとのフォーマッタ（日本語ロケール） */
+	private static final Map<String, DateTimeFormatter> FORMATTER_MAP_J = new ConcurrentHashMap<>();
+
+	/**
+	 * 日付形式に対応するフォーマッタを取得する。<br>
+	 * DateTimeFormatterは不変でスレッドセーフなため、日付形式ごとに1度だけ生成して共有する。
+	 * 
+	 * @param fmt 日付形式(SimpleDateFormat互換)
+	 * @return フォーマッタ
+	 */
+	public static DateTimeFormatter getFormatter(String fmt) {
+		return FORMATTER_MAP.computeIfAbsent(fmt, DateTimeFormatter::ofPattern);
+	}
+
+	/**
+	 * 日付形式に対応する日本語ロケールのフォーマッタを取得する。
+	 * 
+	 * @param fmt 日付形式(SimpleDateFormat互換)
+	 * @return フォーマッタ
+	 */
+	public static DateTimeFormatter getFormatterJ(String fmt) {
+		return FORMATTER_MAP_J.computeIfAbsent(fmt,
+				pattern -> DateTimeFormatter.ofPattern(pattern, Locale.JAPANESE));
+	}
+
+	/**
+	 * Date型、Timestamp型を指定のフォーマッタで文字列に変換
+	 * 
+	 * @param date
+	 * @param formatter
+	 * @return 日付文字列
+	 */
+	private static String format(Date date, DateTimeFormatter formatter) {
+		return formatter.format(
+				Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()));
+	}
+
+	/**
+	 * 文字列を指定の日付形式でDate型に変換する。<br>
+	 * SimpleDateFormat#parseと同様に、末尾の余分な文字列は無視し、省略された項目は1970/1/1 0:00:00.000の値で補う。
+	 * 
+	 * @param date
+	 * @param fmt
+	 * @return Date型日付
+	 * @throws ParseException 日付形式に一致しない場合
+	 */
+	private static Date parseDate(String date, String fmt) throws ParseException {
+		ParsePosition position = new ParsePosition(0);
+		try {
+			TemporalAccessor temporal = getFormatter(fmt).parse(date, position);
+			LocalDate localDate = temporal.query(TemporalQueries.localDate());
+			if (localDate == null) {
+				localDate = LocalDate.of(getField(temporal, ChronoField.YEAR, 1970),
+						getField(temporal, ChronoField.MONTH_OF_YEAR, 1),
+						getField(temporal, ChronoField.DAY_OF_MONTH, 1));
+			}
+			LocalTime localTime = temporal.query(TemporalQueries.localTime());
+			if (localTime == null) {
+				localTime = LocalTime.of(getField(temporal, ChronoField.HOUR_OF_DAY, 0),
+						getField(temporal, ChronoField.MINUTE_OF_HOUR, 0),
+						getField(temporal, ChronoField.SECOND_OF_MINUTE, 0),
+						getField(temporal, ChronoField.NANO_OF_SECOND, 0));
+			}
+			return new Date(localDate.atTime(localTime).atZone(ZoneId.systemDefault()).toInstant()
+					.toEpochMilli());
+		} catch (DateTimeException e) {
+			throw new ParseException("Unparseable date: \"" + date + "\"",
+					Math.max(position.getErrorIndex(), 0));
+		}
+	}
+
+	/**
+	 * 解析結果から項目の値を取得する
+	 * 
+	 * @param temporal
+	 * @param field
+	 * @param defaultValue
+	 * @return 項目の値（解析結果に含まれない場合は既定値）
+	 */
+	private static int getField(TemporalAccessor temporal, ChronoField field, int defaultValue) {
+		return temporal.isSupported(field) ? temporal.get(field) : defaultValue;
+	}
+
 	/**
 	 * Date型日付を"yyyy/M/d"形式にフォーマット
 	 * 
@@ -19,8 +123,7 @@ public class DateUtil {
 	 * @return "yyyy/M/d"形式日付
 	 */
 	public String toString(Date date) {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy/M/d");
-		return sdf.format(date);
+		return format(date, getFormatter(DEFAULT_DATE_PATTERN));
 	}
 
 	/**
@@ -31,8 +134,7 @@ public class DateUtil {
 	 * @return 任意の形式の日付
 	 */
 	public String toString(Date date, String fmt) {
-		SimpleDateFormat sdf = new SimpleDateFormat(fmt);
-		return sdf.format(date);
+		return format(date, getFormatter(fmt));
 	}
 
 	/**
@@ -42,8 +144,7 @@ public class DateUtil {
 	 * @return "yyyy/M/d"形式の日付
 	 */
 	public Date parse(String date) throws ParseException {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy/M/d");
-		return sdf.parse(date);
+		return parseDate(date, DEFAULT_DATE_PATTERN);
 	}
 
 	/**
@@ -54,8 +155,7 @@ public class DateUtil {
 	 * @return 任意の形式の日付
 	 */
 	public Date parse(String date, String fmt) throws ParseException {
-		SimpleDateFormat sdf = new SimpleDateFormat(fmt);
-		return sdf.parse(date);
+		return parseDate(date, fmt);
 	}
 
 	/**
@@ -76,8 +176,9 @@ public class DateUtil {
 	 * @return 年齢
 	 */
 	public int calcAge(Date birthday, Date now) {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd");
-		return (Integer.parseInt(sdf.format(now)) - Integer.parseInt(sdf.format(birthday))) / 10000;
+		DateTimeFormatter formatter = getFormatter("yyyyMMdd");
+		return (Integer.parseInt(format(now, formatter))
+				- Integer.parseInt(format(birthday, formatter))) / 10000;
 	}
 
 	/**
@@ -118,7 +219,7 @@ public class DateUtil {
 	 * @throws ParseException 日付フォーマットが不正な場合
 	 */
 	public int differenceDays(String strDate1, String strDate2) throws ParseException {
-		return differenceDays(strDate1, strDate2, "yyyy/M/d");
+		return differenceDays(strDate1, strDate2, DEFAULT_DATE_PATTERN);
 	}
 
 	/**
@@ -132,9 +233,8 @@ public class DateUtil {
 	 * @throws ParseException 日付フォーマットが不正な場合
 	 */
 	public int differenceDays(String strDate1, String strDate2, String fmt) throws ParseException {
-		SimpleDateFormat sdf = new SimpleDateFormat(fmt);
-		Date date1 = sdf.parse(strDate1);
-		Date date2 = sdf.parse(strDate2);
+		Date date1 = parseDate(strDate1, fmt);
+		Date date2 = parseDate(strDate2, fmt);
 		return differenceDays(date1, date2);
 	}
 
@@ -226,8 +326,7 @@ public class DateUtil {
 	 * @return
 	 */
 	public String dateToString(Date time, String format) {
-		SimpleDateFormat sdf = new SimpleDateFormat(format);
-		return sdf.format(time);
+		return format(time, getFormatter(format));
 	}
 
 	/**
@@ -238,8 +337,7 @@ public class DateUtil {
 	 * @return
 	 */
 	public String dateToStringJ(Date time, String format) {
-		SimpleDateFormat sdf = new SimpleDateFormat(format, Locale.JAPANESE);
-		return sdf.format(time);
+		return format(time, getFormatterJ(format));
 	}
 
 	/**
@@ -249,7 +347,7 @@ public class DateUtil {
 	 * @return
 	 */
 	public String dateToString(Date time) {
-		return dateToString(time, "yyyy/MM/dd HH:mm:ss");
+		return dateToString(time, DEFAULT_DATETIME_PATTERN);
 	}
 
 	/**
@@ -264,6 +362,16 @@ public class DateUtil {
 		return cal;
 	}
 
+	/**
+	 * Date型、Timestamp型をLocalDate型に変換
+	 * 
+	 * @param date
+	 * @return 時刻を切り捨てた日付
+	 */
+	public LocalDate toLocalDate(Date date) {
+		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+
 	/**
 	 * Calendar型をTimestamp型に変換
 	 * 
@@ -282,7 +390,7 @@ public class DateUtil {
 	 * @return stringToTimestamp()
 	 */
 	public Timestamp stringToTimestamp(String time) {
-		return stringToTimestamp(time, "yyyy/MM/dd HH:mm:ss");
+		return stringToTimestamp(time, DEFAULT_DATETIME_PATTERN);
 	}
 
 	/**
@@ -295,7 +403,7 @@ public class DateUtil {
 	public Timestamp stringToTimestamp(String time, String fmt) {
 		Timestamp dateTime = null;
 		try {
-			Long dateTimeLong = new SimpleDateFormat(fmt).parse(time).getTime();
+			Long dateTimeLong = parseDate(time, fmt).getTime();
 			dateTime = new Timestamp(dateTimeLong);
 		} catch (ParseException e) {
 			e.printStackTrace();
@@ -322,7 +430,7 @@ public class DateUtil {
 	 */
 	public java.sql.Date stringToSqlDate(String date, String format) {
 		try {
-			Date d = new SimpleDateFormat(format).parse(date);
+			Date d = parseDate(date, format);
 			Calendar cal = Calendar.getInstance();
 			cal.setTime(d);
 			cal.set(Calendar.HOUR_OF_DAY, 0);
@@ -344,7 +452,7 @@ public class DateUtil {
 	 */
 	public Date stringToDate(String date, String format) {
 		try {
-			Date d = new SimpleDateFormat(format).parse(date);
+			Date d = parseDate(date, format);
 			return d;
 		} catch (ParseException e) {
 			return null;
@@ -366,46 +474,33 @@ public class DateUtil {
 	 * @throws IllegalArgumentException 日付文字列が変換不可能な場合 または、矛盾している場合（例：2000/99/99）。
 	 */
 	public Calendar toCalendar(String strDate) {
-		strDate = format(strDate);
+		// 既定のフォーマット（yyyy/MM/dd HH:mm:ss.SSS系）の場合は正規化を省略する
+		if (!isDefaultFormat(strDate)) {
+			strDate = format(strDate);
+		}
 		Calendar cal = Calendar.getInstance();
 		cal.setLenient(false);
-
-		int yyyy = Integer.parseInt(strDate.substring(0, 4));
-		int MM = Integer.parseInt(strDate.substring(5, 7));
-		int dd = Integer.parseInt(strDate.substring(8, 10));
-		int HH = cal.get(Calendar.HOUR_OF_DAY);
-		int mm = cal.get(Calendar.MINUTE);
-		int ss = cal.get(Calendar.SECOND);
-		int SSS = cal.get(Calendar.MILLISECOND);
 		cal.clear();
-		cal.set(yyyy, MM - 1, dd);
+		cal.set(parseDigits(strDate, 0, 4), parseDigits(strDate, 5, 7) - 1,
+				parseDigits(strDate, 8, 10));
 		int len = strDate.length();
 		switch (len) {
 		case 10:
 			break;
 		case 16: // yyyy/MM/dd HH:mm
-			HH = Integer.parseInt(strDate.substring(11, 13));
-			mm = Integer.parseInt(strDate.substring(14, 16));
-			cal.set(Calendar.HOUR_OF_DAY, HH);
-			cal.set(Calendar.MINUTE, mm);
+			cal.set(Calendar.HOUR_OF_DAY, parseDigits(strDate, 11, 13));
+			cal.set(Calendar.MINUTE, parseDigits(strDate, 14, 16));
 			break;
 		case 19: // yyyy/MM/dd HH:mm:ss
-			HH = Integer.parseInt(strDate.substring(11, 13));
-			mm = Integer.parseInt(strDate.substring(14, 16));
-			ss = Integer.parseInt(strDate.substring(17, 19));
-			cal.set(Calendar.HOUR_OF_DAY, HH);
-			cal.set(Calendar.MINUTE, mm);
-			cal.set(Calendar.SECOND, ss);
+			cal.set(Calendar.HOUR_OF_DAY, parseDigits(strDate, 11, 13));
+			cal.set(Calendar.MINUTE, parseDigits(strDate, 14, 16));
+			cal.set(Calendar.SECOND, parseDigits(strDate, 17, 19));
 			break;
 		case 23: // yyyy/MM/dd HH:mm:ss.SSS
-			HH = Integer.parseInt(strDate.substring(11, 13));
-			mm = Integer.parseInt(strDate.substring(14, 16));
-			ss = Integer.parseInt(strDate.substring(17, 19));
-			SSS = Integer.parseInt(strDate.substring(20, 23));
-			cal.set(Calendar.HOUR_OF_DAY, HH);
-			cal.set(Calendar.MINUTE, mm);
-			cal.set(Calendar.SECOND, ss);
-			cal.set(Calendar.MILLISECOND, SSS);
+			cal.set(Calendar.HOUR_OF_DAY, parseDigits(strDate, 11, 13));
+			cal.set(Calendar.MINUTE, parseDigits(strDate, 14, 16));
+			cal.set(Calendar.SECOND, parseDigits(strDate, 17, 19));
+			cal.set(Calendar.MILLISECOND, parseDigits(strDate, 20, 23));
 			break;
 		default:
 			throw new IllegalArgumentException("引数の文字列[" + strDate + "]は日付文字列に変換できません");
@@ -413,6 +508,52 @@ public class DateUtil {
 		return cal;
 	}
 
+	/**
+	 * 既定の日付・時刻フォーマットか判定する。<br>
+	 * 対象：yyyy/MM/dd yyyy/MM/dd HH:mm yyyy/MM/dd HH:mm:ss yyyy/MM/dd HH:mm:ss.SSS
+	 * 
+	 * @param str
+	 * @return 既定のフォーマットの場合true
+	 */
+	private boolean isDefaultFormat(String str) {
+		if (str == null) {
+			return false;
+		}
+		int len = str.length();
+		if (len != 10 && len != 16 && len != 19 && len != 23) {
+			return false;
+		}
+		for (int i = 0; i < len; i++) {
+			char c = str.charAt(i);
+			char expected = DEFAULT_FORMAT_SEPARATORS.charAt(i);
+			if (expected == '0' ? (c < '0' || c > '9') : c != expected) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 指定範囲の数字を数値に変換する
+	 * 
+	 * @param str
+	 * @param from
+	 * @param to
+	 * @return 数値
+	 * @throws NumberFormatException 数字以外を含む場合
+	 */
+	private int parseDigits(String str, int from, int to) {
+		int value = 0;
+		for (int i = from; i < to; i++) {
+			char c = str.charAt(i);
+			if (c < '0' || c > '9') {
+				throw new NumberFormatException("For input string: \"" + str.substring(from, to) + "\"");
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
 	/**
 	 * 様々な日付、時刻文字列をデフォルトの日付・時刻フォーマット へ変換します。
 	 *
@@ -456,7 +597,7 @@ public class DateUtil {
 		}
 
 		StringTokenizer token = new StringTokenizer(str, "_/-:. ");
-		StringBuffer result = new StringBuffer();
+		StringBuilder result = new StringBuilder();
 		for (int i = 0; token.hasMoreTokens(); i++) {
 			String temp = token.nextToken();
 			switch (i) {
@@ -520,7 +661,7 @@ public class DateUtil {
 			str = "";
 		}
 
-		StringBuffer buffer = new StringBuffer(str);
+		StringBuilder buffer = new StringBuilder(str);
 		while (len > buffer.length()) {
 			if (position.equalsIgnoreCase("l")) {
 				int sum = buffer.length() + addStr.length();
@@ -637,7 +778,7 @@ public class DateUtil {
 	 * @return
 	 */
 	public boolean isDate(String dateStr) {
-		return isDate(dateStr, "yyyy/MM/dd HH:mm:ss");
+		return isDate(dateStr, DEFAULT_DATETIME_PATTERN);
 	}
 
 	/**
@@ -648,9 +789,8 @@ public class DateUtil {
 	 * @return
 	 */
 	public static boolean isDate(String dateStr, String fmt) {
-		SimpleDateFormat sdf = new SimpleDateFormat(fmt);
 		try {
-			sdf.parse(dateStr);
+			parseDate(dateStr, fmt);
 		} catch (ParseException e) {
 			return false;
 		}
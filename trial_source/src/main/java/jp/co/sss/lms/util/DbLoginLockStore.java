@@ -0,0 +1,61 @@
+package jp.co.sss.lms.util;
+
+import jp.co.sss.lms.mapper.TLoginLockMapper;
+
+/**
+ * ログインロックの保持方式（DB）<br>
+ * 複数ノード用。ログインロックテーブル（t_login_lock：login_idを主キーとする）に保持し、
+ * 判定・加算はそれぞれ1文で行う。日時の比較はDBの現在日時を使用する。
+ * 行の件数はロック期間・リセット期間を過ぎた行を1分毎に削除することで抑える。
+ *
+ * @author 東京ITスクール
+ */
+public class DbLoginLockStore implements LoginLockStore {
+
+	/** ログインロックテーブルマッパー */
+	private final TLoginLockMapper tLoginLockMapper;
+	/** ロックするNG回数 */
+	private final int lockCount;
+	/** ロック期間（分） */
+	private final int lockMinute;
+	/** NG回数のリセット期間（分） */
+	private final int resetMinute;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param tLoginLockMapper ログインロックテーブルマッパー
+	 * @param lockCount        ロックするNG回数
+	 * @param lockMinute       ロック期間（分）
+	 * @param resetMinute      NG回数のリセット期間（分）
+	 */
+	public DbLoginLockStore(TLoginLockMapper tLoginLockMapper, int lockCount, int lockMinute,
+			int resetMinute) {
+		this.tLoginLockMapper = tLoginLockMapper;
+		this.lockCount = lockCount;
+		this.lockMinute = lockMinute;
+		this.resetMinute = resetMinute;
+	}
+
+	@Override
+	public boolean isLocked(String loginId) {
+		return Boolean.TRUE.equals(tLoginLockMapper.isLocked(loginId, lockCount, lockMinute));
+	}
+
+	@Override
+	public boolean addFailure(String loginId) {
+		Integer count = tLoginLockMapper.addFailure(loginId, lockCount, lockMinute, resetMinute);
+		return count != null && count >= lockCount;
+	}
+
+	@Override
+	public void reset(String loginId) {
+		tLoginLockMapper.delete(loginId);
+	}
+
+	@Override
+	public void purge() {
+		tLoginLockMapper.deleteExpired(Math.max(lockMinute, resetMinute));
+	}
+
+}
@@ -0,0 +1,52 @@
+package jp.co.sss.lms.util;
+
+import jp.co.sss.lms.entity.TSession;
+import jp.co.sss.lms.mapper.TSessionMapper;
+
+/**
+ * セッションの保持方式（DB）<br>
+ * セッションテーブル（t_session：session_idを主キーとする）に保持する。
+ * 登録・更新は1文のUPSERTで行う。
+ *
+ * @author 東京ITスクール
+ */
+public class DbSessionRepository implements SessionRepository {
+
+	/** セッションテーブルマッパー */
+	private final TSessionMapper tSessionMapper;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param tSessionMapper セッションテーブルマッパー
+	 */
+	public DbSessionRepository(TSessionMapper tSessionMapper) {
+		this.tSessionMapper = tSessionMapper;
+	}
+
+	@Override
+	public TSession findById(String sessionId) {
+		return tSessionMapper.findById(sessionId, System.currentTimeMillis());
+	}
+
+	@Override
+	public void save(TSession tSession) {
+		tSessionMapper.upsert(tSession);
+	}
+
+	@Override
+	public void updateLastAccessTime(TSession tSession) {
+		tSessionMapper.updateLastAccessTime(tSession);
+	}
+
+	@Override
+	public void deleteById(String sessionId) {
+		tSessionMapper.delete(sessionId);
+	}
+
+	@Override
+	public int deleteExpired() {
+		return tSessionMapper.deleteExpired(System.currentTimeMillis());
+	}
+
+}
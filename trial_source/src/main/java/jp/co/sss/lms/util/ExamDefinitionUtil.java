@@ -0,0 +1,299 @@
+package jp.co.sss.lms.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.entity.MQuestion;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.MQuestionMapper;
+
+/**
+ * 試験定義ユーティリティ<br>
+ * 試験問題・選択肢・正解番号を試験毎に変更不可の試験定義としてメモリに保持し、受験中の画面遷移毎のDBアクセスを省略する。
+ * 保持件数は設定された件数までとし、最後に参照された時刻が古いものから破棄する。
+ * 試験マスタ・試験問題マスタの変更は、設定された間隔（秒）でバージョンを照合して検知する。
+ * 保持・照合の方式は{@link VersionedCache}を参照。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class ExamDefinitionUtil {
+
+	/** 正解番号が未設定の場合の値 */
+	static final short NO_ANSWER = Short.MIN_VALUE;
+
+	@Autowired
+	private MExamMapper mExamMapper;
+	@Autowired
+	private MQuestionMapper mQuestionMapper;
+
+	/** 保持する試験定義の上限件数 */
+	@Value("${setting.exam.cache.size:100}")
+	private int maxSize;
+	/** バージョンの照合間隔（秒） */
+	@Value("${setting.exam.cache.check.seconds:60}")
+	private int checkSeconds;
+
+	/** 試験定義のキャッシュ */
+	private VersionedCache<Integer, ExamDefinition> cache;
+
+	/**
+	 * キャッシュの初期化
+	 */
+	@PostConstruct
+	public void init() {
+		cache = new VersionedCache<>(maxSize, checkSeconds * 1000L, mExamMapper::getExamVersion,
+				this::load);
+	}
+
+	/**
+	 * 試験定義を取得する<br>
+	 * 保持していない場合、または照合間隔を過ぎてバージョンが変わっていた場合はDBから読み込む。
+	 *
+	 * @param examId
+	 * @return 試験定義（試験が存在しない場合null）
+	 */
+	public ExamDefinition getExamDefinition(Integer examId) {
+		return cache.get(examId);
+	}
+
+	/**
+	 * 試験定義を破棄する<br>
+	 * 試験マスタ・試験問題マスタを更新した場合に呼び出す。
+	 *
+	 * @param examId
+	 */
+	public void invalidate(Integer examId) {
+		cache.invalidate(examId);
+	}
+
+	/**
+	 * 全ての試験定義を破棄する
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * 保持している試験定義の件数を取得
+	 *
+	 * @return 件数
+	 */
+	public int getSize() {
+		return cache.getSize();
+	}
+
+	/**
+	 * 保持している試験定義を使用した件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	/**
+	 * DBから試験定義を読み込んだ件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getLoadCount() {
+		return cache.getLoadCount();
+	}
+
+	/**
+	 * 試験定義の読み込み
+	 *
+	 * @param examId
+	 * @param version
+	 * @return 試験定義（試験が存在しない場合null）
+	 */
+	private ExamDefinition load(Integer examId, String version) {
+		ExamQuestionDto examQuestionDto = mExamMapper.getExamQuestion(examId, Constants.DB_FLG_FALSE);
+		if (examQuestionDto == null) {
+			return null;
+		}
+		List<MQuestion> mQuestionList = mQuestionMapper.findByExamId(examId, Constants.DB_FLG_FALSE);
+		return new ExamDefinition(examQuestionDto, mQuestionList, version);
+	}
+
+	/**
+	 * 試験定義<br>
+	 * 生成後は変更しない。正解番号・問題IDはプリミティブ配列で保持する。
+	 */
+	public static final class ExamDefinition {
+
+		/** 試験ID */
+		private final Integer examId;
+		/** 試験名 */
+		private final String examName;
+		/** 制限時間 */
+		private final Integer limitTime;
+		/** バージョン */
+		private final String version;
+		/** 出題する問題ID */
+		private final int[] questionIds;
+		/** ジャンル詳細 */
+		private final String[] genreDetailNames;
+		/** 問題 */
+		private final String[] questions;
+		/** 選択肢1～4 */
+		private final String[][] choices;
+		/** 選択肢リスト（変更不可） */
+		private final List<List<String>> answerLists;
+		/** 採点対象の問題ID */
+		private final int[] markQuestionIds;
+		/** 採点対象の正解番号 */
+		private final short[] answerNums;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param examQuestionDto 試験問題DTO
+		 * @param mQuestionList   試験問題エンティティリスト（採点対象）
+		 * @param version         バージョン
+		 */
+		ExamDefinition(ExamQuestionDto examQuestionDto, List<MQuestion> mQuestionList, String version) {
+			this.examId = examQuestionDto.getExamId();
+			this.examName = examQuestionDto.getExamName();
+			this.limitTime = examQuestionDto.getLimitTime();
+			this.version = version;
+			List<QuestionDto> questionDtoList = examQuestionDto.getQuestionDtoList() == null
+					? Collections.emptyList()
+					: examQuestionDto.getQuestionDtoList();
+			int questionCount = questionDtoList.size();
+			this.questionIds = new int[questionCount];
+			this.genreDetailNames = new String[questionCount];
+			this.questions = new String[questionCount];
+			this.choices = new String[questionCount][];
+			List<List<String>> answerListList = new ArrayList<>(questionCount);
+			for (int i = 0; i < questionCount; i++) {
+				QuestionDto questionDto = questionDtoList.get(i);
+				questionIds[i] = questionDto.getQuestionId();
+				genreDetailNames[i] = questionDto.getGenreDetailName();
+				questions[i] = questionDto.getQuestion();
+				choices[i] = new String[] { questionDto.getChoice1(), questionDto.getChoice2(),
+						questionDto.getChoice3(), questionDto.getChoice4() };
+				answerListList.add(Collections.unmodifiableList(Arrays.asList(choices[i].clone())));
+			}
+			this.answerLists = Collections.unmodifiableList(answerListList);
+			int markCount = mQuestionList.size();
+			this.markQuestionIds = new int[markCount];
+			this.answerNums = new short[markCount];
+			for (int i = 0; i < markCount; i++) {
+				MQuestion mQuestion = mQuestionList.get(i);
+				markQuestionIds[i] = mQuestion.getQuestionId();
+				answerNums[i] = mQuestion.getAnswerNum() == null ? NO_ANSWER : mQuestion.getAnswerNum();
+			}
+		}
+
+		/**
+		 * 試験IDを取得
+		 *
+		 * @return 試験ID
+		 */
+		public Integer getExamId() {
+			return examId;
+		}
+
+		/**
+		 * 試験名を取得
+		 *
+		 * @return 試験名
+		 */
+		public String getExamName() {
+			return examName;
+		}
+
+		/**
+		 * 制限時間を取得
+		 *
+		 * @return 制限時間
+		 */
+		public Integer getLimitTime() {
+			return limitTime;
+		}
+
+		/**
+		 * バージョンを取得
+		 *
+		 * @return バージョン
+		 */
+		public String getVersion() {
+			return version;
+		}
+
+		/**
+		 * 出題する問題数を取得
+		 *
+		 * @return 問題数
+		 */
+		public int getQuestionCount() {
+			return questionIds.length;
+		}
+
+		/**
+		 * 問題DTOリストを生成する<br>
+		 * 問題DTOは呼び出し毎に生成し、選択肢リストは共有する。
+		 *
+		 * @return 問題DTOリスト
+		 */
+		public List<QuestionDto> createQuestionDtoList() {
+			List<QuestionDto> questionDtoList = new ArrayList<>(questionIds.length);
+			for (int i = 0; i < questionIds.length; i++) {
+				QuestionDto questionDto = new QuestionDto();
+				questionDto.setQuestionId(questionIds[i]);
+				questionDto.setGenreDetailName(genreDetailNames[i]);
+				questionDto.setQuestion(questions[i]);
+				questionDto.setChoice1(choices[i][0]);
+				questionDto.setChoice2(choices[i][1]);
+				questionDto.setChoice3(choices[i][2]);
+				questionDto.setChoice4(choices[i][3]);
+				questionDto.setAnswerList(answerLists.get(i));
+				questionDtoList.add(questionDto);
+			}
+			return questionDtoList;
+		}
+
+		/**
+		 * 採点対象の問題数を取得
+		 *
+		 * @return 問題数
+		 */
+		public int getMarkQuestionCount() {
+			return markQuestionIds.length;
+		}
+
+		/**
+		 * 採点対象の問題IDを取得
+		 *
+		 * @param index
+		 * @return 問題ID
+		 */
+		public int getMarkQuestionId(int index) {
+			return markQuestionIds[index];
+		}
+
+		/**
+		 * 回答が正解か判定する
+		 *
+		 * @param index 採点対象の問題の位置
+		 * @param reply 回答
+		 * @return 正解の場合true
+		 */
+		public boolean isCorrect(int index, Short reply) {
+			return reply != null && answerNums[index] != NO_ANSWER && answerNums[index] == reply;
+		}
+
+	}
+
+}
@@ -0,0 +1,320 @@
+package jp.co.sss.lms.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.dto.ExamStatDto;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+
+/**
+ * 試験統計ユーティリティ<br>
+ * 採点対象の試験結果の件数・得点の合計を試験・セクション紐づけID毎にメモリに保持し、
+ * 画面表示の都度の集計を省略する。
+ * 未保持の試験は参照時にDBから集計し、以降は試験結果の登録毎に加算する。
+ * 加算の取りこぼしは設定された間隔（分）の再集計で補正する。
+ * <p>
+ * 試験結果IDはコミット順に並ばないため、重複加算の判定は集計・加算済みの試験結果IDの集合で行う。
+ * 集計時は直近に登録された試験結果IDも取得し、集計中に届いた加算は集計の反映後に再適用する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class ExamStatUtil {
+
+	/** 集計済みとして試験結果IDを取得する期間（分）。登録からコミット後の加算までの時間より長くする */
+	private static final int RECENT_MINUTES = 10;
+
+	@Autowired
+	private TExamResultMapper tExamResultMapper;
+
+	/** 再集計の間隔（分）。0以下の場合は再集計しない */
+	@Value("${setting.exam.stat.rebuild.minutes:60}")
+	private int rebuildMinutes;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** 試験・セクション紐づけID毎の統計 */
+	private final Map<Integer, ExamStat> statMap = new ConcurrentHashMap<>();
+	/** 集計中に届いた加算（集計中のみ保持） */
+	private final List<ExamStatIncrement> pendingList = new ArrayList<>();
+	/** 実行中の集計の件数 */
+	private int loadingCount;
+
+	/** 再集計スレッド */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * 再集計スレッドの開始
+	 */
+	@PostConstruct
+	public void init() {
+		if (rebuildMinutes <= 0) {
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "exam-stat-rebuild");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(() -> {
+			try {
+				rebuild();
+			} catch (Exception e) {
+				logger.error("試験統計の再集計に失敗しました。", e);
+			}
+		}, rebuildMinutes, rebuildMinutes, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * 再集計スレッドの終了
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 試験統計を取得する<br>
+	 * 保持していない場合はDBから集計する。
+	 *
+	 * @param examSectionId
+	 * @return 試験統計
+	 */
+	public ExamStat getExamStat(Integer examSectionId) {
+		ExamStat examStat = statMap.get(examSectionId);
+		if (examStat == null) {
+			Map<Integer, ExamStat> loaded = load(examSectionId);
+			synchronized (this) {
+				statMap.putIfAbsent(examSectionId,
+						loaded.getOrDefault(examSectionId, new ExamStat(null)));
+				completeLoad();
+				examStat = statMap.get(examSectionId);
+			}
+		}
+		return examStat;
+	}
+
+	/**
+	 * 採点対象の試験結果を加算する<br>
+	 * トランザクション中の場合はコミット後に加算する。
+	 *
+	 * @param examSectionId
+	 * @param examResultId
+	 * @param score         得点
+	 */
+	public void add(Integer examSectionId, Integer examResultId, int score) {
+		ExamStatIncrement increment = new ExamStatIncrement(examSectionId, examResultId, score);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					addNow(increment);
+				}
+			});
+		} else {
+			addNow(increment);
+		}
+	}
+
+	/**
+	 * 全ての試験統計をDBから再集計する
+	 */
+	public void rebuild() {
+		Map<Integer, ExamStat> loaded = load(null);
+		synchronized (this) {
+			statMap.keySet().retainAll(loaded.keySet());
+			statMap.putAll(loaded);
+			completeLoad();
+		}
+	}
+
+	/**
+	 * 採点対象の試験結果を加算する<br>
+	 * 未保持の試験は次回の参照時に集計するため加算しない。
+	 * 集計中の場合は集計の反映後に再適用するため保持する。
+	 *
+	 * @param increment
+	 */
+	private synchronized void addNow(ExamStatIncrement increment) {
+		if (loadingCount > 0) {
+			pendingList.add(increment);
+		}
+		ExamStat examStat = statMap.get(increment.examSectionId);
+		if (examStat != null) {
+			examStat.add(increment.examResultId, increment.score);
+		}
+	}
+
+	/**
+	 * 集計の反映後、集計中に届いた加算を再適用する<br>
+	 * 集計に含まれる試験結果は試験結果IDで判定して加算しない。
+	 */
+	private void completeLoad() {
+		for (ExamStatIncrement increment : pendingList) {
+			ExamStat examStat = statMap.get(increment.examSectionId);
+			if (examStat != null) {
+				examStat.add(increment.examResultId, increment.score);
+			}
+		}
+		if (--loadingCount == 0) {
+			pendingList.clear();
+		}
+	}
+
+	/**
+	 * 試験統計をDBから集計する<br>
+	 * 呼び出し後は{@link #completeLoad()}を呼び出すこと。
+	 *
+	 * @param examSectionId 試験・セクション紐づけID（nullの場合は全件）
+	 * @return 試験・セクション紐づけID毎の統計
+	 */
+	private Map<Integer, ExamStat> load(Integer examSectionId) {
+		synchronized (this) {
+			loadingCount++;
+		}
+		Map<Integer, ExamStat> loaded = new HashMap<>();
+		try {
+			Date since = new Date(
+					System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(RECENT_MINUTES));
+			List<ExamStatDto> examStatDtoList = tExamResultMapper.getExamStatList(examSectionId,
+					since, Constants.DB_FLG_FALSE);
+			for (ExamStatDto examStatDto : examStatDtoList) {
+				loaded.put(examStatDto.getExamSectionId(), new ExamStat(examStatDto));
+			}
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				completeLoad();
+			}
+			throw e;
+		}
+		return loaded;
+	}
+
+	/**
+	 * 得点から点数（100点満点、小数第1位で四捨五入）を算出する
+	 *
+	 * @param score          得点
+	 * @param numOfQuestion 問題数
+	 * @return 点数（得点・問題数がない場合null）
+	 */
+	public static Double toPoint(Number score, Integer numOfQuestion) {
+		if (score == null || numOfQuestion == null || numOfQuestion == 0) {
+			return null;
+		}
+		return new BigDecimal(score.toString()).multiply(BigDecimal.valueOf(100))
+				.divide(BigDecimal.valueOf(numOfQuestion), 1, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	/**
+	 * 試験統計の加算
+	 */
+	private static final class ExamStatIncrement {
+
+		/** 試験・セクション紐づけID */
+		private final Integer examSectionId;
+		/** 試験結果ID */
+		private final Integer examResultId;
+		/** 得点 */
+		private final int score;
+
+		ExamStatIncrement(Integer examSectionId, Integer examResultId, int score) {
+			this.examSectionId = examSectionId;
+			this.examResultId = examResultId;
+			this.score = score;
+		}
+
+	}
+
+	/**
+	 * 試験統計<br>
+	 * 集計時に直近に登録されていた試験結果と加算した試験結果のIDを保持し、重複加算を防ぐ。
+	 */
+	public static final class ExamStat {
+
+		/** 採点対象の件数 */
+		private int markCount;
+		/** 得点の合計 */
+		private long scoreSum;
+		/** 集計・加算済みの試験結果ID */
+		private final Set<Integer> examResultIds = new HashSet<>();
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param examStatDto 試験統計DTO（採点対象の試験結果がない場合null）
+		 */
+		ExamStat(ExamStatDto examStatDto) {
+			if (examStatDto != null) {
+				markCount = examStatDto.getMarkCount();
+				scoreSum = examStatDto.getScoreSum();
+				String recentIds = examStatDto.getRecentExamResultIds();
+				if (recentIds != null && !recentIds.isEmpty()) {
+					for (String examResultId : recentIds.split(",")) {
+						examResultIds.add(Integer.valueOf(examResultId));
+					}
+				}
+			}
+		}
+
+		/**
+		 * 試験結果を加算する
+		 *
+		 * @param examResultId
+		 * @param score
+		 */
+		synchronized void add(Integer examResultId, int score) {
+			if (!examResultIds.add(examResultId)) {
+				return;
+			}
+			markCount++;
+			scoreSum += score;
+		}
+
+		/**
+		 * 採点対象の件数を取得
+		 *
+		 * @return 件数
+		 */
+		public synchronized int getMarkCount() {
+			return markCount;
+		}
+
+		/**
+		 * 平均得点（小数第1位で四捨五入）を取得
+		 *
+		 * @return 平均得点（採点対象の試験結果がない場合null）
+		 */
+		public synchronized BigDecimal getAvgScore() {
+			if (markCount == 0) {
+				return null;
+			}
+			return BigDecimal.valueOf(scoreSum).divide(BigDecimal.valueOf(markCount), 1,
+					RoundingMode.HALF_UP);
+		}
+
+	}
+
+}
@@ -1,13 +1,16 @@
 package jp.co.sss.lms.util;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -22,8 +25,12 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
 
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
@@ -44,8 +51,14 @@ public class ExcelUtil {
 	public static final int MAX_COL_NUM = 16384;
 	/* エクセル縦軸文字を数値に変換 */
 	public static final String MAX_COL_STR = CellReference.convertNumToColString(ExcelUtil.MAX_COL_NUM - 1);
+	/* ストリーミング出力時にメモリ上に保持する行数 */
+	private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+	/* テンプレートファイルのキャッシュ（ファイルパス→ファイル内容） */
+	private static final Map<String, byte[]> TEMPLATE_CACHE = new ConcurrentHashMap<>();
 	/* ワークブック初期化 */
 	private Workbook wb = null;
+	/* テンプレートのワークブック（ストリーミング出力時のみ） */
+	private XSSFWorkbook templateWb = null;
 
 	/**
 	 * ファイルパスから作成済みのファイルを開く
@@ -53,11 +66,27 @@ public class ExcelUtil {
 	 * @param filePath
 	 */
 	public ExcelUtil(String filePath) {
-		try (InputStream in = new ClassPathResource(filePath).getInputStream()) {
+		this(filePath, false);
+	}
+
+	/**
+	 * ファイルパスから作成済みのファイルを開く<br>
+	 * テンプレートファイルは初回のみ読み込み、以降はキャッシュした内容から複製する。
+	 * ストリーミング出力の場合、テンプレートの最終行より後の行は一定行数を超えると一時ファイルへ書き出す。
+	 * 
+	 * @param filePath
+	 * @param streaming ストリーミング出力する場合true（xlsx形式のみ）
+	 */
+	public ExcelUtil(String filePath, boolean streaming) {
+		try (InputStream in = new ByteArrayInputStream(getTemplate(filePath))) {
 			wb = WorkbookFactory.create(in);
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
+		if (streaming && wb instanceof XSSFWorkbook) {
+			templateWb = (XSSFWorkbook) wb;
+			wb = new SXSSFWorkbook(templateWb, ROW_ACCESS_WINDOW_SIZE);
+		}
 	}
 
 	/**
@@ -141,7 +170,7 @@ public class ExcelUtil {
 	 * @param clmNum
 	 */
 	private Cell getCell(String sheetName, int rowNum, int clmNum) {
-		Sheet sheet = wb.getSheet(sheetName);
+		Sheet sheet = getSheet(sheetName, rowNum);
 		Row row = sheet.getRow(rowNum);
 		if (row == null) {
 			row = sheet.createRow(rowNum);
@@ -153,6 +182,40 @@ public class ExcelUtil {
 		return cell;
 	}
 
+	/**
+	 * 行を保持するシートを取得<br>
+	 * ストリーミング出力の場合、テンプレートの範囲内の行はテンプレートのシートから取得する。
+	 * 
+	 * @param sheetName
+	 * @param rowNum
+	 * @return シート
+	 */
+	private Sheet getSheet(String sheetName, int rowNum) {
+		if (templateWb != null) {
+			Sheet templateSheet = templateWb.getSheet(sheetName);
+			if (templateSheet != null && rowNum <= templateSheet.getLastRowNum()) {
+				return templateSheet;
+			}
+		}
+		return wb.getSheet(sheetName);
+	}
+
+	/**
+	 * テンプレートファイルの内容を取得<br>
+	 * 
+	 * @param filePath
+	 * @return ファイル内容
+	 */
+	private static byte[] getTemplate(String filePath) {
+		return TEMPLATE_CACHE.computeIfAbsent(filePath, key -> {
+			try (InputStream in = new ClassPathResource(key).getInputStream()) {
+				return IOUtils.toByteArray(in);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
 	/**
 	 * ワークブックを取得<br>
 	 * 
@@ -186,7 +249,7 @@ public class ExcelUtil {
 	 */
 	public void sheetCopy(String sheetName, int st, int en, int cnt) {
 		// シート情報を取得
-		Sheet sheet = wb.getSheet(sheetName);
+		Sheet sheet = getSheet(sheetName, st);
 		int x = sheet.getNumMergedRegions();
 		Row row = null, row2 = null;
 		Cell cell = null, cell2 = null;
@@ -197,7 +260,7 @@ public class ExcelUtil {
 			if (row != null) {
 				height = row.getHeight();
 				// 最終行をベースに下(Row)へコピーしていく。
-				row2 = sheet.createRow((en - st) * cnt + i);
+				row2 = getSheet(sheetName, (en - st) * cnt + i).createRow((en - st) * cnt + i);
 				row2.setHeight(height);
 				for (int j = 0; j < row.getLastCellNum(); j++) {
 					cell = row.getCell(j);
@@ -227,14 +290,14 @@ public class ExcelUtil {
 				}
 			}
 		}
-		// 結合状態を設定
+		// 結合状態を設定（コピー元の行範囲内の結合のみ。コピー済みの結合を再度コピーしない）
 		CellRangeAddress cra = null;
 		for (int i = 0; i < x; i++) {
 			cra = sheet.getMergedRegion(i);
-			if (cra.getFirstRow() >= st) {
+			if (cra.getFirstRow() >= st && cra.getLastRow() < en) {
 				CellRangeAddress newCra = new CellRangeAddress(cra.getFirstRow() + (en - st) * cnt,
 						cra.getLastRow() + (en - st) * cnt, cra.getFirstColumn(), cra.getLastColumn());
-				sheet.addMergedRegion(newCra);
+				wb.getSheet(sheetName).addMergedRegion(newCra);
 			}
 		}
 	}
@@ -257,6 +320,19 @@ public class ExcelUtil {
 
 		try (ServletOutputStream out = response.getOutputStream()) {
 			workbookDto.getWb().write(out);
+		} finally {
+			dispose(workbookDto.getWb());
+		}
+	}
+
+	/**
+	 * ストリーミング出力の一時ファイルを削除する
+	 * 
+	 * @param wb
+	 */
+	private static void dispose(Workbook wb) {
+		if (wb instanceof SXSSFWorkbook) {
+			((SXSSFWorkbook) wb).dispose();
 		}
 	}
 
@@ -269,32 +345,11 @@ public class ExcelUtil {
 	 */
 	public static void downloadBookInZip(List<WorkbookDto> workbookDtoList, HttpServletResponse response)
 			throws IOException {
-		try (ZipOutputStream zos = new ZipOutputStream(response.getOutputStream(), Charset.forName("MS932"))) {
-			List<String> wbNameList = new ArrayList<String>();
+		setZipHeader("レポート", response);
+		try (ZipOutputStream zos = createZipOutputStream(response)) {
+			Set<String> wbNameSet = new HashSet<String>();
 			for (WorkbookDto workbookDto : workbookDtoList) {
-
-				// もし、同名のファイルがあった場合ファイル名末尾に「(n)」を付与する
-				int count = 1;
-				String wbName = workbookDto.getWbName();
-				while (wbNameList.contains(wbName)) {
-					String prefix = FileUtil.getPrefix(workbookDto.getWbName());
-					String suffix = FileUtil.getSuffix(workbookDto.getWbName());
-					wbName = prefix + "(" + count + ")." + suffix;
-					count++;
-				}
-				wbNameList.add(wbName);
-
-				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				String zipName = "レポート";
-				String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"), "ISO-8859-1");
-				fileName += ".zip";
-				response.setContentType("application/octet-stream");
-				response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
-				workbookDto.getWb().write(baos);
-
-				zos.putNextEntry(new ZipEntry(wbName));
-				zos.write(baos.toByteArray(), 0, baos.toByteArray().length);
-				zos.closeEntry();
+				writeZipEntry(zos, workbookDto, wbNameSet);
 			}
 		}
 	}
@@ -308,33 +363,68 @@ public class ExcelUtil {
 	 */
 	public static void downloadReportInZip(List<WorkbookDto> workbookDtoList, HttpServletResponse response)
 			throws IOException {
-		try (ZipOutputStream zos = new ZipOutputStream(response.getOutputStream(), Charset.forName("MS932"))) {
-			List<String> wbNameList = new ArrayList<String>();
+		setZipHeader(messageUtil.getMessage("dailyReportId"), response);
+		try (ZipOutputStream zos = createZipOutputStream(response)) {
+			Set<String> wbNameSet = new HashSet<String>();
 			for (WorkbookDto workbookDto : workbookDtoList) {
+				writeZipEntry(zos, workbookDto, wbNameSet);
+			}
+		}
+	}
 
-				// もし、同名のファイルがあった場合ファイル名末尾に「(n)」を付与する
-				int count = 1;
-				String wbName = workbookDto.getWbName();
-				while (wbNameList.contains(wbName)) {
-					String prefix = FileUtil.getPrefix(workbookDto.getWbName());
-					String suffix = FileUtil.getSuffix(workbookDto.getWbName());
-					wbName = prefix + "(" + count + ")." + suffix;
-					count++;
-				}
-				wbNameList.add(wbName);
-
-				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				String zipName = messageUtil.getMessage("dailyReportId");
-				String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"), "ISO-8859-1");
-				fileName += ".zip";
-				response.setContentType("application/octet-stream");
-				response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
-				workbookDto.getWb().write(baos);
-
-				zos.putNextEntry(new ZipEntry(wbName));
-				zos.write(baos.toByteArray(), 0, baos.toByteArray().length);
-				zos.closeEntry();
+	/**
+	 * ZIPファイルのダウンロード用のレスポンスヘッダーを設定する
+	 * 
+	 * @param zipName  ZIPファイル名（拡張子なし）
+	 * @param response
+	 * @throws IOException
+	 */
+	private static void setZipHeader(String zipName, HttpServletResponse response) throws IOException {
+		String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"), "ISO-8859-1");
+		fileName += ".zip";
+		response.setContentType("application/octet-stream");
+		response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
+	}
+
+	/**
+	 * レスポンスに出力するZIPストリームを作成する
+	 * 
+	 * @param response
+	 * @return ZIPストリーム
+	 * @throws IOException
+	 */
+	private static ZipOutputStream createZipOutputStream(HttpServletResponse response) throws IOException {
+		return new ZipOutputStream(response.getOutputStream(), Charset.forName("MS932"));
+	}
+
+	/**
+	 * WorkbookをZIPエントリとして直接書き出す<br>
+	 * 同名のファイルがあった場合はファイル名末尾に「(n)」を付与する。
+	 * 
+	 * @param zos
+	 * @param workbookDto
+	 * @param wbNameSet   書き出し済みのファイル名
+	 * @throws IOException
+	 */
+	private static void writeZipEntry(ZipOutputStream zos, WorkbookDto workbookDto, Set<String> wbNameSet)
+			throws IOException {
+		try {
+			int count = 1;
+			String wbName = workbookDto.getWbName();
+			while (wbNameSet.contains(wbName)) {
+				String prefix = FileUtil.getPrefix(workbookDto.getWbName());
+				String suffix = FileUtil.getSuffix(workbookDto.getWbName());
+				wbName = prefix + "(" + count + ")." + suffix;
+				count++;
 			}
+			wbNameSet.add(wbName);
+
+			zos.putNextEntry(new ZipEntry(wbName));
+			// xlsx形式の書き出しは出力先を閉じるため、ZIPストリームを閉じないようにする
+			workbookDto.getWb().write(StreamUtils.nonClosing(zos));
+			zos.closeEntry();
+		} finally {
+			dispose(workbookDto.getWb());
 		}
 	}
 
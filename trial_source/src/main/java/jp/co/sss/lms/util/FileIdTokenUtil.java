@@ -0,0 +1,216 @@
+package jp.co.sss.lms.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.sss.lms.dto.LoginUserDto;
+
+/**
+ * ファイルIDトークンユーティリティ<br>
+ * ダウンロードリンクに埋め込むファイルIDを、ユーザー毎の鍵で暗号化＋改ざん検知（Encrypt-then-MAC）したトークンに変換する。
+ * トークンからファイルIDへの復元は1回の検証と復号で行う。
+ * ユーザー毎の鍵は呼び出し毎にマスター鍵から導出し、セッションには保持しない。
+ * マスター鍵は再起動後・他のサーバーでもトークンを復元できるよう、設定値を必須とする。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class FileIdTokenUtil {
+
+	/** 暗号ブロック長（バイト） */
+	private static final int BLOCK_LENGTH = 16;
+	/** トークンに含める改ざん検知コードの長さ（バイト） */
+	private static final int TAG_LENGTH = 8;
+	/** トークンの長さ（バイト） */
+	private static final int TOKEN_LENGTH = BLOCK_LENGTH + TAG_LENGTH;
+	/** 暗号化方式 */
+	private static final String CIPHER_ALGORITHM = "AES/ECB/NoPadding";
+	/** 改ざん検知方式 */
+	private static final String MAC_ALGORITHM = "HmacSHA256";
+	/** マスター鍵の最小長（バイト） */
+	private static final int MIN_SECRET_LENGTH = 32;
+
+	@Autowired
+	private LoginUserDto loginUserDto;
+
+	/** マスター鍵 */
+	@Value("${setting.file.token.secret:}")
+	private String secret;
+
+	/** マスター鍵 */
+	private SecretKeySpec masterKey;
+
+	/**
+	 * マスター鍵の初期化
+	 */
+	@PostConstruct
+	public void init() {
+		byte[] key = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+		if (key.length < MIN_SECRET_LENGTH) {
+			// 起動毎に異なる鍵ではダウンロードリンクが再起動・サーバー間で無効になるため起動させない
+			throw new IllegalStateException(
+					"setting.file.token.secret must be at least " + MIN_SECRET_LENGTH + " bytes");
+		}
+		masterKey = new SecretKeySpec(key, MAC_ALGORITHM);
+	}
+
+	/**
+	 * ファイルIDをトークンに変換
+	 *
+	 * @param fileId ファイルID
+	 * @return トークン（数値に変換できない場合null）
+	 */
+	public String encode(String fileId) {
+		if (fileId == null) {
+			return null;
+		}
+		int plainFileId;
+		try {
+			plainFileId = Integer.parseInt(fileId);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		return encode(plainFileId);
+	}
+
+	/**
+	 * ファイルIDをトークンに変換
+	 *
+	 * @param fileId ファイルID
+	 * @return トークン
+	 */
+	public String encode(int fileId) {
+		TokenKey tokenKey = deriveKey();
+		byte[] block = new byte[BLOCK_LENGTH];
+		ByteBuffer.wrap(block).putInt(fileId);
+		byte[] token = new byte[TOKEN_LENGTH];
+		try {
+			Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+			cipher.init(Cipher.ENCRYPT_MODE, tokenKey.encryptKey);
+			cipher.doFinal(block, 0, BLOCK_LENGTH, token, 0);
+		} catch (GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+		System.arraycopy(mac(tokenKey, token), 0, token, BLOCK_LENGTH, TAG_LENGTH);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+	}
+
+	/**
+	 * トークンをファイルIDに復元
+	 *
+	 * @param token トークン
+	 * @return ファイルID（不正なトークンの場合null）
+	 */
+	public Integer decode(String token) {
+		if (token == null) {
+			return null;
+		}
+		byte[] bytes;
+		try {
+			bytes = Base64.getUrlDecoder().decode(token);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (bytes.length != TOKEN_LENGTH) {
+			return null;
+		}
+		TokenKey tokenKey = deriveKey();
+		// 改ざん検知コードを検証してから復号する
+		byte[] tag = Arrays.copyOf(mac(tokenKey, bytes), TAG_LENGTH);
+		if (!MessageDigest.isEqual(tag, Arrays.copyOfRange(bytes, BLOCK_LENGTH, TOKEN_LENGTH))) {
+			return null;
+		}
+		byte[] block;
+		try {
+			Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+			cipher.init(Cipher.DECRYPT_MODE, tokenKey.encryptKey);
+			block = cipher.doFinal(bytes, 0, BLOCK_LENGTH);
+		} catch (GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+		for (int i = Integer.BYTES; i < BLOCK_LENGTH; i++) {
+			if (block[i] != 0) {
+				return null;
+			}
+		}
+		return ByteBuffer.wrap(block).getInt();
+	}
+
+	/**
+	 * ログインユーザーの鍵を導出
+	 *
+	 * @return 鍵
+	 */
+	private TokenKey deriveKey() {
+		String suffix = ":" + loginUserDto.getUserId();
+		return new TokenKey(
+				new SecretKeySpec(Arrays.copyOf(hmac(masterKey, "enc" + suffix), BLOCK_LENGTH), "AES"),
+				new SecretKeySpec(hmac(masterKey, "mac" + suffix), MAC_ALGORITHM));
+	}
+
+	/**
+	 * 暗号文の改ざん検知コードを取得
+	 *
+	 * @param tokenKey
+	 * @param token    先頭に暗号文を含むトークン
+	 * @return 改ざん検知コード
+	 */
+	private byte[] mac(TokenKey tokenKey, byte[] token) {
+		try {
+			Mac mac = Mac.getInstance(MAC_ALGORITHM);
+			mac.init(tokenKey.macKey);
+			mac.update(token, 0, BLOCK_LENGTH);
+			return mac.doFinal();
+		} catch (GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * HMACの取得
+	 *
+	 * @param key
+	 * @param value
+	 * @return HMAC
+	 */
+	private byte[] hmac(SecretKeySpec key, String value) {
+		try {
+			Mac mac = Mac.getInstance(MAC_ALGORITHM);
+			mac.init(key);
+			return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * ユーザー毎の鍵
+	 */
+	private static final class TokenKey {
+
+		/** 暗号化鍵 */
+		private final SecretKeySpec encryptKey;
+		/** 改ざん検知鍵 */
+		private final SecretKeySpec macKey;
+
+		TokenKey(SecretKeySpec encryptKey, SecretKeySpec macKey) {
+			this.encryptKey = encryptKey;
+			this.macKey = macKey;
+		}
+
+	}
+
+}
@@ -2,10 +2,9 @@ package jp.co.sss.lms.util;
 
 import java.math.BigDecimal;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import jp.co.sss.lms.dto.FileDownloadDto;
-
 /**
  * FileUtil<br>
  * ファイル関係のユーティリティクラス<br>
@@ -24,8 +23,17 @@ public class FileUtil {
 	/** GB[1024MB] */
 	private static final Long GB = (long) MB * 1024;
 
-	public Integer getPlaneFileId(FileDownloadDto fileDownloadDto, String hashedFileId) {
-		return fileDownloadDto.getFileIdMap().get(hashedFileId);
+	@Autowired
+	private FileIdTokenUtil fileIdTokenUtil;
+
+	/**
+	 * ファイルIDトークンからファイルIDを取得
+	 * 
+	 * @param hashedFileId ファイルIDトークン
+	 * @return ファイルID（不正なトークンの場合null）
+	 */
+	public Integer getPlaneFileId(String hashedFileId) {
+		return fileIdTokenUtil.decode(hashedFileId);
 	}
 
 	/**
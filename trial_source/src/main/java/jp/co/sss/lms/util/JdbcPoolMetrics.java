@@ -0,0 +1,103 @@
+package jp.co.sss.lms.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * コネクションプール統計<br>
+ * コネクションプール（HikariCP）の開始前に統計の記録先を設定し、接続の取得待ち時間・使用時間・取得タイムアウト件数を
+ * 記録する。使用中・待機中の接続数、接続待ちのスレッド数はプールの現在値を参照する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class JdbcPoolMetrics implements BeanPostProcessor {
+
+	/** 接続の取得待ち時間 */
+	private final LatencyHistogram acquireLatency = new LatencyHistogram();
+	/** 接続の使用時間 */
+	private final LatencyHistogram usageLatency = new LatencyHistogram();
+	/** 接続の取得タイムアウト件数 */
+	private final LongAdder timeoutCount = new LongAdder();
+
+	/** プールの現在値（プールの開始前はnull） */
+	private volatile PoolStats poolStats;
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+		if (bean instanceof HikariDataSource dataSource
+				&& dataSource.getMetricsTrackerFactory() == null) {
+			dataSource.setMetricsTrackerFactory((poolName, stats) -> {
+				poolStats = stats;
+				return new MetricsTracker();
+			});
+		}
+		return bean;
+	}
+
+	/**
+	 * 接続の取得待ち時間を取得
+	 *
+	 * @return 処理時間の分布
+	 */
+	public LatencyHistogram getAcquireLatency() {
+		return acquireLatency;
+	}
+
+	/**
+	 * 接続の使用時間を取得
+	 *
+	 * @return 処理時間の分布
+	 */
+	public LatencyHistogram getUsageLatency() {
+		return usageLatency;
+	}
+
+	/**
+	 * 接続の取得タイムアウト件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getTimeoutCount() {
+		return timeoutCount.sum();
+	}
+
+	/**
+	 * プールの現在値を取得
+	 *
+	 * @return プールの現在値（プールの開始前はnull）
+	 */
+	public PoolStats getPoolStats() {
+		return poolStats;
+	}
+
+	/**
+	 * 統計の記録先
+	 */
+	private final class MetricsTracker implements IMetricsTracker {
+
+		@Override
+		public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+			acquireLatency.record(elapsedAcquiredNanos);
+		}
+
+		@Override
+		public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+			usageLatency.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+		}
+
+		@Override
+		public void recordConnectionTimeout() {
+			timeoutCount.increment();
+		}
+
+	}
+
+}
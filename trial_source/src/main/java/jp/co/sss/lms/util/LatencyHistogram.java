@@ -0,0 +1,131 @@
+package jp.co.sss.lms.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 処理時間の分布<br>
+ * 固定の上限（ミリ秒）毎に上限以下の件数を数え、件数・合計・最大と合わせて保持する。
+ * 百分位は該当する区間の中で線形に補間した推定値とする。
+ *
+ * @author 東京ITスクール
+ */
+public class LatencyHistogram {
+
+	/** 区間の上限（ミリ秒） */
+	private static final long[] BUCKET_MILLIS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500,
+			5000, 10000 };
+
+	/** 区間毎の件数（最後は上限なし） */
+	private final LongAdder[] buckets = new LongAdder[BUCKET_MILLIS.length + 1];
+	/** 件数 */
+	private final LongAdder count = new LongAdder();
+	/** 合計（ナノ秒） */
+	private final LongAdder sumNanos = new LongAdder();
+	/** 最大（ナノ秒） */
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * コンストラクタ
+	 */
+	public LatencyHistogram() {
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * 区間の上限を取得
+	 *
+	 * @return 区間の上限（ミリ秒、上限なしの区間は含まない）
+	 */
+	public static long[] getBucketMillis() {
+		return BUCKET_MILLIS.clone();
+	}
+
+	/**
+	 * 処理時間を記録する
+	 *
+	 * @param nanos 処理時間（ナノ秒）
+	 */
+	public void record(long nanos) {
+		int i = 0;
+		while (i < BUCKET_MILLIS.length
+				&& nanos > TimeUnit.MILLISECONDS.toNanos(BUCKET_MILLIS[i])) {
+			i++;
+		}
+		buckets[i].increment();
+		count.increment();
+		sumNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+	}
+
+	/**
+	 * 件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * 合計を取得
+	 *
+	 * @return 合計（ナノ秒）
+	 */
+	public long getSumNanos() {
+		return sumNanos.sum();
+	}
+
+	/**
+	 * 最大を取得
+	 *
+	 * @return 最大（ナノ秒）
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * 区間の上限以下の件数の累計を取得
+	 *
+	 * @return 件数の累計（最後は上限なしの区間を含む全件数）
+	 */
+	public long[] getCumulativeCounts() {
+		long[] cumulativeCounts = new long[buckets.length];
+		long cumulative = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			cumulative += buckets[i].sum();
+			cumulativeCounts[i] = cumulative;
+		}
+		return cumulativeCounts;
+	}
+
+	/**
+	 * 百分位の推定値を取得
+	 *
+	 * @param quantile 0.0～1.0
+	 * @return 推定値（ミリ秒、記録がない場合0）
+	 */
+	public double getQuantileMillis(double quantile) {
+		long[] cumulativeCounts = getCumulativeCounts();
+		long total = cumulativeCounts[cumulativeCounts.length - 1];
+		if (total == 0) {
+			return 0;
+		}
+		double rank = quantile * total;
+		long previous = 0;
+		for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+			if (cumulativeCounts[i] >= rank && cumulativeCounts[i] > previous) {
+				double lower = i == 0 ? 0 : BUCKET_MILLIS[i - 1];
+				return lower + (BUCKET_MILLIS[i] - lower) * (rank - previous)
+						/ (cumulativeCounts[i] - previous);
+			}
+			previous = cumulativeCounts[i];
+		}
+		return TimeUnit.NANOSECONDS.toMicros(getMaxNanos()) / 1000.0;
+	}
+
+}
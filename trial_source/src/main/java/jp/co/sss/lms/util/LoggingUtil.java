@@ -6,6 +6,7 @@ import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jp.co.sss.lms.dto.LoginUserDto;
@@ -23,6 +24,10 @@ public class LoggingUtil {
 	@Autowired
 	HttpServletRequest request;
 
+	/** アクセスログに出力するリクエストヘッダ */
+	@Value("${setting.log.access.headers:}")
+	private String[] accessLogHeaders;
+
 	/**
 	 * 権限マップ
 	 */
@@ -40,7 +45,7 @@ public class LoggingUtil {
 	 * 
 	 * @param sb
 	 */
-	public void appendLog(StringBuffer sb) {
+	public void appendLog(StringBuilder sb) {
 
 		sb.append(request.getRequestURI());
 
@@ -91,4 +96,111 @@ public class LoggingUtil {
 		}
 
 	}
+
+	/**
+	 * アクセスログ（1行、key=value形式）の取得<br>
+	 * ヘッダは設定で指定されたもののみ、パスワード系のパラメータはマスクして出力する。
+	 * 
+	 * @param status        ステータスコード（未処理の例外の場合は500）
+	 * @param elapsedMillis 処理時間（ミリ秒）
+	 * @param sqlCount      実行したSQLの件数
+	 * @return アクセスログ
+	 */
+	public String getAccessLog(int status, long elapsedMillis, int sqlCount) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("method=").append(request.getMethod());
+		sb.append(" uri=").append(request.getRequestURI());
+		sb.append(" status=").append(status);
+		sb.append(" elapsedMs=").append(elapsedMillis);
+		sb.append(" sqlCount=").append(sqlCount);
+
+		// ログイン情報
+		if (loginUserDto != null && loginUserDto.getLmsUserId() != null) {
+			sb.append(" lmsUserId=").append(loginUserDto.getLmsUserId());
+			sb.append(" role=").append(ROLE_MAP.get(loginUserDto.getRole()));
+		}
+
+		// ヘッダ情報
+		for (String key : accessLogHeaders) {
+			String value = request.getHeader(key);
+			if (value != null) {
+				sb.append(" header.").append(key).append('=');
+				appendValue(sb, value);
+			}
+		}
+
+		// 入力情報
+		Enumeration<String> paramNames = request.getParameterNames();
+		while (paramNames != null && paramNames.hasMoreElements()) {
+			String name = paramNames.nextElement();
+			sb.append(" param.");
+			appendValue(sb, name);
+			sb.append('=');
+			if (name.toLowerCase().contains("password")) {
+				// パスワードは表示させない
+				sb.append("*****");
+			} else {
+				appendValue(sb, request.getParameter(name));
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 値の追加（空白・引用符・制御文字を含む場合は引用符で囲む）<br>
+	 * 改行等の制御文字はエスケープし、入力値によってログの行が分割・偽装されないようにする。
+	 * 
+	 * @param sb
+	 * @param value
+	 */
+	private void appendValue(StringBuilder sb, String value) {
+		if (!needsQuote(value)) {
+			sb.append(value);
+			return;
+		}
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c == '\n') {
+				sb.append("\\n");
+			} else if (c == '\r') {
+				sb.append("\\r");
+			} else if (c == '\t') {
+				sb.append("\\t");
+			} else if (isControl(c)) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	/**
+	 * 引用符で囲む必要があるか判定
+	 * 
+	 * @param value
+	 * @return 空白・引用符・制御文字を含む場合true
+	 */
+	private static boolean needsQuote(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ' ' || c == '"' || isControl(c)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 制御文字（行区切り文字を含む）か判定
+	 * 
+	 * @param c
+	 * @return 制御文字の場合true
+	 */
+	private static boolean isControl(char c) {
+		return Character.isISOControl(c) || c == '\u2028' || c == '\u2029';
+	}
 }
@@ -0,0 +1,40 @@
+package jp.co.sss.lms.util;
+
+/**
+ * ログインロックの保持方式<br>
+ * ログインID毎にパスワードNG回数・NG日時を保持する。
+ *
+ * @author 東京ITスクール
+ */
+public interface LoginLockStore {
+
+	/**
+	 * ロック中か判定
+	 *
+	 * @param loginId
+	 * @return ロック中の場合true
+	 */
+	boolean isLocked(String loginId);
+
+	/**
+	 * パスワードNG回数を加算する<br>
+	 * ロック期間・リセット期間を過ぎている場合は1回目として数える。
+	 *
+	 * @param loginId
+	 * @return 規定の回数に達してロックされた場合true
+	 */
+	boolean addFailure(String loginId);
+
+	/**
+	 * パスワードNG回数をリセットする
+	 *
+	 * @param loginId
+	 */
+	void reset(String loginId);
+
+	/**
+	 * ロック期間・リセット期間を過ぎた情報を削除する
+	 */
+	void purge();
+
+}
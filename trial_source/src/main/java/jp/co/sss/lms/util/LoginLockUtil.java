@@ -0,0 +1,148 @@
+package jp.co.sss.lms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.mapper.TLoginLockMapper;
+
+/**
+ * ログインロックユーティリティ<br>
+ * パスワードNG回数をセッションではなくログインID毎に保持し、規定の回数に達したログインIDを一定時間ロックする。
+ * 保持方式は単一ノード用のメモリ、複数ノード用のDBから設定で選択する。
+ * 未登録のログインIDも同様に保持するため、ログインIDはSHA-256（16進数表記）に変換して固定長のキーとする。
+ * ロック期間・リセット期間を過ぎた情報は1分毎に削除する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class LoginLockUtil {
+
+	/** 保持方式：メモリ */
+	public static final String LOCK_STORE_MEMORY = "memory";
+	/** 保持方式：DB */
+	public static final String LOCK_STORE_DB = "db";
+
+	@Autowired
+	private TLoginLockMapper tLoginLockMapper;
+
+	/** 保持方式 */
+	@Value("${setting.lock.store:memory}")
+	private String lockStoreName;
+	/** ロックするNG回数 */
+	@Value("${setting.lock.count}")
+	private Integer lockCount;
+	/** ロック期間（分） */
+	@Value("${setting.lock.minute}")
+	private Integer lockMinute;
+	/** NG回数のリセット期間（分） */
+	@Value("${setting.lock.reset.minutes:30}")
+	private Integer resetMinutes;
+	/** 保持するログインIDの上限件数（メモリ） */
+	@Value("${setting.lock.max.size:100000}")
+	private Integer maxSize;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** 保持方式 */
+	private LoginLockStore lockStore;
+	/** 削除スレッド */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * 保持方式の初期化・削除スレッドの開始
+	 */
+	@PostConstruct
+	public void init() {
+		if (LOCK_STORE_MEMORY.equals(lockStoreName)) {
+			lockStore = new MemoryLoginLockStore(lockCount, TimeUnit.MINUTES.toMillis(lockMinute),
+					TimeUnit.MINUTES.toMillis(resetMinutes), maxSize);
+		} else if (LOCK_STORE_DB.equals(lockStoreName)) {
+			lockStore = new DbLoginLockStore(tLoginLockMapper, lockCount, lockMinute, resetMinutes);
+		} else {
+			throw new IllegalStateException("setting.lock.store=" + lockStoreName);
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "login-lock-purge");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(() -> {
+			try {
+				lockStore.purge();
+			} catch (Exception e) {
+				logger.error("ログインロックの削除に失敗しました。", e);
+			}
+		}, 1, 1, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * 削除スレッドの終了
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * ロック中か判定
+	 *
+	 * @param loginId
+	 * @return ロック中の場合true
+	 */
+	public boolean isLocked(String loginId) {
+		return loginId != null && lockStore.isLocked(toKey(loginId));
+	}
+
+	/**
+	 * パスワードNG回数を加算する
+	 *
+	 * @param loginId
+	 * @return 規定の回数に達してロックされた場合true
+	 */
+	public boolean addFailure(String loginId) {
+		return loginId != null && lockStore.addFailure(toKey(loginId));
+	}
+
+	/**
+	 * パスワードNG回数をリセットする<br>
+	 * ログイン成功時・パスワード変更時に呼び出す。
+	 *
+	 * @param loginId
+	 */
+	public void reset(String loginId) {
+		if (loginId != null) {
+			lockStore.reset(toKey(loginId));
+		}
+	}
+
+	/**
+	 * ログインIDを保持方式のキーに変換
+	 *
+	 * @param loginId
+	 * @return SHA-256（16進数表記）
+	 */
+	private static String toKey(String loginId) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			return new String(Sha256PasswordHashEngine.toHex(
+					md.digest(loginId.getBytes(StandardCharsets.UTF_8))), StandardCharsets.US_ASCII);
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
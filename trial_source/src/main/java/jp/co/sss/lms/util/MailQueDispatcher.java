@@ -0,0 +1,93 @@
+package jp.co.sss.lms.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.service.MailService;
+
+/**
+ * メール送信キュー配信<br>
+ * メール送信キューを専用のスレッドで定期的に送信する。
+ * メール送信フラグが0の場合は送信しない（テスト環境用）。
+ * 送信する場合は送信開始日時（setting.mail.que.since）の設定が必要。
+ * JavaMailの送信処理は同期化（synchronized）されており仮想スレッドをキャリアスレッドに固定するため、
+ * 仮想スレッドを有効にした場合もプラットフォームスレッドで送信する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class MailQueDispatcher {
+
+	@Autowired
+	private MailService mailService;
+	@Autowired
+	private MessageUtil messageUtil;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** 配信スレッド */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * 配信スレッドの開始
+	 */
+	@PostConstruct
+	public void init() {
+		if (!"1".equals(messageUtil.getMessage("setting.mail.send.flg"))) {
+			return;
+		}
+		if (mailService.getMailQueSince() == null) {
+			// 未設定のまま送信すると過去の履歴を全て送信するため、起動させない
+			throw new IllegalStateException("setting.mail.que.since is required");
+		}
+		long queWait = Long.parseLong(messageUtil.getMessage("setting.mail.que.wait"));
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "mail-que-dispatcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::dispatch, queWait, queWait, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 配信スレッドの終了
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 次回の定期実行を待たずに配信する<br>
+	 * メール送信キューを登録した後に呼び出す。
+	 */
+	public void wakeUp() {
+		if (executor != null) {
+			executor.execute(this::dispatch);
+		}
+	}
+
+	/**
+	 * 未送信のキューがなくなるまで送信する
+	 */
+	private void dispatch() {
+		try {
+			while (mailService.sendMailQue() == MailService.MAIL_QUE_BATCH_SIZE) {
+				// 取得件数が上限に達した場合は続けて送信する
+			}
+		} catch (Exception e) {
+			logger.error("メール送信キューの送信に失敗しました。", e);
+		}
+	}
+
+}
@@ -1,10 +1,20 @@
 package jp.co.sss.lms.util;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.MailSender;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
 import org.springframework.stereotype.Component;
 
+import jakarta.mail.internet.MimeMessage;
+
 /**
  * メールユーティリティ
  * 
@@ -14,7 +24,7 @@ import org.springframework.stereotype.Component;
 public class MailUtil {
 	
 	@Autowired
-	private MailSender mailSender;
+	private JavaMailSender mailSender;
 	@Autowired
 	private MessageUtil messageUtil;
 	
@@ -27,14 +37,77 @@ public class MailUtil {
 	 * @param text
 	 */
 	public void sendMail(String to, String[] cc, String subject, String text) {
+		this.mailSender.send(createMail(to, cc, null, subject, text));
+	}
+
+	/**
+	 * メール作成
+	 * 
+	 * @param to
+	 * @param cc
+	 * @param bcc
+	 * @param subject
+	 * @param text
+	 * @return メール
+	 */
+	public SimpleMailMessage createMail(String to, String[] cc, String[] bcc, String subject,
+			String text) {
 		SimpleMailMessage msg = new SimpleMailMessage();
 		msg.setFrom(messageUtil.getMessage("setting.mail.sender.address"));
 		msg.setTo(to);
 		msg.setCc(cc);
+		msg.setBcc(bcc);
 		msg.setSubject(subject);
 		msg.setText(text);
-		
-		this.mailSender.send(msg);
+		return msg;
+	}
+
+	/**
+	 * メール一括送信<br>
+	 * 1回の接続で全てのメールを送信する。
+	 * 内容が同じメールを区別するため、送信失敗はメールの位置で返す。
+	 * 
+	 * @param msgList
+	 * @return 送信に失敗したメールの位置と例外
+	 */
+	public Map<Integer, Exception> sendMails(List<SimpleMailMessage> msgList) {
+		Map<Integer, Exception> failedMap = new HashMap<>();
+		// MimeMessageは同一インスタンスのみ等しいため、内容が同じメールも送信結果を区別できる
+		List<Integer> indexList = new ArrayList<>();
+		List<MimeMessage> mimeMessageList = new ArrayList<>();
+		for (int i = 0; i < msgList.size(); i++) {
+			MimeMessage mimeMessage = this.mailSender.createMimeMessage();
+			try {
+				msgList.get(i).copyTo(new MimeMailMessage(mimeMessage));
+			} catch (MailException e) {
+				// アドレスの形式誤り等は該当のメールのみ失敗
+				failedMap.put(i, e);
+				continue;
+			}
+			indexList.add(i);
+			mimeMessageList.add(mimeMessage);
+		}
+		if (mimeMessageList.isEmpty()) {
+			return failedMap;
+		}
+		try {
+			this.mailSender.send(mimeMessageList.toArray(new MimeMessage[mimeMessageList.size()]));
+		} catch (MailSendException e) {
+			Map<Object, Exception> failedMessages = e.getFailedMessages();
+			for (int i = 0; i < mimeMessageList.size(); i++) {
+				// 接続できなかった場合は全件失敗
+				Exception cause = failedMessages.isEmpty() ? e
+						: failedMessages.get(mimeMessageList.get(i));
+				if (cause != null) {
+					failedMap.put(indexList.get(i), cause);
+				}
+			}
+		} catch (MailException e) {
+			for (Integer index : indexList) {
+				failedMap.put(index, e);
+			}
+		}
+		return failedMap;
 	}
 
 }
@@ -0,0 +1,183 @@
+package jp.co.sss.lms.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ログインロックの保持方式（メモリ）<br>
+ * 単一ノード用。ログインID毎の状態は「NG日時（ミリ秒）×256 + NG回数」の1つのlongに詰めて保持し、
+ * 更新はCASで行うためロックを取得しない。ログインIDの分散はConcurrentHashMapのビン単位で行う。
+ * 保持する件数は上限までとし、上限に達している間は新しいログインIDのNG回数を加算しない。
+ * 期限切れの削除は状態を削除済みに更新してから行い、削除済みの状態を参照した加算はその状態を削除して再試行する。
+ *
+ * @author 東京ITスクール
+ */
+public class MemoryLoginLockStore implements LoginLockStore {
+
+	/** NG回数のビット数 */
+	private static final int COUNT_BITS = 8;
+	/** NG回数の上限 */
+	private static final int COUNT_MASK = (1 << COUNT_BITS) - 1;
+	/** 削除済みの状態 */
+	private static final long REMOVED = -1L;
+
+	/** ロックするNG回数 */
+	private final int lockCount;
+	/** ロック期間（ミリ秒） */
+	private final long lockMillis;
+	/** NG回数のリセット期間（ミリ秒） */
+	private final long resetMillis;
+	/** 保持するログインIDの上限件数 */
+	private final int maxSize;
+
+	/** ログインID毎の状態 */
+	private final ConcurrentHashMap<String, AtomicLong> stateMap = new ConcurrentHashMap<>();
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param lockCount   ロックするNG回数
+	 * @param lockMillis  ロック期間（ミリ秒）
+	 * @param resetMillis NG回数のリセット期間（ミリ秒）
+	 * @param maxSize     保持するログインIDの上限件数
+	 */
+	public MemoryLoginLockStore(int lockCount, long lockMillis, long resetMillis, int maxSize) {
+		this.lockCount = Math.min(lockCount, COUNT_MASK);
+		this.lockMillis = lockMillis;
+		this.resetMillis = resetMillis;
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public boolean isLocked(String loginId) {
+		return isLocked(loginId, System.currentTimeMillis());
+	}
+
+	@Override
+	public boolean addFailure(String loginId) {
+		return addFailure(loginId, System.currentTimeMillis());
+	}
+
+	@Override
+	public void reset(String loginId) {
+		stateMap.remove(loginId);
+	}
+
+	@Override
+	public void purge() {
+		purge(System.currentTimeMillis());
+	}
+
+	/**
+	 * 保持しているログインIDの件数を取得
+	 *
+	 * @return 件数
+	 */
+	public int getSize() {
+		return stateMap.size();
+	}
+
+	/**
+	 * ロック中か判定
+	 *
+	 * @param loginId
+	 * @param now     現在日時（ミリ秒）
+	 * @return ロック中の場合true
+	 */
+	boolean isLocked(String loginId, long now) {
+		AtomicLong state = stateMap.get(loginId);
+		return state != null && isLocked(state.get(), now);
+	}
+
+	/**
+	 * パスワードNG回数を加算する
+	 *
+	 * @param loginId
+	 * @param now     現在日時（ミリ秒）
+	 * @return 規定の回数に達してロックされた場合true
+	 */
+	boolean addFailure(String loginId, long now) {
+		while (true) {
+			AtomicLong state = stateMap.get(loginId);
+			if (state == null) {
+				if (stateMap.size() >= maxSize) {
+					return false;
+				}
+				state = stateMap.computeIfAbsent(loginId, key -> new AtomicLong());
+			}
+			long current;
+			while ((current = state.get()) != REMOVED) {
+				if (isLocked(current, now)) {
+					return true;
+				}
+				int count = isExpired(current, now) ? 1 : Math.min(count(current) + 1, COUNT_MASK);
+				if (state.compareAndSet(current, (now << COUNT_BITS) | count)) {
+					return count >= lockCount;
+				}
+			}
+			stateMap.remove(loginId, state);
+		}
+	}
+
+	/**
+	 * ロック期間・リセット期間を過ぎた情報を削除する<br>
+	 * 期限切れを確認した値から削除済みに更新できた場合のみ、同じ状態が登録されていれば削除する。
+	 *
+	 * @param now 現在日時（ミリ秒）
+	 */
+	void purge(long now) {
+		for (Map.Entry<String, AtomicLong> entry : stateMap.entrySet()) {
+			AtomicLong state = entry.getValue();
+			long current = state.get();
+			if (current != REMOVED && isExpired(current, now)
+					&& state.compareAndSet(current, REMOVED)) {
+				stateMap.remove(entry.getKey(), state);
+			}
+		}
+	}
+
+	/**
+	 * ロック中か判定
+	 *
+	 * @param state 状態
+	 * @param now   現在日時（ミリ秒）
+	 * @return ロック中の場合true
+	 */
+	private boolean isLocked(long state, long now) {
+		return state != REMOVED && count(state) >= lockCount && now < time(state) + lockMillis;
+	}
+
+	/**
+	 * ロック期間・リセット期間を過ぎているか判定
+	 *
+	 * @param state 状態
+	 * @param now   現在日時（ミリ秒）
+	 * @return 過ぎている場合true
+	 */
+	private boolean isExpired(long state, long now) {
+		long period = count(state) >= lockCount ? lockMillis : resetMillis;
+		return now >= time(state) + period;
+	}
+
+	/**
+	 * NG回数を取得
+	 *
+	 * @param state 状態
+	 * @return NG回数
+	 */
+	private static int count(long state) {
+		return (int) (state & COUNT_MASK);
+	}
+
+	/**
+	 * NG日時を取得
+	 *
+	 * @param state 状態
+	 * @return NG日時（ミリ秒）
+	 */
+	private static long time(long state) {
+		return state >>> COUNT_BITS;
+	}
+
+}
@@ -0,0 +1,423 @@
+package jp.co.sss.lms.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jp.co.sss.lms.dto.SqlStatDto;
+import jp.co.sss.lms.service.MailService;
+
+/**
+ * 実行統計ユーティリティ<br>
+ * コントローラーのメソッド毎の処理時間、Excelダウンロードの処理時間をロギングフィルターから記録し、
+ * 各ユーティリティが保持する統計（SQL・コネクションプール・キャッシュ・メール送信キュー等）と合わせて
+ * Prometheusのテキスト形式で出力する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class MetricsUtil {
+
+	/** 出力する百分位 */
+	private static final double[] QUANTILES = { 0.5, 0.95, 0.99 };
+	/** ハンドラーが決まらなかったリクエストのラベル */
+	private static final String NO_HANDLER = "none";
+
+	@Autowired
+	private ApplicationContext applicationContext;
+	@Autowired
+	private SqlMetricsInterceptor sqlMetricsInterceptor;
+	@Autowired
+	private JdbcPoolMetrics jdbcPoolMetrics;
+	@Autowired
+	private MailService mailService;
+	@Autowired
+	private ExamDefinitionUtil examDefinitionUtil;
+	@Autowired
+	private CourseDetailUtil courseDetailUtil;
+	@Autowired
+	private RoutePermissionUtil routePermissionUtil;
+	@Autowired
+	private VirtualThreadPinningMonitor virtualThreadPinningMonitor;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** コントローラーのメソッド毎の統計 */
+	private final Map<String, HandlerStat> handlerStatMap = new ConcurrentHashMap<>();
+	/** コントローラーのメソッド毎のExcelダウンロードの処理時間 */
+	private final Map<String, LatencyHistogram> excelExportMap = new ConcurrentHashMap<>();
+
+	/**
+	 * リクエストの処理時間を記録する<br>
+	 * Content-Dispositionを付与したレスポンス（ExcelUtilによるExcel・ZIPのダウンロード）は
+	 * Excelダウンロードの処理時間としても記録する。
+	 *
+	 * @param request
+	 * @param response
+	 * @param status   ステータス（未処理の例外の場合は500）
+	 * @param nanos    処理時間（ナノ秒）
+	 */
+	public void recordRequest(HttpServletRequest request, HttpServletResponse response,
+			int status, long nanos) {
+		String handler = getHandlerName(request);
+		HandlerStat handlerStat = handlerStatMap.computeIfAbsent(handler, k -> new HandlerStat());
+		handlerStat.latency.record(nanos);
+		if (status >= 500) {
+			handlerStat.errorCount.increment();
+		}
+		if (response.containsHeader(HttpHeaders.CONTENT_DISPOSITION)) {
+			excelExportMap.computeIfAbsent(handler, k -> new LatencyHistogram()).record(nanos);
+		}
+	}
+
+	/**
+	 * Prometheusのテキスト形式で統計を取得
+	 *
+	 * @return 統計
+	 */
+	public String getPrometheusText() {
+		StringBuilder sb = new StringBuilder(8192);
+		appendHttp(sb);
+		appendJdbcPool(sb);
+		appendTomcat(sb);
+		appendSql(sb);
+		appendMail(sb);
+		appendCache(sb);
+		appendRoute(sb);
+		appendPinning(sb);
+		return sb.toString();
+	}
+
+	/**
+	 * コントローラーのメソッド名を取得
+	 *
+	 * @param request
+	 * @return クラス名.メソッド名（ハンドラーが決まらなかった場合"none"）
+	 */
+	private String getHandlerName(HttpServletRequest request) {
+		Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+		if (handler instanceof HandlerMethod handlerMethod) {
+			return handlerMethod.getBeanType().getSimpleName() + "."
+					+ handlerMethod.getMethod().getName();
+		}
+		return handler == null ? NO_HANDLER : handler.getClass().getSimpleName();
+	}
+
+	/**
+	 * HTTPリクエストの統計を追加
+	 *
+	 * @param sb
+	 */
+	private void appendHttp(StringBuilder sb) {
+		Map<String, HandlerStat> sorted = new TreeMap<>(handlerStatMap);
+		appendHeader(sb, "lms_http_server_requests_seconds", "histogram",
+				"コントローラーのメソッド毎の処理時間");
+		sorted.forEach((handler, stat) -> appendHistogram(sb, "lms_http_server_requests_seconds",
+				label("handler", handler), stat.latency));
+		appendHeader(sb, "lms_http_server_requests_quantile_seconds", "gauge",
+				"コントローラーのメソッド毎の処理時間の百分位（推定値）");
+		sorted.forEach((handler, stat) -> {
+			for (double quantile : QUANTILES) {
+				appendSample(sb, "lms_http_server_requests_quantile_seconds",
+						label("handler", handler) + ","
+								+ label("quantile", String.valueOf(quantile)),
+						stat.latency.getQuantileMillis(quantile) / 1000);
+			}
+		});
+		appendHeader(sb, "lms_http_server_errors_total", "counter",
+				"コントローラーのメソッド毎のステータス500以上の件数");
+		sorted.forEach((handler, stat) -> appendSample(sb, "lms_http_server_errors_total",
+				label("handler", handler), stat.errorCount.sum()));
+		appendHeader(sb, "lms_excel_export_seconds", "histogram", "Excelダウンロードの処理時間");
+		new TreeMap<>(excelExportMap).forEach((handler, latency) -> appendHistogram(sb,
+				"lms_excel_export_seconds", label("handler", handler), latency));
+	}
+
+	/**
+	 * コネクションプールの統計を追加
+	 *
+	 * @param sb
+	 */
+	private void appendJdbcPool(StringBuilder sb) {
+		PoolStats poolStats = jdbcPoolMetrics.getPoolStats();
+		if (poolStats != null) {
+			appendGauge(sb, "lms_jdbc_connections_active", "使用中の接続数",
+					poolStats.getActiveConnections());
+			appendGauge(sb, "lms_jdbc_connections_idle", "待機中の接続数",
+					poolStats.getIdleConnections());
+			appendGauge(sb, "lms_jdbc_connections_max", "接続数の上限",
+					poolStats.getMaxConnections());
+			appendGauge(sb, "lms_jdbc_connections_pending", "接続待ちのスレッド数",
+					poolStats.getPendingThreads());
+		}
+		appendHeader(sb, "lms_jdbc_connections_acquire_seconds", "histogram", "接続の取得待ち時間");
+		appendHistogram(sb, "lms_jdbc_connections_acquire_seconds", "",
+				jdbcPoolMetrics.getAcquireLatency());
+		appendHeader(sb, "lms_jdbc_connections_usage_seconds", "histogram", "接続の使用時間");
+		appendHistogram(sb, "lms_jdbc_connections_usage_seconds", "",
+				jdbcPoolMetrics.getUsageLatency());
+		appendCounter(sb, "lms_jdbc_connections_timeout_total", "接続の取得タイムアウト件数",
+				jdbcPoolMetrics.getTimeoutCount());
+	}
+
+	/**
+	 * Tomcatのスレッド・接続の統計を追加<br>
+	 * 仮想スレッドを使用している場合、スレッドの統計は出力しない。
+	 *
+	 * @param sb
+	 */
+	private void appendTomcat(StringBuilder sb) {
+		if (!(applicationContext instanceof WebServerApplicationContext context)
+				|| !(context.getWebServer() instanceof TomcatWebServer webServer)) {
+			return;
+		}
+		Connector connector = webServer.getTomcat().getConnector();
+		ProtocolHandler protocolHandler = connector.getProtocolHandler();
+		if (protocolHandler.getExecutor() instanceof ThreadPoolExecutor executor) {
+			appendGauge(sb, "lms_tomcat_threads_busy", "処理中のスレッド数",
+					executor.getActiveCount());
+			appendGauge(sb, "lms_tomcat_threads_current", "スレッド数", executor.getPoolSize());
+			appendGauge(sb, "lms_tomcat_threads_max", "スレッド数の上限",
+					executor.getMaximumPoolSize());
+		}
+		if (protocolHandler instanceof AbstractProtocol<?> protocol) {
+			appendGauge(sb, "lms_tomcat_connections", "接続数", protocol.getConnectionCount());
+		}
+	}
+
+	/**
+	 * SQLの統計を追加
+	 *
+	 * @param sb
+	 */
+	private void appendSql(StringBuilder sb) {
+		long[] bucketMillis = LatencyHistogram.getBucketMillis();
+		StringBuilder errors = new StringBuilder();
+		StringBuilder rows = new StringBuilder();
+		StringBuilder repeats = new StringBuilder();
+		appendHeader(sb, "lms_sql_statement_seconds", "histogram", "ステートメント毎の処理時間");
+		for (SqlStatDto sqlStatDto : sqlMetricsInterceptor.getSqlStatDtoList()) {
+			String labels = label("statement", sqlStatDto.getStatementId());
+			for (long bucket : bucketMillis) {
+				appendSample(sb, "lms_sql_statement_seconds_bucket",
+						labels + "," + label("le", String.valueOf(bucket / 1000.0)),
+						sqlStatDto.getHistogram().get(String.valueOf(bucket)));
+			}
+			appendSample(sb, "lms_sql_statement_seconds_bucket", labels + ",le=\"+Inf\"",
+					sqlStatDto.getCallCount());
+			appendSample(sb, "lms_sql_statement_seconds_sum", labels,
+					sqlStatDto.getTotalMillis() / 1000.0);
+			appendSample(sb, "lms_sql_statement_seconds_count", labels, sqlStatDto.getCallCount());
+			appendSample(errors, "lms_sql_statement_errors_total", labels,
+					sqlStatDto.getErrorCount());
+			appendSample(rows, "lms_sql_statement_rows_total", labels, sqlStatDto.getRowCount());
+			appendSample(repeats, "lms_sql_statement_repeats_total", labels,
+					sqlStatDto.getRepeatCount());
+		}
+		appendHeader(sb, "lms_sql_statement_errors_total", "counter", "ステートメント毎のエラー件数");
+		sb.append(errors);
+		appendHeader(sb, "lms_sql_statement_rows_total", "counter", "ステートメント毎の取得・更新件数");
+		sb.append(rows);
+		appendHeader(sb, "lms_sql_statement_repeats_total", "counter",
+				"ステートメントを1リクエストで繰り返し実行したリクエスト件数");
+		sb.append(repeats);
+		appendCounter(sb, "lms_sql_requests_total", "SQLを実行したリクエスト件数",
+				sqlMetricsInterceptor.getRequestCount());
+		appendCounter(sb, "lms_sql_request_statements_total", "リクエスト中に実行したSQLの件数",
+				sqlMetricsInterceptor.getRequestStatementCount());
+		appendGauge(sb, "lms_sql_request_statements_max", "1リクエストで実行したSQLの最大件数",
+				sqlMetricsInterceptor.getRequestStatementMax());
+	}
+
+	/**
+	 * メール送信の統計を追加
+	 *
+	 * @param sb
+	 */
+	private void appendMail(StringBuilder sb) {
+		try {
+			appendGauge(sb, "lms_mail_queue_depth", "未送信のメール送信キュー件数",
+					mailService.getMailQueDepth());
+		} catch (Exception e) {
+			logger.warn("メール送信キュー件数の取得に失敗しました。" + e.getMessage());
+		}
+		appendCounter(sb, "lms_mail_sent_total", "送信件数", mailService.getSentCount());
+		appendCounter(sb, "lms_mail_failed_total", "送信失敗件数", mailService.getFailedCount());
+		appendGauge(sb, "lms_mail_retry_pending", "再送待ち件数", mailService.getRetryCount());
+	}
+
+	/**
+	 * キャッシュの統計を追加
+	 *
+	 * @param sb
+	 */
+	private void appendCache(StringBuilder sb) {
+		appendHeader(sb, "lms_cache_size", "gauge", "キャッシュの保持件数");
+		appendSample(sb, "lms_cache_size", label("cache", "exam"), examDefinitionUtil.getSize());
+		appendHeader(sb, "lms_cache_hits_total", "counter", "キャッシュを使用した件数");
+		appendSample(sb, "lms_cache_hits_total", label("cache", "exam"),
+				examDefinitionUtil.getHitCount());
+		appendSample(sb, "lms_cache_hits_total", label("cache", "course"),
+				courseDetailUtil.getHitCount());
+		appendHeader(sb, "lms_cache_loads_total", "counter", "キャッシュに読み込んだ件数");
+		appendSample(sb, "lms_cache_loads_total", label("cache", "exam"),
+				examDefinitionUtil.getLoadCount());
+		appendSample(sb, "lms_cache_loads_total", label("cache", "course"),
+				courseDetailUtil.getLoadCount());
+	}
+
+	/**
+	 * URI種別・権限チェックの統計を追加
+	 *
+	 * @param sb
+	 */
+	private void appendRoute(StringBuilder sb) {
+		appendHeader(sb, "lms_route_requests_total", "counter", "URI種別・権限チェック結果毎のリクエスト件数");
+		appendSample(sb, "lms_route_requests_total", label("route", "static"),
+				routePermissionUtil.getStaticCount());
+		appendSample(sb, "lms_route_requests_total", label("route", "public"),
+				routePermissionUtil.getPublicCount());
+		appendSample(sb, "lms_route_requests_total", label("route", "allow"),
+				routePermissionUtil.getAllowCount());
+		appendSample(sb, "lms_route_requests_total", label("route", "deny"),
+				routePermissionUtil.getDenyCount());
+	}
+
+	/**
+	 * 仮想スレッドの固定の統計を追加
+	 *
+	 * @param sb
+	 */
+	private void appendPinning(StringBuilder sb) {
+		appendCounter(sb, "lms_virtual_thread_pinned_total", "仮想スレッドが固定された件数",
+				virtualThreadPinningMonitor.getPinnedCount());
+		appendCounter(sb, "lms_virtual_thread_pinned_seconds_total", "仮想スレッドが固定された時間",
+				virtualThreadPinningMonitor.getPinnedMillis() / 1000.0);
+	}
+
+	/**
+	 * 処理時間の分布を追加
+	 *
+	 * @param sb
+	 * @param name    メトリクス名
+	 * @param labels  ラベル（ない場合は空文字）
+	 * @param latency 処理時間の分布
+	 */
+	private static void appendHistogram(StringBuilder sb, String name, String labels,
+			LatencyHistogram latency) {
+		String prefix = labels.isEmpty() ? "" : labels + ",";
+		long[] bucketMillis = LatencyHistogram.getBucketMillis();
+		long[] cumulativeCounts = latency.getCumulativeCounts();
+		for (int i = 0; i < bucketMillis.length; i++) {
+			appendSample(sb, name + "_bucket",
+					prefix + label("le", String.valueOf(bucketMillis[i] / 1000.0)),
+					cumulativeCounts[i]);
+		}
+		long count = cumulativeCounts[cumulativeCounts.length - 1];
+		appendSample(sb, name + "_bucket", prefix + "le=\"+Inf\"", count);
+		appendSample(sb, name + "_sum", labels,
+				TimeUnit.NANOSECONDS.toMicros(latency.getSumNanos()) / 1_000_000.0);
+		appendSample(sb, name + "_count", labels, count);
+	}
+
+	/**
+	 * ラベルのないゲージを追加
+	 *
+	 * @param sb
+	 * @param name  メトリクス名
+	 * @param help  説明
+	 * @param value 値
+	 */
+	private static void appendGauge(StringBuilder sb, String name, String help, Number value) {
+		appendHeader(sb, name, "gauge", help);
+		appendSample(sb, name, "", value);
+	}
+
+	/**
+	 * ラベルのないカウンターを追加
+	 *
+	 * @param sb
+	 * @param name  メトリクス名
+	 * @param help  説明
+	 * @param value 値
+	 */
+	private static void appendCounter(StringBuilder sb, String name, String help, Number value) {
+		appendHeader(sb, name, "counter", help);
+		appendSample(sb, name, "", value);
+	}
+
+	/**
+	 * HELP・TYPE行を追加
+	 *
+	 * @param sb
+	 * @param name メトリクス名
+	 * @param type 種類
+	 * @param help 説明
+	 */
+	private static void appendHeader(StringBuilder sb, String name, String type, String help) {
+		sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	/**
+	 * 値の行を追加
+	 *
+	 * @param sb
+	 * @param name   メトリクス名
+	 * @param labels ラベル（ない場合は空文字）
+	 * @param value  値
+	 */
+	private static void appendSample(StringBuilder sb, String name, String labels, Number value) {
+		sb.append(name);
+		if (!labels.isEmpty()) {
+			sb.append('{').append(labels).append('}');
+		}
+		sb.append(' ').append(value == null ? 0 : value).append('\n');
+	}
+
+	/**
+	 * ラベルを作成（値の\・"・改行はエスケープする）
+	 *
+	 * @param name  ラベル名
+	 * @param value 値
+	 * @return ラベル
+	 */
+	private static String label(String name, String value) {
+		String escaped = value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+		return name + "=\"" + escaped + "\"";
+	}
+
+	/**
+	 * コントローラーのメソッド毎の統計
+	 */
+	private static final class HandlerStat {
+
+		/** 処理時間 */
+		private final LatencyHistogram latency = new LatencyHistogram();
+		/** ステータス500以上の件数 */
+		private final LongAdder errorCount = new LongAdder();
+
+	}
+
+}
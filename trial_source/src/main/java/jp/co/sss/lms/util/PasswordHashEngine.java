@@ -0,0 +1,45 @@
+package jp.co.sss.lms.util;
+
+/**
+ * パスワードハッシュ方式
+ *
+ * @author 東京ITスクール
+ */
+public interface PasswordHashEngine {
+
+	/**
+	 * ハッシュ化したパスワードを取得
+	 *
+	 * @param password
+	 * @param userId   ユーザーID（ログインID）。従来方式ではsaltの元とする
+	 * @return ハッシュ化したパスワード
+	 */
+	String hash(String password, String userId);
+
+	/**
+	 * 登録済みのハッシュ値がこの方式で作成されたものか判定
+	 *
+	 * @param hashedPassword
+	 * @return この方式の場合true
+	 */
+	boolean supports(String hashedPassword);
+
+	/**
+	 * 登録済みのハッシュ値が現在のパラメータで作成されたものか判定
+	 *
+	 * @param hashedPassword
+	 * @return 現在のパラメータで作成されている場合true
+	 */
+	boolean isCurrent(String hashedPassword);
+
+	/**
+	 * パスワードが登録済みのハッシュ値と一致するか判定
+	 *
+	 * @param password
+	 * @param userId
+	 * @param hashedPassword
+	 * @return 一致する場合true
+	 */
+	boolean matches(String password, String userId, String hashedPassword);
+
+}
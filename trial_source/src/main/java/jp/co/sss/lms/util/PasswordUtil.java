@@ -1,11 +1,13 @@
 package jp.co.sss.lms.util;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.List;
 import java.util.Random;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
+
 /**
  * パスワードユーティリティ
  * 
@@ -14,7 +16,26 @@ import org.springframework.stereotype.Component;
 @Component
 public class PasswordUtil {
 
-	private static int STRETCH_COUNT = 10;
+	/** パスワードハッシュ方式：SHA-256 + ストレッチング（従来方式） */
+	public static final String HASH_ENGINE_SHA256 = "sha256";
+	/** パスワードハッシュ方式：PBKDF2（m_user.passwordに111文字以上が必要） */
+	public static final String HASH_ENGINE_PBKDF2 = "pbkdf2";
+
+	/** 新規登録・移行に使用するハッシュ方式 */
+	@Value("${setting.password.hash.engine:sha256}")
+	private String hashEngineName;
+	/** PBKDF2の反復回数 */
+	@Value("${setting.password.pbkdf2.iterations:120000}")
+	private int pbkdf2Iterations;
+
+	/** 従来方式 */
+	private final PasswordHashEngine sha256Engine = new Sha256PasswordHashEngine();
+	/** 対応しているハッシュ方式 */
+	private List<PasswordHashEngine> engines;
+	/** 新規登録・移行に使用するハッシュ方式 */
+	private PasswordHashEngine currentEngine;
+	/** 照合時間を揃えるためのダミーのハッシュ値 */
+	private String dummyHash;
 
 	/** パスワードポリシー */
 	public final static String PASSWORD_POLICY = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])[0-9a-zA-Z\\-]{8,}$";
@@ -26,70 +47,87 @@ public class PasswordUtil {
 			'3', '4', '5', '6', '7', '8', '9' };
 
 	/**
-	 * salt +ハッシュ化+ストレッチングしたパスワ-ドを 取得
+	 * ハッシュ方式の初期化
+	 */
+	@PostConstruct
+	public void init() {
+		PasswordHashEngine pbkdf2Engine = new Pbkdf2PasswordHashEngine(pbkdf2Iterations);
+		engines = List.of(pbkdf2Engine, sha256Engine);
+		if (HASH_ENGINE_SHA256.equals(hashEngineName)) {
+			currentEngine = sha256Engine;
+		} else if (HASH_ENGINE_PBKDF2.equals(hashEngineName)) {
+			currentEngine = pbkdf2Engine;
+		} else {
+			throw new IllegalStateException("setting.password.hash.engine=" + hashEngineName);
+		}
+		dummyHash = currentEngine.hash(generatePassword(), "dummy");
+	}
+
+	/**
+	 * salt +ハッシュ化+ストレッチングしたパスワ-ドを 取得（従来方式）
 	 * 
 	 * @param password
 	 * @param userId
-	 * @return getStretchedPassword()
+	 * @return ハッシュ化したパスワード
 	 */
 	public String getSaltedAndStrechedPassword(String password, String userId) {
-		return getStretchedPassword(getSaltedPassword(password, userId), userId);
+		return sha256Engine.hash(password, userId);
 	}
 
 	/**
-	 * salt＋ハッシュ化したパスワードを取得
+	 * 設定されたハッシュ方式でハッシュ化したパスワードを取得（パスワード登録・変更用）
 	 * 
 	 * @param password
 	 * @param userId
-	 * @return getSha256()
-	 * 
+	 * @return ハッシュ化したパスワード
 	 */
-	private String getSaltedPassword(String password, String userId) {
-		String salt = getSha256(userId);
-		return getSha256(salt + password);
+	public String encodePassword(String password, String userId) {
+		return currentEngine.hash(password, userId);
 	}
 
 	/**
-	 * salt + ストレッチングしたパスワードを取得(推奨)
+	 * パスワードが登録済みのハッシュ値と一致するか判定<br>
+	 * 登録済みのハッシュ値の形式からハッシュ方式を判別する。
 	 * 
 	 * @param password
 	 * @param userId
-	 * @return hash
+	 * @param hashedPassword
+	 * @return 一致する場合true
 	 */
-	private String getStretchedPassword(String password, String userId) {
-		String salt = getSha256(userId);
-		String hash = "";
-
-		for (int i = 0; i < STRETCH_COUNT; i++) {
-			hash = getSha256(hash + salt + password);
+	public boolean matches(String password, String userId, String hashedPassword) {
+		if (password == null || userId == null || hashedPassword == null) {
+			return false;
 		}
-
-		return hash;
+		for (PasswordHashEngine engine : engines) {
+			if (engine.supports(hashedPassword)) {
+				return engine.matches(password, userId, hashedPassword);
+			}
+		}
+		return false;
 	}
 
 	/**
-	 * 文字列から SHA256 のハッシュ値を取得
+	 * 登録済みのハッシュ値を設定されたハッシュ方式へ移行する必要があるか判定
 	 * 
-	 * @param target
-	 * @return SHA256 のハッシュ値
+	 * @param hashedPassword
+	 * @return 移行が必要な場合true
 	 */
-	private String getSha256(String target) {
-		MessageDigest md = null;
-		StringBuffer buf = new StringBuffer();
-		try {
-			md = MessageDigest.getInstance("SHA-256");
-			md.update(target.getBytes());
-			byte[] digest = md.digest();
-
-			for (int i = 0; i < digest.length; i++) {
-				buf.append(String.format("%02x", digest[i]));
-			}
+	public boolean needsRehash(String hashedPassword) {
+		return hashedPassword != null && !currentEngine.isCurrent(hashedPassword);
+	}
 
-		} catch (NoSuchAlgorithmException e) {
-			throw new RuntimeException(e);
+	/**
+	 * 照合時間を揃える<br>
+	 * 登録済みのハッシュ値が設定されたハッシュ方式でない場合（ログインIDが存在しない場合を含む）は
+	 * ダミーのハッシュ値と照合し、ログインIDの存在やハッシュ方式が応答時間から分からないようにする。
+	 * 
+	 * @param password
+	 * @param hashedPassword 登録済みのハッシュ値（ログインIDが存在しない場合null）
+	 */
+	public void equalizeCost(String password, String hashedPassword) {
+		if (password != null && (hashedPassword == null || needsRehash(hashedPassword))) {
+			currentEngine.matches(password, "dummy", dummyHash);
 		}
-
-		return buf.toString();
 	}
 
 	/**
@@ -0,0 +1,149 @@
+package jp.co.sss.lms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * パスワードハッシュ方式（PBKDF2-HMAC-SHA256）<br>
+ * ハッシュ値は「pbkdf2$反復回数$salt$ハッシュ値」の形式で保存し、反復回数・saltはユーザー毎に保持する。
+ * saltはハッシュ化の都度SecureRandomで生成した16バイトとする。
+ * 反復回数120000の場合111文字となるため、m_user.passwordは111文字以上（反復回数の桁数+105文字）が必要。
+ *
+ * @author 東京ITスクール
+ */
+public class Pbkdf2PasswordHashEngine implements PasswordHashEngine {
+
+	/** ハッシュ値の接頭辞 */
+	private static final String PREFIX = "pbkdf2$";
+
+	/** 鍵長（ビット） */
+	private static final int KEY_LENGTH = 256;
+	/** saltの長さ（バイト） */
+	private static final int SALT_LENGTH = 16;
+
+	/** salt生成用の乱数 */
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	/** 反復回数 */
+	private final int iterations;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param iterations 反復回数
+	 */
+	public Pbkdf2PasswordHashEngine(int iterations) {
+		if (iterations <= 0) {
+			throw new IllegalArgumentException("iterations=" + iterations);
+		}
+		this.iterations = iterations;
+	}
+
+	@Override
+	public String hash(String password, String userId) {
+		byte[] salt = new byte[SALT_LENGTH];
+		RANDOM.nextBytes(salt);
+		return PREFIX + iterations + "$" + new String(Sha256PasswordHashEngine.toHex(salt),
+				StandardCharsets.US_ASCII) + "$" + derive(password, salt, iterations);
+	}
+
+	@Override
+	public boolean supports(String hashedPassword) {
+		return hashedPassword != null && hashedPassword.startsWith(PREFIX)
+				&& split(hashedPassword).length == 3;
+	}
+
+	@Override
+	public boolean isCurrent(String hashedPassword) {
+		return supports(hashedPassword) && getIterations(split(hashedPassword)) == iterations;
+	}
+
+	@Override
+	public boolean matches(String password, String userId, String hashedPassword) {
+		if (!supports(hashedPassword)) {
+			return false;
+		}
+		String[] parts = split(hashedPassword);
+		int storedIterations = getIterations(parts);
+		byte[] salt = fromHex(parts[1]);
+		if (storedIterations <= 0 || salt == null) {
+			return false;
+		}
+		return MessageDigest.isEqual(
+				derive(password, salt, storedIterations).getBytes(StandardCharsets.US_ASCII),
+				parts[2].getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * 登録済みのハッシュ値を反復回数・salt・ハッシュ値に分割
+	 *
+	 * @param hashedPassword
+	 * @return 分割した値
+	 */
+	private String[] split(String hashedPassword) {
+		return hashedPassword.substring(PREFIX.length()).split("\\$", -1);
+	}
+
+	/**
+	 * 登録済みのハッシュ値から反復回数を取得
+	 *
+	 * @param parts 分割した登録済みのハッシュ値
+	 * @return 反復回数（取得できない場合-1）
+	 */
+	private int getIterations(String[] parts) {
+		try {
+			return Integer.parseInt(parts[0]);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * 鍵導出
+	 *
+	 * @param password
+	 * @param salt
+	 * @param iterationCount
+	 * @return 導出した鍵（16進数表記）
+	 */
+	private String derive(String password, byte[] salt, int iterationCount) {
+		PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterationCount, KEY_LENGTH);
+		try {
+			SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+			return new String(Sha256PasswordHashEngine.toHex(factory.generateSecret(spec).getEncoded()),
+					StandardCharsets.US_ASCII);
+		} catch (GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		} finally {
+			spec.clearPassword();
+		}
+	}
+
+	/**
+	 * 16進数表記をバイト配列に変換
+	 *
+	 * @param hex
+	 * @return バイト配列（16進数表記でない場合null）
+	 */
+	private static byte[] fromHex(String hex) {
+		if (hex.isEmpty() || hex.length() % 2 != 0) {
+			return null;
+		}
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			int high = Character.digit(hex.charAt(i * 2), 16);
+			int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+			if (high < 0 || low < 0) {
+				return null;
+			}
+			bytes[i] = (byte) ((high << 4) | low);
+		}
+		return bytes;
+	}
+
+}
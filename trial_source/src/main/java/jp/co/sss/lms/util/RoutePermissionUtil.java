@@ -0,0 +1,262 @@
+package jp.co.sss.lms.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jp.co.sss.lms.enums.LmsUserRoleEnum;
+import jp.co.sss.lms.enums.RouteTypeEnum;
+
+/**
+ * URIアクセス権限ユーティリティ<br>
+ * URI種別（静的リソース／ログイン不要／要ログイン）と権限毎のアクセス可否を起動時に構築した表から判定する。
+ * ロギングフィルター、ログインセッションフィルターで共通して使用する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class RoutePermissionUtil {
+
+	/** URI種別を保持するリクエスト属性名 */
+	private static final String ATTR_ROUTE_TYPE = RoutePermissionUtil.class.getName() + ".routeType";
+
+	/** 静的リソースのディレクトリ名 */
+	private static final String[] STATIC_DIRS = { "js", "css", "fonts", "img", "pdf", "mailTemplate" };
+
+	/** ログインしていなくても遷移できるURI（コンテキストパスからの相対パス、完全一致） */
+	private static final String[] PUBLIC_PATHS = { "", "/", "/faq" };
+
+	/** ログインしていなくても遷移できるURI（コンテキストパスからの相対パス、前方一致） */
+	private static final String[] PUBLIC_PREFIXES = { "/login", "/logout", "/password/resetPassword",
+			"/user/agreeSecurity", "/password/changePassword", "/contract/agreement/regist" };
+
+	/** 権限コードとビットの対応 */
+	private static final Map<String, Integer> ROLE_BIT_MAP = new HashMap<>();
+	static {
+		for (LmsUserRoleEnum e : LmsUserRoleEnum.values()) {
+			ROLE_BIT_MAP.put(e.code, 1 << e.ordinal());
+		}
+	}
+
+	/** URI毎のアクセス可能な権限（ビットの論理和） */
+	private static final Map<String, Integer> ROUTE_MAP = new HashMap<>();
+
+	/** 静的リソースへのリクエスト件数 */
+	private final LongAdder staticCount = new LongAdder();
+	/** ログイン不要画面へのリクエスト件数 */
+	private final LongAdder publicCount = new LongAdder();
+	/** 権限チェックで許可した件数 */
+	private final LongAdder allowCount = new LongAdder();
+	/** 権限チェックで拒否した件数 */
+	private final LongAdder denyCount = new LongAdder();
+
+	/**
+	 * リクエストのURI種別を取得する。<br>
+	 * 判定結果はリクエスト属性に保持し、同一リクエスト内では再判定しない。
+	 *
+	 * @param request
+	 * @return URI種別
+	 */
+	public RouteTypeEnum getRouteType(HttpServletRequest request) {
+		RouteTypeEnum routeType = (RouteTypeEnum) request.getAttribute(ATTR_ROUTE_TYPE);
+		if (routeType == null) {
+			routeType = getRouteType(request.getRequestURI(), request.getContextPath());
+			request.setAttribute(ATTR_ROUTE_TYPE, routeType);
+			if (routeType == RouteTypeEnum.STATIC) {
+				staticCount.increment();
+			} else if (routeType == RouteTypeEnum.PUBLIC) {
+				publicCount.increment();
+			}
+		}
+		return routeType;
+	}
+
+	/**
+	 * URIの種別を判定する
+	 *
+	 * @param uri
+	 * @param contextPath
+	 * @return URI種別
+	 */
+	public RouteTypeEnum getRouteType(String uri, String contextPath) {
+		if (isStatic(uri)) {
+			return RouteTypeEnum.STATIC;
+		}
+		if (isPublic(uri, contextPath)) {
+			return RouteTypeEnum.PUBLIC;
+		}
+		return RouteTypeEnum.PROTECTED;
+	}
+
+	/**
+	 * 権限毎のアクセス制限チェック
+	 *
+	 * @param role
+	 * @param uri
+	 * @return アクセス可能な場合true
+	 */
+	public boolean isAccess(String role, String uri) {
+		Integer roleBit = role == null ? null : ROLE_BIT_MAP.get(role);
+		Integer routeBits = ROUTE_MAP.get(uri);
+		if (roleBit != null && routeBits != null && (routeBits & roleBit) != 0) {
+			allowCount.increment();
+			return true;
+		}
+		denyCount.increment();
+		return false;
+	}
+
+	/**
+	 * 静的リソースへのリクエスト件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getStaticCount() {
+		return staticCount.sum();
+	}
+
+	/**
+	 * ログイン不要画面へのリクエスト件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getPublicCount() {
+		return publicCount.sum();
+	}
+
+	/**
+	 * 権限チェックで許可した件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getAllowCount() {
+		return allowCount.sum();
+	}
+
+	/**
+	 * 権限チェックで拒否した件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getDenyCount() {
+		return denyCount.sum();
+	}
+
+	/**
+	 * 静的なURIか確認<br>
+	 * 末尾以外のパス要素に静的リソースのディレクトリ名を含む場合に静的とする。
+	 *
+	 * @param uri
+	 * @return boolean
+	 */
+	private boolean isStatic(String uri) {
+		int start = uri.indexOf('/');
+		while (start >= 0) {
+			int end = uri.indexOf('/', start + 1);
+			if (end < 0) {
+				break;
+			}
+			int length = end - start - 1;
+			for (String dir : STATIC_DIRS) {
+				if (dir.length() == length && uri.regionMatches(start + 1, dir, 0, length)) {
+					return true;
+				}
+			}
+			start = end;
+		}
+		return false;
+	}
+
+	/**
+	 * ログインしていなくても遷移できるURIか確認
+	 *
+	 * @param uri
+	 * @param contextPath
+	 * @return boolean
+	 */
+	private boolean isPublic(String uri, String contextPath) {
+		if (!uri.startsWith(contextPath)) {
+			return false;
+		}
+		int offset = contextPath.length();
+		int length = uri.length() - offset;
+		for (String path : PUBLIC_PATHS) {
+			if (path.length() == length && uri.startsWith(path, offset)) {
+				return true;
+			}
+		}
+		for (String prefix : PUBLIC_PREFIXES) {
+			if (uri.startsWith(prefix, offset)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * アクセス可能なURIを登録
+	 *
+	 * @param roleEnum
+	 * @param uris
+	 */
+	private static void addRoute(LmsUserRoleEnum roleEnum, String... uris) {
+		int roleBit = 1 << roleEnum.ordinal();
+		for (String uri : uris) {
+			ROUTE_MAP.merge(uri, roleBit, (a, b) -> a | b);
+		}
+	}
+
+	static {
+		// 全権限共通のアクセス可能URL
+		for (LmsUserRoleEnum roleEnum : LmsUserRoleEnum.values()) {
+			addRoute(roleEnum, "/lms/user/agreeSecurity", "/lms/error", "/lms/illegal",
+					"/lms/password/changePassword");
+		}
+		// 受講生権限のアクセス可能URL
+		addRoute(LmsUserRoleEnum.STUDENT, "/lms/course/detail", "/lms/section/detail",
+				"/lms/exam/start", "/lms/exam/question", "/lms/exam/detail", "/lms/exam/result",
+				"/lms/exam/resultDetail", "/lms/exam/answerCheck", "/lms/report/detail",
+				"/lms/report/regist", "/lms/report/complete", "/lms/report/download",
+				"/lms/report/feedback/regist", "/lms/report/feedback/delete",
+				"/lms/report/feedback/update", "/lms/download/teachingMaterialList",
+				"/lms/attendance/detail", "/lms/attendance/update", "/lms/fileshare/list",
+				"/lms/movie", "/lms/support", "/lms/help", "/lms/faq", "/lms/info",
+				"/lms/info/json", "/lms/user/detail");
+		// 講師権限のアクセス可能URL
+		addRoute(LmsUserRoleEnum.TEACHER, "/lms/course/list", "/lms/course/detail",
+				"/lms/download/teachingMaterialList", "/lms/section/detail", "/lms/meeting/regist",
+				"/lms/meeting/delete", "/lms/meeting/download", "/lms/user/list",
+				"/lms/user/detail", "/lms/password/reissuePassword", "/lms/report/list",
+				"/lms/report/detail", "/lms/report/downloadList", "/lms/report/regist",
+				"/lms/report/feedback/delete", "/lms/report/feedback/regist",
+				"/lms/report/feedback/update", "/lms/exam/list", "/lms/exam/detail",
+				"/lms/exam/preview", "/lms/exam/result", "/lms/exam/resultDetail",
+				"/lms/exam/resultList", "/lms/exam/deleteResultList", "/lms/attendance/list",
+				"/lms/attendance/detail", "/lms/attendance/bulkRegist", "/lms/attendance/update",
+				"/lms/attendance/updateAdmin", "/lms/evReport/score", "/lms/evReport/result/regist",
+				"/lms/takeOver/list", "/lms/takeOver/detail", "/lms/presentation/list",
+				"/lms/presentation/reserveStatusDetail", "/lms/presentation/teamList",
+				"/lms/presentation/teamDetail", "/lms/fileshare/list", "/lms/movie", "/lms/help",
+				"/lms/faq", "/lms/info", "/lms/info/json", "/lms/user/myAccount");
+		// 企業担当者権限のアクセス可能URL
+		addRoute(LmsUserRoleEnum.COMPANY_SUBSIDY, "/lms/user/list/student", "/lms/student/update",
+				"/lms/user/detail", "/lms/report/list", "/lms/report/detail",
+				"/lms/report/feedback/delete", "/lms/report/feedback/regist",
+				"/lms/report/feedback/update", "/lms/attendance/list", "/lms/attendance/detail",
+				"/lms/exam/list", "/lms/exam/resultList", "/lms/exam/detail",
+				"/lms/exam/resultDetail", "/lms/takeOver/list", "/lms/takeOver/detail",
+				"/lms/takeOver/regist", "/lms/presentation/list", "/lms/presentation/reserveRegist",
+				"/lms/presentation/reserveComplete", "/lms/presentation/reserveUpdate",
+				"/lms/presentation/reserveStatusDetail", "/lms/presentation/teamDetail",
+				"/lms/contract/history/list", "/lms/contract/history/detail",
+				"/lms/contract/agreement/regist", "/lms/subsidy/company/update",
+				"/lms/student/regist", "/lms/user/list/company", "/lms/fileshare/list",
+				"/lms/help", "/lms/info", "/lms/info/json", "/lms/user/myAccount");
+		// 管理者権限のアクセス可能URL
+		addRoute(LmsUserRoleEnum.ADMIN, "/lms/contract/history/list", "/lms/metrics/sql");
+	}
+
+}
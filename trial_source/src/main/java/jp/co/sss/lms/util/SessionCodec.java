@@ -0,0 +1,365 @@
+package jp.co.sss.lms.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.target.AbstractBeanFactoryBasedTargetSource;
+import org.springframework.core.ConfigurableObjectInputStream;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+
+/**
+ * セッションコーデック<br>
+ * セッション属性をバイト列に符号化する。属性は名前順に並べ、同じ属性からは常に同じバイト列を生成するため、
+ * 読み込み時のバイト列と比較して変更の有無を判定できる。
+ * ログイン情報DTOはnullでない項目のみを固定順で書き出し、文字列は長さ付きUTF-8で書き出す。
+ * セッションスコープのBeanのプロキシ・同一インスタンスは実体の属性名への参照として書き出す。
+ * それ以外の属性はJavaのシリアライズで書き出し、シリアライズできない属性は保存しない。
+ *
+ * @author 東京ITスクール
+ */
+public final class SessionCodec {
+
+	/** 形式のバージョン */
+	private static final byte VERSION = 1;
+
+	/** 種別：文字列 */
+	private static final byte TAG_STRING = 1;
+	/** 種別：ログイン情報DTO */
+	private static final byte TAG_LOGIN_USER = 2;
+	/** 種別：他の属性への参照 */
+	private static final byte TAG_REFERENCE = 3;
+	/** 種別：Javaのシリアライズ */
+	private static final byte TAG_SERIALIZED = 4;
+
+	/** セッションスコープのBeanの実体の属性名の接頭辞 */
+	private static final String SCOPED_TARGET_PREFIX = "scopedTarget.";
+
+	/** 読み込みを許可するクラス */
+	private static final ObjectInputFilter INPUT_FILTER = ObjectInputFilter.Config
+			.createFilter("jp.co.sss.lms.**;java.**;org.springframework.**;!*");
+
+	private static final Logger logger = LoggerFactory.getLogger(SessionCodec.class);
+
+	/**
+	 * コンストラクタ
+	 */
+	private SessionCodec() {
+	}
+
+	/**
+	 * セッション属性を符号化する
+	 *
+	 * @param attributes セッション属性
+	 * @return バイト列
+	 */
+	public static byte[] encode(Map<String, Object> attributes) {
+		Map<String, Object> sorted = new TreeMap<>(attributes);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(VERSION);
+			Map<String, byte[]> encoded = new LinkedHashMap<>();
+			for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+				byte[] value = encodeValue(entry.getKey(), entry.getValue(), sorted);
+				if (value != null) {
+					encoded.put(entry.getKey(), value);
+				}
+			}
+			writeInt(out, encoded.size());
+			for (Map.Entry<String, byte[]> entry : encoded.entrySet()) {
+				writeString(out, entry.getKey());
+				out.write(entry.getValue());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * セッション属性を復号する
+	 *
+	 * @param data バイト列
+	 * @return セッション属性
+	 */
+	public static Map<String, Object> decode(byte[] data) {
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		Map<String, String> references = new LinkedHashMap<>();
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			byte version = in.readByte();
+			if (version != VERSION) {
+				throw new IllegalArgumentException("session codec version " + version);
+			}
+			int size = readInt(in);
+			for (int i = 0; i < size; i++) {
+				String name = readString(in);
+				byte tag = in.readByte();
+				switch (tag) {
+				case TAG_STRING -> attributes.put(name, readString(in));
+				case TAG_LOGIN_USER -> attributes.put(name, readLoginUserDto(in));
+				case TAG_REFERENCE -> references.put(name, readString(in));
+				case TAG_SERIALIZED -> {
+					byte[] serialized = in.readNBytes(readInt(in));
+					attributes.put(name, deserialize(serialized));
+				}
+				default -> throw new IllegalArgumentException("session codec tag " + tag);
+				}
+			}
+		} catch (IOException | ClassNotFoundException e) {
+			throw new IllegalArgumentException(e);
+		}
+		for (Map.Entry<String, String> reference : references.entrySet()) {
+			Object target = attributes.get(reference.getValue());
+			if (target != null) {
+				attributes.put(reference.getKey(), target);
+			}
+		}
+		return attributes;
+	}
+
+	/**
+	 * 属性の値を符号化する
+	 *
+	 * @param name       属性名
+	 * @param value      値
+	 * @param attributes 全ての属性
+	 * @return 種別と値のバイト列（保存しない場合null）
+	 * @throws IOException
+	 */
+	private static byte[] encodeValue(String name, Object value, Map<String, Object> attributes)
+			throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		String reference = getReference(name, value, attributes);
+		if (reference != null) {
+			out.writeByte(TAG_REFERENCE);
+			writeString(out, reference);
+		} else if (value instanceof String string) {
+			out.writeByte(TAG_STRING);
+			writeString(out, string);
+		} else if (value != null && value.getClass() == LoginUserDto.class) {
+			out.writeByte(TAG_LOGIN_USER);
+			writeLoginUserDto(out, (LoginUserDto) value);
+		} else if (value instanceof Serializable && !(value instanceof Advised)) {
+			byte[] serialized = serialize(value);
+			out.writeByte(TAG_SERIALIZED);
+			writeInt(out, serialized.length);
+			out.write(serialized);
+		} else {
+			logger.warn("シリアライズできないセッション属性は保存しません。" + name);
+			return null;
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * 参照先の属性名を取得<br>
+	 * セッションスコープのBeanのプロキシ、または実体と同じインスタンスの場合は実体の属性名を返す。
+	 *
+	 * @param name       属性名
+	 * @param value      値
+	 * @param attributes 全ての属性
+	 * @return 参照先の属性名（参照でない場合null）
+	 */
+	private static String getReference(String name, Object value, Map<String, Object> attributes) {
+		if (value instanceof Advised advised
+				&& advised.getTargetSource() instanceof AbstractBeanFactoryBasedTargetSource source) {
+			String targetName = source.getTargetBeanName();
+			return attributes.containsKey(targetName) ? targetName : null;
+		}
+		if (name.startsWith(SCOPED_TARGET_PREFIX)) {
+			return null;
+		}
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			if (entry.getValue() == value && entry.getKey().startsWith(SCOPED_TARGET_PREFIX)) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * ログイン情報DTOを書き出す<br>
+	 * nullでない項目をビットで示し、該当する項目のみを固定順で書き出す。
+	 *
+	 * @param out
+	 * @param dto
+	 * @throws IOException
+	 */
+	private static void writeLoginUserDto(DataOutputStream out, LoginUserDto dto)
+			throws IOException {
+		Object[] values = { dto.getAccountId(), dto.getUserId(), dto.getLmsUserId(),
+				dto.getUserName(), dto.getRole(), dto.getCompanyId(), dto.getCompanyName(),
+				dto.getPlaceId(), dto.getPlaceName(), dto.getHiddenFlg(), dto.getCourseId(),
+				dto.getCourseName(), dto.getSecurityAgreeFlg(), dto.getPasswordChangeDate(),
+				dto.getSupportAvailable(), dto.getMailAddress(), dto.getLeaveFlg(),
+				dto.getLeaveDate(), dto.getFileShareFlg() };
+		int presence = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null) {
+				presence |= 1 << i;
+			}
+		}
+		writeInt(out, presence);
+		for (Object value : values) {
+			if (value instanceof Integer integer) {
+				writeInt(out, integer);
+			} else if (value instanceof String string) {
+				writeString(out, string);
+			} else if (value instanceof Short shortValue) {
+				out.writeShort(shortValue);
+			} else if (value instanceof Date date) {
+				out.writeLong(date.getTime());
+			}
+		}
+	}
+
+	/**
+	 * ログイン情報DTOを読み込む
+	 *
+	 * @param in
+	 * @return ログイン情報DTO
+	 * @throws IOException
+	 */
+	private static LoginUserDto readLoginUserDto(DataInputStream in) throws IOException {
+		int presence = readInt(in);
+		LoginUserDto dto = new LoginUserDto();
+		dto.setAccountId(has(presence, 0) ? readInt(in) : null);
+		dto.setUserId(has(presence, 1) ? readInt(in) : null);
+		dto.setLmsUserId(has(presence, 2) ? readInt(in) : null);
+		dto.setUserName(has(presence, 3) ? readString(in) : null);
+		dto.setRole(has(presence, 4) ? readString(in) : null);
+		dto.setCompanyId(has(presence, 5) ? readInt(in) : null);
+		dto.setCompanyName(has(presence, 6) ? readString(in) : null);
+		dto.setPlaceId(has(presence, 7) ? readInt(in) : null);
+		dto.setPlaceName(has(presence, 8) ? readString(in) : null);
+		dto.setHiddenFlg(has(presence, 9) ? in.readShort() : null);
+		dto.setCourseId(has(presence, 10) ? readInt(in) : null);
+		dto.setCourseName(has(presence, 11) ? readString(in) : null);
+		dto.setSecurityAgreeFlg(has(presence, 12) ? in.readShort() : null);
+		dto.setPasswordChangeDate(has(presence, 13) ? new Date(in.readLong()) : null);
+		dto.setSupportAvailable(has(presence, 14) ? in.readShort() : null);
+		dto.setMailAddress(has(presence, 15) ? readString(in) : null);
+		dto.setLeaveFlg(has(presence, 16) ? readInt(in) : null);
+		dto.setLeaveDate(has(presence, 17) ? new Date(in.readLong()) : null);
+		dto.setFileShareFlg(has(presence, 18) ? in.readShort() : null);
+		return dto;
+	}
+
+	/**
+	 * 項目の有無を判定
+	 *
+	 * @param presence 項目の有無を示すビット
+	 * @param index    項目の位置
+	 * @return 項目がある場合true
+	 */
+	private static boolean has(int presence, int index) {
+		return (presence & (1 << index)) != 0;
+	}
+
+	/**
+	 * 整数を可変長（7ビット単位）で書き出す
+	 *
+	 * @param out
+	 * @param value
+	 * @throws IOException
+	 */
+	private static void writeInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * 可変長の整数を読み込む
+	 *
+	 * @param in
+	 * @return 整数
+	 * @throws IOException
+	 */
+	private static int readInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("malformed varint");
+	}
+
+	/**
+	 * 文字列を長さ付きUTF-8で書き出す
+	 *
+	 * @param out
+	 * @param value
+	 * @throws IOException
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * 長さ付きUTF-8の文字列を読み込む
+	 *
+	 * @param in
+	 * @return 文字列
+	 * @throws IOException
+	 */
+	private static String readString(DataInputStream in) throws IOException {
+		return new String(in.readNBytes(readInt(in)), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Javaのシリアライズ
+	 *
+	 * @param value
+	 * @return バイト列
+	 * @throws IOException
+	 */
+	private static byte[] serialize(Object value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(value);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Javaのデシリアライズ
+	 *
+	 * @param bytes
+	 * @return 値
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		try (ConfigurableObjectInputStream in = new ConfigurableObjectInputStream(
+				new ByteArrayInputStream(bytes), Thread.currentThread().getContextClassLoader())) {
+			in.setObjectInputFilter(INPUT_FILTER);
+			return in.readObject();
+		}
+	}
+
+}
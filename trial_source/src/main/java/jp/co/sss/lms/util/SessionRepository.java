@@ -0,0 +1,50 @@
+package jp.co.sss.lms.util;
+
+import jp.co.sss.lms.entity.TSession;
+
+/**
+ * セッションの保持方式<br>
+ * アプリケーションサーバーの外部にセッションを保持し、複数ノードで共有する。
+ * 属性は{@link SessionCodec}で符号化したバイト列として受け渡す。
+ *
+ * @author 東京ITスクール
+ */
+public interface SessionRepository {
+
+	/**
+	 * セッションを取得
+	 *
+	 * @param sessionId
+	 * @return セッション（存在しない、または有効期限切れの場合null）
+	 */
+	TSession findById(String sessionId);
+
+	/**
+	 * セッションを登録・更新する
+	 *
+	 * @param tSession
+	 */
+	void save(TSession tSession);
+
+	/**
+	 * セッションの最終アクセス日時・有効期限のみ更新する
+	 *
+	 * @param tSession
+	 */
+	void updateLastAccessTime(TSession tSession);
+
+	/**
+	 * セッションを削除する
+	 *
+	 * @param sessionId
+	 */
+	void deleteById(String sessionId);
+
+	/**
+	 * 有効期限切れのセッションを削除する
+	 *
+	 * @return 削除件数
+	 */
+	int deleteExpired();
+
+}
@@ -0,0 +1,103 @@
+package jp.co.sss.lms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * パスワードハッシュ方式（salt + SHA-256 + ストレッチング）<br>
+ * 従来から使用している方式。MessageDigestはスレッド毎に再利用する。
+ *
+ * @author 東京ITスクール
+ */
+public class Sha256PasswordHashEngine implements PasswordHashEngine {
+
+	/** ストレッチング回数 */
+	private static final int STRETCH_COUNT = 10;
+
+	/** SHA-256のハッシュ値の16進数表記の桁数 */
+	private static final int HEX_LENGTH = 64;
+
+	/** 16進数表記の文字 */
+	private static final byte[] HEX_CHARS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	/** スレッド毎のMessageDigest */
+	private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	});
+
+	/**
+	 * ハッシュ化したパスワードを取得<br>
+	 * salt = SHA256(userId)、hash(n) = SHA256(hash(n-1) + salt + SHA256(salt + password))
+	 */
+	@Override
+	public String hash(String password, String userId) {
+		MessageDigest md = DIGEST.get();
+		byte[] salt = sha256Hex(md, null, userId.getBytes(StandardCharsets.UTF_8), null);
+		byte[] saltedPassword = sha256Hex(md, salt, password.getBytes(StandardCharsets.UTF_8),
+				null);
+		byte[] hash = new byte[0];
+		for (int i = 0; i < STRETCH_COUNT; i++) {
+			hash = sha256Hex(md, hash, salt, saltedPassword);
+		}
+		return new String(hash, StandardCharsets.US_ASCII);
+	}
+
+	@Override
+	public boolean supports(String hashedPassword) {
+		return hashedPassword != null && hashedPassword.length() == HEX_LENGTH
+				&& hashedPassword.indexOf('$') < 0;
+	}
+
+	@Override
+	public boolean isCurrent(String hashedPassword) {
+		return supports(hashedPassword);
+	}
+
+	@Override
+	public boolean matches(String password, String userId, String hashedPassword) {
+		return MessageDigest.isEqual(hash(password, userId).getBytes(StandardCharsets.US_ASCII),
+				hashedPassword.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * 文字列から SHA256 のハッシュ値（16進数表記）を取得
+	 *
+	 * @param md
+	 * @param first  先頭に連結する値（null可）
+	 * @param second
+	 * @param third  末尾に連結する値（null可）
+	 * @return SHA256 のハッシュ値（16進数表記のASCII）
+	 */
+	static byte[] sha256Hex(MessageDigest md, byte[] first, byte[] second, byte[] third) {
+		md.reset();
+		if (first != null) {
+			md.update(first);
+		}
+		md.update(second);
+		if (third != null) {
+			md.update(third);
+		}
+		return toHex(md.digest());
+	}
+
+	/**
+	 * バイト配列を16進数表記に変換
+	 *
+	 * @param bytes
+	 * @return 16進数表記のASCII
+	 */
+	static byte[] toHex(byte[] bytes) {
+		byte[] hex = new byte[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			hex[i * 2] = HEX_CHARS[(bytes[i] >> 4) & 0x0f];
+			hex[i * 2 + 1] = HEX_CHARS[bytes[i] & 0x0f];
+		}
+		return hex;
+	}
+
+}
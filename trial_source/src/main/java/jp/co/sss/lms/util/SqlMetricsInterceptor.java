@@ -0,0 +1,370 @@
+package jp.co.sss.lms.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jp.co.sss.lms.dto.SqlStatDto;
+
+/**
+ * SQL実行統計インターセプター<br>
+ * マッパーのステートメントID毎に実行件数・エラー件数・取得/更新件数・処理時間の合計/最大/分布を集計する。
+ * リクエスト中の実行はリクエスト属性にステートメントID毎の件数を保持し、リクエストの終了時に
+ * 同じステートメントを設定された回数以上実行していた場合は繰り返し実行（N+1の疑い）として記録する。
+ * 集計結果は設定された間隔で、前回出力からの処理時間の長い順にログへ出力する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+@Intercepts({
+		@Signature(type = Executor.class, method = "query", args = { MappedStatement.class,
+				Object.class, RowBounds.class, ResultHandler.class }),
+		@Signature(type = Executor.class, method = "query", args = { MappedStatement.class,
+				Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+				BoundSql.class }),
+		@Signature(type = Executor.class, method = "update", args = { MappedStatement.class,
+				Object.class }) })
+public class SqlMetricsInterceptor implements Interceptor {
+
+	/** リクエスト中の実行件数を保持するリクエスト属性名 */
+	private static final String ATTR_REQUEST_STAT = SqlMetricsInterceptor.class.getName()
+			+ ".requestStat";
+	/** 出力するステートメントの件数 */
+	private static final int REPORT_SIZE = 10;
+
+	/** 繰り返し実行とする1リクエストの実行回数 */
+	@Value("${setting.sql.metrics.repeat.threshold:5}")
+	private int repeatThreshold;
+	/** 集計結果の出力間隔（分）。0以下の場合は出力しない */
+	@Value("${setting.sql.metrics.report.minutes:10}")
+	private int reportMinutes;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** ステートメントID毎の統計 */
+	private final Map<String, StatementStat> statMap = new ConcurrentHashMap<>();
+	/** SQLを実行したリクエスト件数 */
+	private final LongAdder requestCount = new LongAdder();
+	/** リクエスト中に実行したSQLの件数 */
+	private final LongAdder requestStatementCount = new LongAdder();
+	/** 1リクエストで実行したSQLの最大件数 */
+	private final LongAccumulator requestStatementMax = new LongAccumulator(Math::max, 0);
+	/** 前回出力からの1リクエストで実行したSQLの最大件数 */
+	private final LongAccumulator reportRequestStatementMax = new LongAccumulator(Math::max, 0);
+	/** 前回出力時のSQLを実行したリクエスト件数 */
+	private long reportedRequestCount;
+	/** 前回出力時のリクエスト中に実行したSQLの件数 */
+	private long reportedRequestStatementCount;
+
+	/** 出力スレッド */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * 出力スレッドの開始
+	 */
+	@PostConstruct
+	public void init() {
+		if (reportMinutes <= 0) {
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "sql-metrics-report");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(() -> {
+			try {
+				report();
+			} catch (Exception e) {
+				logger.error("SQL実行統計の出力に失敗しました。", e);
+			}
+		}, reportMinutes, reportMinutes, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * 出力スレッドの終了
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+		String statementId = ((MappedStatement) invocation.getArgs()[0]).getId();
+		StatementStat stat = statMap.computeIfAbsent(statementId, k -> new StatementStat());
+		countRequest(statementId);
+		long start = System.nanoTime();
+		Object result;
+		try {
+			result = invocation.proceed();
+		} catch (Throwable t) {
+			stat.errorCount.increment();
+			throw t;
+		} finally {
+			long elapsedNanos = System.nanoTime() - start;
+			stat.latency.record(elapsedNanos);
+			stat.reportMaxNanos.accumulate(elapsedNanos);
+		}
+		if (result instanceof List<?> list) {
+			stat.rowCount.add(list.size());
+		} else if (result instanceof Integer count) {
+			stat.rowCount.add(count);
+		}
+		return result;
+	}
+
+	/**
+	 * リクエストの終了時の集計<br>
+	 * 繰り返し実行されたステートメントを記録し、リクエスト中に実行したSQLの件数を返す。
+	 *
+	 * @param request
+	 * @return リクエスト中に実行したSQLの件数
+	 */
+	public int completeRequest(HttpServletRequest request) {
+		RequestStat requestStat = (RequestStat) request.getAttribute(ATTR_REQUEST_STAT);
+		if (requestStat == null) {
+			return 0;
+		}
+		request.removeAttribute(ATTR_REQUEST_STAT);
+		requestCount.increment();
+		requestStatementCount.add(requestStat.total);
+		requestStatementMax.accumulate(requestStat.total);
+		reportRequestStatementMax.accumulate(requestStat.total);
+		for (Map.Entry<String, Integer> entry : requestStat.countMap.entrySet()) {
+			if (entry.getValue() >= repeatThreshold) {
+				StatementStat stat = statMap.get(entry.getKey());
+				stat.repeatCount.increment();
+				stat.repeatUri = request.getRequestURI();
+			}
+		}
+		return requestStat.total;
+	}
+
+	/**
+	 * ステートメントID毎の統計を取得（処理時間の合計の長い順）
+	 *
+	 * @return SQL実行統計DTOリスト
+	 */
+	public List<SqlStatDto> getSqlStatDtoList() {
+		List<SqlStatDto> sqlStatDtoList = new ArrayList<>();
+		statMap.forEach((statementId, stat) -> sqlStatDtoList.add(stat.toDto(statementId)));
+		sqlStatDtoList.sort(Comparator.comparing(SqlStatDto::getTotalMillis).reversed());
+		return sqlStatDtoList;
+	}
+
+	/**
+	 * SQLを実行したリクエスト件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getRequestCount() {
+		return requestCount.sum();
+	}
+
+	/**
+	 * リクエスト中に実行したSQLの件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getRequestStatementCount() {
+		return requestStatementCount.sum();
+	}
+
+	/**
+	 * 1リクエストで実行したSQLの最大件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getRequestStatementMax() {
+		return requestStatementMax.get();
+	}
+
+	/**
+	 * リクエスト中の実行件数を加算する
+	 *
+	 * @param statementId
+	 */
+	private void countRequest(String statementId) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return;
+		}
+		RequestStat requestStat = (RequestStat) attributes.getAttribute(ATTR_REQUEST_STAT,
+				RequestAttributes.SCOPE_REQUEST);
+		if (requestStat == null) {
+			requestStat = new RequestStat();
+			attributes.setAttribute(ATTR_REQUEST_STAT, requestStat,
+					RequestAttributes.SCOPE_REQUEST);
+		}
+		requestStat.countMap.merge(statementId, 1, Integer::sum);
+		requestStat.total++;
+	}
+
+	/**
+	 * 前回出力からの集計結果を出力する
+	 */
+	void report() {
+		String report = createReport();
+		if (report != null) {
+			logger.info(report);
+		}
+	}
+
+	/**
+	 * 前回出力からの集計結果を作成し、出力済みとする<br>
+	 * 件数・最大値はいずれも前回出力からの値とする。
+	 *
+	 * @return 集計結果（前回出力からSQLを実行していない場合null）
+	 */
+	String createReport() {
+		List<Map.Entry<String, long[]>> deltaList = new ArrayList<>();
+		statMap.forEach((statementId, stat) -> {
+			long[] delta = stat.takeDelta();
+			if (delta[0] > 0) {
+				deltaList.add(Map.entry(statementId, delta));
+			}
+		});
+		long requests = getRequestCount();
+		long statements = getRequestStatementCount();
+		long requestsDelta = requests - reportedRequestCount;
+		long statementsDelta = statements - reportedRequestStatementCount;
+		reportedRequestCount = requests;
+		reportedRequestStatementCount = statements;
+		long maxPerRequest = reportRequestStatementMax.getThenReset();
+		if (deltaList.isEmpty()) {
+			return null;
+		}
+		deltaList.sort(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[1])
+				.reversed());
+		StringBuilder sb = new StringBuilder();
+		sb.append("SQL実行統計（過去").append(reportMinutes).append("分） requests=")
+				.append(requestsDelta).append(" statements=").append(statementsDelta)
+				.append(" maxPerRequest=").append(maxPerRequest);
+		deltaList.stream()
+				.limit(REPORT_SIZE)
+				.forEach(e -> {
+					long[] delta = e.getValue();
+					sb.append("\n[sql]").append(e.getKey())
+							.append(" count=").append(delta[0])
+							.append(" totalMs=").append(TimeUnit.NANOSECONDS.toMillis(delta[1]))
+							.append(" maxMs=").append(TimeUnit.NANOSECONDS.toMillis(delta[3]))
+							.append(" repeat=").append(delta[2]);
+				});
+		return sb.toString();
+	}
+
+	/**
+	 * リクエスト中の実行件数
+	 */
+	private static final class RequestStat {
+
+		/** ステートメントID毎の件数 */
+		private final Map<String, Integer> countMap = new HashMap<>();
+		/** 件数の合計 */
+		private int total;
+
+	}
+
+	/**
+	 * ステートメントID毎の統計
+	 */
+	private static final class StatementStat {
+
+		/** エラー件数 */
+		private final LongAdder errorCount = new LongAdder();
+		/** 取得・更新件数の合計 */
+		private final LongAdder rowCount = new LongAdder();
+		/** 処理時間の分布 */
+		private final LatencyHistogram latency = new LatencyHistogram();
+		/** 繰り返し実行されたリクエスト件数 */
+		private final LongAdder repeatCount = new LongAdder();
+		/** 最後に繰り返し実行されたURI */
+		private volatile String repeatUri;
+		/** 前回出力時の実行件数 */
+		private long reportedCount;
+		/** 前回出力時の処理時間の合計（ナノ秒） */
+		private long reportedNanos;
+		/** 前回出力時の繰り返し実行されたリクエスト件数 */
+		private long reportedRepeatCount;
+		/** 前回出力からの処理時間の最大値（ナノ秒） */
+		private final LongAccumulator reportMaxNanos = new LongAccumulator(Math::max, 0);
+
+		/**
+		 * 前回出力からの実行件数・処理時間・繰り返し実行件数・最大処理時間を取得し、出力済みとする
+		 *
+		 * @return 実行件数、処理時間（ナノ秒）、繰り返し実行されたリクエスト件数、最大処理時間（ナノ秒）
+		 */
+		long[] takeDelta() {
+			long count = latency.getCount();
+			long nanos = latency.getSumNanos();
+			long repeat = repeatCount.sum();
+			long[] delta = { count - reportedCount, nanos - reportedNanos,
+					repeat - reportedRepeatCount, reportMaxNanos.getThenReset() };
+			reportedCount = count;
+			reportedNanos = nanos;
+			reportedRepeatCount = repeat;
+			return delta;
+		}
+
+		/**
+		 * SQL実行統計DTOに変換する
+		 *
+		 * @param statementId
+		 * @return SQL実行統計DTO
+		 */
+		SqlStatDto toDto(String statementId) {
+			SqlStatDto dto = new SqlStatDto();
+			dto.setStatementId(statementId);
+			dto.setCallCount(latency.getCount());
+			dto.setErrorCount(errorCount.sum());
+			dto.setRowCount(rowCount.sum());
+			dto.setTotalMillis(TimeUnit.NANOSECONDS.toMillis(latency.getSumNanos()));
+			dto.setMaxMillis(TimeUnit.NANOSECONDS.toMillis(latency.getMaxNanos()));
+			long[] bucketMillis = LatencyHistogram.getBucketMillis();
+			long[] cumulativeCounts = latency.getCumulativeCounts();
+			Map<String, Long> histogram = new LinkedHashMap<>();
+			for (int i = 0; i < cumulativeCounts.length; i++) {
+				histogram.put(i < bucketMillis.length ? String.valueOf(bucketMillis[i]) : "+Inf",
+						cumulativeCounts[i]);
+			}
+			dto.setHistogram(histogram);
+			dto.setRepeatCount(repeatCount.sum());
+			dto.setRepeatUri(repeatUri);
+			return dto;
+		}
+
+	}
+
+}
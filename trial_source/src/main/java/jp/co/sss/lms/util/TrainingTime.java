@@ -1,40 +1,53 @@
 package jp.co.sss.lms.util;
 
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalTime;
 
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
-
-import lombok.Getter;
-import lombok.Setter;
 
 /**
- * 研修時刻ユーティリティ
+ * 研修時刻ユーティリティ<br>
+ * 0時からの経過分で時刻を保持する不変クラス。24時間分のインスタンスはキャッシュを返却する。
  * 
  * @author 東京ITスクール
  */
 @Component
-@Getter
-@Setter
 public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 
 	/** シリアルバージョンUID */
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
+
+	/** 未設定を表す経過分 */
+	private static final int BLANK_MINUTES = -1;
+	/** 不正な文字列を表す経過分 */
+	private static final int INVALID_MINUTES = -2;
+	/** 1時間の分数 */
+	private static final int MINUTES_PER_HOUR = 60;
+	/** キャッシュする経過分の上限（24時間） */
+	private static final int CACHE_SIZE = 24 * MINUTES_PER_HOUR;
+	/** 解析可能な時の上限 */
+	private static final int MAX_HOUR = 9999;
+
+	/** 0:00～23:59のキャッシュ */
+	private static final TrainingTime[] CACHE = new TrainingTime[CACHE_SIZE];
+	/** 未設定の研修時刻 */
+	public static final TrainingTime BLANK = new TrainingTime(BLANK_MINUTES, true);
 
-	/** 時間 */
-	private Integer hour;
-	/** 分 */
-	private Integer minute;
+	static {
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			CACHE[i] = new TrainingTime(i, true);
+		}
+	}
+
+	/** 0時からの経過分（未設定の場合-1） */
+	private final int minutes;
 
 	/**
 	 * 現在時刻でインスタンスを作成する
 	 */
 	public TrainingTime() {
-		SimpleDateFormat sdf = new SimpleDateFormat("HH:mm");
-		String timeStr = sdf.format(new Date());
-		setTimeStr(timeStr);
+		LocalTime now = LocalTime.now();
+		this.minutes = now.getHour() * MINUTES_PER_HOUR + now.getMinute();
 	}
 
 	/**
@@ -47,8 +60,80 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 		if (!isValidTrainingTime(hour, minute)) {
 			throw new IllegalArgumentException();
 		}
-		this.hour = hour;
-		this.minute = minute;
+		this.minutes = hour * MINUTES_PER_HOUR + minute;
+	}
+
+	/**
+	 * 文字列からインスタンス化する。 有効フォーマット："9:00", "18:00", "0900", "1800"
+	 *
+	 * @param timeStr
+	 */
+	public TrainingTime(String timeStr) {
+		this.minutes = parseOrThrow(timeStr);
+	}
+
+	/**
+	 * 経過分からインスタンス化する
+	 * 
+	 * @param minutes
+	 * @param dummy   他のコンストラクタと区別するための引数
+	 */
+	private TrainingTime(int minutes, boolean dummy) {
+		this.minutes = minutes;
+	}
+
+	/**
+	 * 現在時刻の研修時刻を取得
+	 * 
+	 * @return 研修時刻
+	 */
+	public static TrainingTime now() {
+		LocalTime now = LocalTime.now();
+		return ofMinutes(now.getHour() * MINUTES_PER_HOUR + now.getMinute());
+	}
+
+	/**
+	 * 指定時刻の研修時刻を取得
+	 * 
+	 * @param hour
+	 * @param minute
+	 * @return 研修時刻
+	 */
+	public static TrainingTime of(Integer hour, Integer minute) {
+		if (!isValidTrainingTime(hour, minute)) {
+			throw new IllegalArgumentException();
+		}
+		return ofMinutes(hour * MINUTES_PER_HOUR + minute);
+	}
+
+	/**
+	 * 0時からの経過分から研修時刻を取得
+	 * 
+	 * @param minutes
+	 * @return 研修時刻
+	 */
+	public static TrainingTime ofMinutes(int minutes) {
+		if (minutes < 0) {
+			throw new IllegalArgumentException();
+		}
+		if (minutes < CACHE_SIZE) {
+			return CACHE[minutes];
+		}
+		return new TrainingTime(minutes, true);
+	}
+
+	/**
+	 * 文字列から研修時刻を取得する。 有効フォーマット："9:00", "18:00", "0900", "1800"
+	 * 
+	 * @param timeStr
+	 * @return 研修時刻（空文字の場合は未設定の研修時刻）
+	 */
+	public static TrainingTime valueOf(String timeStr) {
+		int minutes = parseOrThrow(timeStr);
+		if (minutes == BLANK_MINUTES) {
+			return BLANK;
+		}
+		return ofMinutes(minutes);
 	}
 
 	/**
@@ -57,31 +142,8 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @param timeStr
 	 * @return boolean
 	 */
-	public boolean isValidTrainingTime(String timeStr) {
-		if (StringUtils.isEmpty(timeStr)) {
-			return true;
-		}
-		Integer hour, minute;
-		if (timeStr.indexOf(":") >= 0) {
-			String[] times = timeStr.split(":");
-			final String numRegex = "[0-9]+";
-			if (times.length == 2 && times[0].matches(numRegex) && times[1].matches(numRegex)) {
-				hour = Integer.parseInt(times[0]);
-				minute = Integer.parseInt(times[1]);
-				return isValidTrainingTime(hour, minute);
-			} else {
-				return false;
-			}
-		} else if (timeStr.matches("[0-9]{4}")) {
-			// 数値4桁の場合
-			String hourStr = timeStr.substring(0, 2);
-			String minuteStr = timeStr.substring(2, 4);
-			hour = Integer.parseInt(hourStr);
-			minute = Integer.parseInt(minuteStr);
-			return isValidTrainingTime(hour, minute);
-		} else {
-			return false;
-		}
+	public static boolean isValidTrainingTime(String timeStr) {
+		return parse(timeStr) != INVALID_MINUTES;
 	}
 
 	/**
@@ -91,10 +153,13 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @param minute
 	 * @return boolean
 	 */
-	public boolean isValidTrainingTime(Integer hour, Integer minute) {
+	public static boolean isValidTrainingTime(Integer hour, Integer minute) {
 		if (hour == null || minute == null) {
 			return false;
 		}
+		if (hour < 0 || hour > MAX_HOUR) {
+			return false;
+		}
 		if (minute > 59 || minute < 0) {
 			return false;
 		}
@@ -102,48 +167,102 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	}
 
 	/**
-	 * 文字列からインスタンス化する。 有効フォーマット："9:00", "18:00", "0900", "1800"
-	 *
+	 * 文字列を解析し、不正な場合は例外を送出する
+	 * 
 	 * @param timeStr
+	 * @return 0時からの経過分（空文字の場合-1）
 	 */
-	public TrainingTime(String timeStr) {
-		if (StringUtils.isEmpty(timeStr)) {
-			return;
+	private static int parseOrThrow(String timeStr) {
+		int minutes = parse(timeStr);
+		if (minutes == INVALID_MINUTES) {
+			throw new IllegalArgumentException(timeStr + " is Illegal.");
 		}
-		setTimeStr(timeStr);
+		return minutes;
 	}
 
 	/**
-	 * 時刻を設定
-	 *
+	 * 文字列を解析し、0時からの経過分を返却する。<br>
+	 * "H:mm"形式（時・分とも数字のみ）または数値4桁の形式のみ有効とする。
+	 * 
 	 * @param timeStr
+	 * @return 0時からの経過分（空文字の場合-1、不正な場合-2）
 	 */
-	private void setTimeStr(String timeStr) {
-		// 有効フォーマットかどうかチェックを行う
-		if (!isValidTrainingTime(timeStr)) {
-			throw new IllegalArgumentException(timeStr + " is Illegal.");
+	private static int parse(String timeStr) {
+		if (timeStr == null || timeStr.isEmpty()) {
+			return BLANK_MINUTES;
 		}
-		Integer hour, minute;
-		if (timeStr.indexOf(":") >= 0) {
-			String[] times = timeStr.split(":");
-			// isValidTrainingTimeでチェック済のためそのまま変換する
-			hour = Integer.parseInt(times[0]);
-			minute = Integer.parseInt(times[1]);
-		} else if (timeStr.matches("[0-9]{4}")) {
+		int length = timeStr.length();
+		int colon = timeStr.indexOf(':');
+		int hour, minute;
+		if (colon >= 0) {
+			hour = parseDigits(timeStr, 0, colon);
+			minute = parseDigits(timeStr, colon + 1, length);
+		} else if (length == 4) {
 			// 数値4桁の場合
-			String hourStr = timeStr.substring(0, 2);
-			String minuteStr = timeStr.substring(2, 4);
-			hour = Integer.parseInt(hourStr);
-			minute = Integer.parseInt(minuteStr);
+			hour = parseDigits(timeStr, 0, 2);
+			minute = parseDigits(timeStr, 2, 4);
 		} else {
-			throw new IllegalArgumentException();
+			return INVALID_MINUTES;
 		}
-		// 数値的なチェックを行う
-		if (!isValidTrainingTime(hour, minute)) {
-			throw new IllegalArgumentException();
+		if (hour < 0 || minute < 0 || !isValidTrainingTime(hour, minute)) {
+			return INVALID_MINUTES;
+		}
+		return hour * MINUTES_PER_HOUR + minute;
+	}
+
+	/**
+	 * 指定範囲の数字を数値に変換する
+	 * 
+	 * @param str
+	 * @param from
+	 * @param to
+	 * @return 数値（数字以外を含む、空、または上限を超える場合-1）
+	 */
+	private static int parseDigits(String str, int from, int to) {
+		if (from >= to) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = from; i < to; i++) {
+			char c = str.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+			if (value > MAX_HOUR) {
+				return -1;
+			}
 		}
-		this.hour = hour;
-		this.minute = minute;
+		return value;
+	}
+
+	/**
+	 * 時間を取得
+	 * 
+	 * @return 時間（未設定の場合null）
+	 */
+	public Integer getHour() {
+		return isBlank() ? null : minutes / MINUTES_PER_HOUR;
+	}
+
+	/**
+	 * 分を取得
+	 * 
+	 * @return 分（未設定の場合null）
+	 */
+	public Integer getMinute() {
+		return isBlank() ? null : minutes % MINUTES_PER_HOUR;
+	}
+
+	/**
+	 * 0時からの経過分を取得
+	 * 
+	 * @return 経過分
+	 * @throws IllegalStateException 未設定の場合
+	 */
+	public int toMinutes() {
+		requireNotBlank("研修時刻");
+		return minutes;
 	}
 
 	/**
@@ -151,17 +270,12 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * 
 	 * @param augend - この TrainingTime に加算する値
 	 * @return this + augend
+	 * @throws IllegalStateException いずれかが未設定の場合
 	 */
 	public TrainingTime add(TrainingTime augend) {
-		Integer retHour = this.hour;
-		Integer retMinute = this.minute;
-		retHour += augend.hour;
-		retMinute += augend.minute;
-		while (retMinute >= 60) {
-			retHour += 1;
-			retMinute -= 60;
-		}
-		return new TrainingTime(retHour, retMinute);
+		requireNotBlank("加算元の研修時刻");
+		augend.requireNotBlank("加算する研修時刻(augend)");
+		return ofMinutes(this.minutes + augend.minutes);
 	}
 
 	/**
@@ -169,20 +283,15 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * 
 	 * @param augend - この TrainingTime から減産する値
 	 * @return this - augend
+	 * @throws IllegalStateException 減算する値が未設定の場合
 	 */
 	public TrainingTime subtract(TrainingTime subtrahend) {
-		if (this.compareTo(subtrahend) > 0) {
-			Integer retHour = this.hour;
-			Integer retMinute = this.minute;
-			retHour -= subtrahend.hour;
-			retMinute -= subtrahend.minute;
-			while (retHour > 0 && retMinute < 0) {
-				retHour -= 1;
-				retMinute += 60;
-			}
-			return new TrainingTime(retHour, retMinute);
-		} else if (this.equals(subtrahend)) {
-			return new TrainingTime(0, 0);
+		int compare = this.compareTo(subtrahend);
+		if (compare > 0) {
+			subtrahend.requireNotBlank("減算する研修時刻(subtrahend)");
+			return ofMinutes(this.minutes - subtrahend.minutes);
+		} else if (compare == 0) {
+			return CACHE[0];
 		} else {
 			throw new UnsupportedOperationException("未実装");
 		}
@@ -244,42 +353,37 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 */
 	@Override
 	public boolean equals(Object anObject) {
+		if (this == anObject) {
+			return true;
+		}
 		if (anObject instanceof TrainingTime) {
-			TrainingTime target = (TrainingTime) anObject;
-			if (target.hour == this.hour && target.minute == this.minute) {
-				return true;
-			} else {
-				return false;
-			}
-		} else {
-			return false;
+			return ((TrainingTime) anObject).minutes == this.minutes;
 		}
+		return false;
+	}
+
+	/**
+	 * ハッシュ値を返却
+	 * 
+	 * @return ハッシュ値
+	 */
+	@Override
+	public int hashCode() {
+		return minutes;
 	}
 
 	/**
-	 * 指定した研修時間インスタンスの比較
+	 * 指定した研修時間インスタンスの比較<br>
+	 * 未設定の研修時刻（null含む）は設定済みの研修時刻より小さいものとする。
 	 * 
 	 * @param anotherTrainingTime
 	 * @return 比較結果
 	 */
 	@Override
 	public int compareTo(TrainingTime anotherTrainingTime) {
-		if (this.isBlank() && anotherTrainingTime != null && !anotherTrainingTime.isBlank()) {
-			return -1;
-		}
-		if (!this.isBlank() && (anotherTrainingTime == null || anotherTrainingTime.isBlank())) {
-			return 1;
-		}
-		if (this.isBlank() && (anotherTrainingTime == null || anotherTrainingTime.isBlank())) {
-			return 0;
-		}
-		if (this.equals(anotherTrainingTime)) {
-			return 0;
-		}
-		if (this.hour != anotherTrainingTime.hour) {
-			return this.hour.compareTo(anotherTrainingTime.hour);
-		}
-		return this.minute.compareTo(anotherTrainingTime.minute);
+		int anotherMinutes = anotherTrainingTime == null ? BLANK_MINUTES
+				: anotherTrainingTime.minutes;
+		return Integer.compare(this.minutes, anotherMinutes);
 	}
 
 	/**
@@ -288,7 +392,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return boolean
 	 */
 	public boolean isBlank() {
-		return (this.hour == null || this.minute == null);
+		return minutes == BLANK_MINUTES;
 	}
 
 	/**
@@ -306,75 +410,65 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return HH:mm
 	 */
 	public String getFormattedString() {
-		if (hour == null || minute == null) {
+		if (isBlank()) {
 			return "";
-		} else {
-			return String.format("%1$02d:%2$02d", hour, minute);
 		}
+		int hour = minutes / MINUTES_PER_HOUR;
+		int minute = minutes % MINUTES_PER_HOUR;
+		StringBuilder sb = new StringBuilder(5);
+		if (hour < 10) {
+			sb.append('0');
+		}
+		sb.append(hour).append(':');
+		if (minute < 10) {
+			sb.append('0');
+		}
+		return sb.append(minute).toString();
 	}
 
 	/**
 	 * 分を15分刻みで切り上げる。出社に仕様
 	 * 
-	 * @return
+	 * @return 切り上げた研修時刻
 	 */
 	public TrainingTime roundUp() {
-		if (between(this.minute, 46, 59)) {
-			this.hour++;
-			this.minute = 0;
-		} else if (between(this.minute, 1, 15)) {
-			this.minute = 15;
-		} else if (between(this.minute, 16, 30)) {
-			this.minute = 30;
-		} else if (between(this.minute, 31, 45)) {
-			this.minute = 45;
+		if (isBlank()) {
+			return this;
 		}
-		return this;
+		return ofMinutes((minutes + 14) / 15 * 15);
 	}
 
 	/**
 	 * 分を15分刻みで切り捨てる。退社に仕様
 	 * 
-	 * @return
+	 * @return 切り捨てた研修時刻
 	 */
 	public TrainingTime roundDown() {
-		if (between(this.minute, 45, 59)) {
-			this.minute = 45;
-		} else if (between(this.minute, 0, 14)) {
-			this.minute = 0;
-		} else if (between(this.minute, 15, 29)) {
-			this.minute = 15;
-		} else if (between(this.minute, 30, 44)) {
-			this.minute = 30;
+		if (isBlank()) {
+			return this;
 		}
-		return this;
+		return ofMinutes(minutes / 15 * 15);
 	}
 
 	/**
-	 * 指定された数値間か判定
-	 * 
-	 * @param minute
-	 * @param a
-	 * @param b
+	 * 空か判定
 	 * 
 	 * @return boolean
 	 */
-	private boolean between(int minute, int a, int b) {
-		if (a > b) {
-			int tmp = b;
-			b = a;
-			a = tmp;
-		}
-		return (minute >= a && minute <= b);
+	public boolean isEmpty() {
+		return isBlank();
 	}
 
 	/**
-	 * 空か判定
+	 * 未設定の場合に例外を送出する
 	 * 
-	 * @return boolean
+	 * @param name 例外メッセージに表示する値の名称
+	 * @throws IllegalStateException 未設定の場合
 	 */
-	public boolean isEmpty() {
-		return hour == null || minute == null;
+	private void requireNotBlank(String name) {
+		if (isBlank()) {
+			throw new IllegalStateException(name + "が未設定です");
+		}
 	}
 
 	/**
@@ -384,19 +478,12 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 */
 	public String restTimeZone(TrainingTime total, TrainingTime companyRestStartTime,
 			TrainingTime companyRestEndTime) {
-		int startTime = Integer.parseInt(companyRestStartTime.toString().replace(":", ""));
-		int endTime = Integer.parseInt(companyRestEndTime.toString().replace(":", ""));
-
-		int startTimeMin = startTime / 100 * 60 + startTime % 100;
-		int endTimeMin = endTime / 100 * 60 + endTime % 100;
-		int diffMin = endTimeMin - startTimeMin;
+		int diffMin = companyRestEndTime.toMinutes() - companyRestStartTime.toMinutes();
 		String chinginTime = total.toString();
 
 		// 企業規定の休憩取得時間が1時間を超える場合、totalから超過分を差し引く
 		if (diffMin > 60) {
-			int totalMin = Integer.parseInt(total.toString().replace(":", ""));
-			;
-			totalMin = totalMin / 100 * 60 + totalMin % 100;
+			int totalMin = total.toMinutes();
 			diffMin -= 60;
 			totalMin -= diffMin;
 			totalMin = totalMin / 60 * 100 + totalMin % 60;
@@ -404,7 +491,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 			// 元のフォーマットに戻す
 			String strTotalMin = String.valueOf(totalMin);
 			if (strTotalMin.length() < 4) {
-				StringBuffer sb = new StringBuffer();
+				StringBuilder sb = new StringBuilder();
 				sb.append("0");
 				sb.append(strTotalMin);
 				chinginTime = sb.toString();
@@ -0,0 +1,185 @@
+package jp.co.sss.lms.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * バージョン照合付きキャッシュ<br>
+ * キー毎に変更不可の値をメモリに保持する。保持件数は上限までとし、最後に参照された時刻が古いものから破棄する。
+ * 値の変更は照合間隔毎にバージョンを取得して検知し、バージョンが変わった場合のみ値を読み込み直す。
+ * 同一キーの読み込みは1件に限定し、同時に参照された場合もDBアクセスは1回とする。
+ *
+ * @author 東京ITスクール
+ * @param <K> キー
+ * @param <V> 値
+ */
+public class VersionedCache<K, V> {
+
+	/** 保持する値の上限件数 */
+	private final int maxSize;
+	/** バージョンの照合間隔（ミリ秒） */
+	private final long checkMillis;
+	/** バージョン取得処理（存在しない場合null） */
+	private final Function<K, String> versionLoader;
+	/** 値の読み込み処理 */
+	private final BiFunction<K, String, V> valueLoader;
+
+	/** キー毎の保持領域（参照順） */
+	private final Map<K, Holder> holderMap;
+
+	/** 保持している値を使用した件数 */
+	private final LongAdder hitCount = new LongAdder();
+	/** 値を読み込んだ件数 */
+	private final LongAdder loadCount = new LongAdder();
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param maxSize       保持する値の上限件数
+	 * @param checkMillis   バージョンの照合間隔（ミリ秒）
+	 * @param versionLoader バージョン取得処理（存在しない場合nullを返す）
+	 * @param valueLoader   値の読み込み処理（キー、バージョンを受け取る）
+	 */
+	public VersionedCache(int maxSize, long checkMillis, Function<K, String> versionLoader,
+			BiFunction<K, String, V> valueLoader) {
+		this.maxSize = maxSize;
+		this.checkMillis = checkMillis;
+		this.versionLoader = versionLoader;
+		this.valueLoader = valueLoader;
+		this.holderMap = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Holder> eldest) {
+				return size() > VersionedCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * 値を取得する<br>
+	 * 保持していない場合、または照合間隔を過ぎてバージョンが変わっていた場合は読み込む。
+	 *
+	 * @param key
+	 * @return 値（存在しない場合null）
+	 */
+	public V get(K key) {
+		Holder holder;
+		synchronized (holderMap) {
+			holder = holderMap.get(key);
+			if (holder == null) {
+				holder = new Holder();
+				holderMap.put(key, holder);
+			}
+		}
+		return holder.get(key);
+	}
+
+	/**
+	 * 値を破棄する
+	 *
+	 * @param key
+	 */
+	public void invalidate(K key) {
+		synchronized (holderMap) {
+			holderMap.remove(key);
+		}
+	}
+
+	/**
+	 * 全ての値を破棄する
+	 */
+	public void invalidateAll() {
+		synchronized (holderMap) {
+			holderMap.clear();
+		}
+	}
+
+	/**
+	 * 保持している件数を取得
+	 *
+	 * @return 件数
+	 */
+	public int getSize() {
+		synchronized (holderMap) {
+			return holderMap.size();
+		}
+	}
+
+	/**
+	 * 保持している値を使用した件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * 値を読み込んだ件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getLoadCount() {
+		return loadCount.sum();
+	}
+
+	/**
+	 * キー毎の保持領域
+	 */
+	private class Holder {
+
+		/** 読み込みのロック */
+		private final ReentrantLock lock = new ReentrantLock();
+		/** バージョン */
+		private volatile String version;
+		/** 値 */
+		private volatile V value;
+		/** 次回のバージョン照合時刻 */
+		private volatile long nextCheckTime;
+
+		/**
+		 * 値を取得する
+		 *
+		 * @param key
+		 * @return 値
+		 */
+		V get(K key) {
+			V current = value;
+			if (current != null && System.currentTimeMillis() < nextCheckTime) {
+				hitCount.increment();
+				return current;
+			}
+			lock.lock();
+			try {
+				current = value;
+				if (current != null && System.currentTimeMillis() < nextCheckTime) {
+					hitCount.increment();
+					return current;
+				}
+				String latest = versionLoader.apply(key);
+				if (current != null && Objects.equals(version, latest)) {
+					hitCount.increment();
+				} else {
+					current = latest == null ? null : valueLoader.apply(key, latest);
+					if (current != null) {
+						loadCount.increment();
+					}
+					version = latest;
+					value = current;
+				}
+				nextCheckTime = System.currentTimeMillis() + checkMillis;
+				return current;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+	}
+
+}
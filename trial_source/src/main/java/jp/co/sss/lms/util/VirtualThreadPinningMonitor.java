@@ -0,0 +1,186 @@
+package jp.co.sss.lms.util;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * 仮想スレッドの固定（ピン留め）監視<br>
+ * JFRのjdk.VirtualThreadPinnedイベント（synchronized内・ネイティブ呼び出し中の待機）を閾値以上のもののみ受け取り、
+ * 発生箇所（アプリケーションのクラスの最初のフレーム、なければ先頭のフレーム）毎に件数・時間を集計する。
+ * 集計結果は設定された間隔で時間の長い順にログへ出力し、出力後に発生箇所毎の集計をクリアする。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+	/** イベント名 */
+	private static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+	/** アプリケーションのパッケージ */
+	private static final String APP_PACKAGE = "jp.co.sss.lms.";
+	/** 出力する発生箇所の件数 */
+	private static final int REPORT_SIZE = 10;
+
+	/** 監視する場合true */
+	@Value("${setting.thread.pinning.monitor:false}")
+	private boolean enabled;
+	/** 集計するイベントの閾値（ミリ秒） */
+	@Value("${setting.thread.pinning.threshold.millis:20}")
+	private long thresholdMillis;
+	/** 集計結果の出力間隔（分） */
+	@Value("${setting.thread.pinning.report.minutes:10}")
+	private long reportMinutes;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** 発生箇所毎の集計 */
+	private final Map<String, PinningStat> statMap = new ConcurrentHashMap<>();
+	/** 固定された件数 */
+	private final LongAdder pinnedCount = new LongAdder();
+	/** 固定された時間（ナノ秒） */
+	private final LongAdder pinnedNanos = new LongAdder();
+
+	/** JFRのイベントストリーム */
+	private RecordingStream recordingStream;
+	/** 前回出力した日時（ミリ秒） */
+	private volatile long lastReportTime;
+
+	/**
+	 * 監視の開始
+	 */
+	@PostConstruct
+	public void init() {
+		if (!enabled) {
+			return;
+		}
+		lastReportTime = System.currentTimeMillis();
+		recordingStream = new RecordingStream();
+		recordingStream.enable(EVENT_NAME).withThreshold(Duration.ofMillis(thresholdMillis))
+				.withStackTrace();
+		recordingStream.onEvent(EVENT_NAME, this::record);
+		recordingStream.onFlush(this::reportIfDue);
+		recordingStream.startAsync();
+		logger.info("仮想スレッドの固定の監視を開始しました。閾値=" + thresholdMillis + "ms");
+	}
+
+	/**
+	 * 監視の終了
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (recordingStream != null) {
+			recordingStream.close();
+		}
+	}
+
+	/**
+	 * 固定された件数を取得
+	 *
+	 * @return 件数
+	 */
+	public long getPinnedCount() {
+		return pinnedCount.sum();
+	}
+
+	/**
+	 * 固定された時間を取得
+	 *
+	 * @return 時間（ミリ秒）
+	 */
+	public long getPinnedMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(pinnedNanos.sum());
+	}
+
+	/**
+	 * イベントを集計する
+	 *
+	 * @param event
+	 */
+	private void record(RecordedEvent event) {
+		long nanos = event.getDuration().toNanos();
+		pinnedCount.increment();
+		pinnedNanos.add(nanos);
+		PinningStat stat = statMap.computeIfAbsent(getLocation(event.getStackTrace()),
+				k -> new PinningStat());
+		stat.count.increment();
+		stat.nanos.add(nanos);
+	}
+
+	/**
+	 * 発生箇所を取得
+	 *
+	 * @param stackTrace
+	 * @return 発生箇所（クラス名.メソッド名:行番号）
+	 */
+	private String getLocation(RecordedStackTrace stackTrace) {
+		if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+			return "unknown";
+		}
+		List<RecordedFrame> frames = stackTrace.getFrames();
+		RecordedFrame location = frames.get(0);
+		for (RecordedFrame frame : frames) {
+			if (frame.isJavaFrame()
+					&& frame.getMethod().getType().getName().startsWith(APP_PACKAGE)) {
+				location = frame;
+				break;
+			}
+		}
+		return location.getMethod().getType().getName() + "." + location.getMethod().getName()
+				+ ":" + location.getLineNumber();
+	}
+
+	/**
+	 * 出力間隔を過ぎていれば集計結果を出力する
+	 */
+	private void reportIfDue() {
+		long now = System.currentTimeMillis();
+		if (now - lastReportTime < TimeUnit.MINUTES.toMillis(reportMinutes)) {
+			return;
+		}
+		lastReportTime = now;
+		if (statMap.isEmpty()) {
+			return;
+		}
+		StringBuilder sb = new StringBuilder("仮想スレッドの固定（過去" + reportMinutes + "分）");
+		statMap.entrySet().stream()
+				.sorted(Comparator.comparingLong(
+						(Map.Entry<String, PinningStat> e) -> e.getValue().nanos.sum()).reversed())
+				.limit(REPORT_SIZE)
+				.forEach(e -> sb.append("\n[pinned]").append(e.getKey())
+						.append(" count=").append(e.getValue().count.sum())
+						.append(" totalMs=")
+						.append(TimeUnit.NANOSECONDS.toMillis(e.getValue().nanos.sum())));
+		statMap.clear();
+		logger.warn(sb.toString());
+	}
+
+	/**
+	 * 発生箇所毎の集計
+	 */
+	private static final class PinningStat {
+
+		/** 件数 */
+		private final LongAdder count = new LongAdder();
+		/** 時間（ナノ秒） */
+		private final LongAdder nanos = new LongAdder();
+
+	}
+
+}
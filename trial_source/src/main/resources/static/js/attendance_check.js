@@ -12,4 +12,21 @@ document.querySelector('input[name="complete"]').addEventListener('click', funct
 		e.preventDefault(); 
 		return;
 	}
-});
\ No newline at end of file
+});
+
+/**
+ * プルダウンの選択肢を展開
+ * 各行のプルダウンには選択中の値のみ出力しているため、初回操作時に共通の選択肢を複製する。
+ */
+function fillPulldown(e) {
+	const select = e.target;
+	if (!(select instanceof HTMLSelectElement) || !select.dataset.options || select.dataset.filled) {
+		return;
+	}
+	const value = select.value;
+	select.innerHTML = document.getElementById(select.dataset.options).innerHTML;
+	select.value = value;
+	select.dataset.filled = 'true';
+}
+document.addEventListener('mousedown', fillPulldown);
+document.addEventListener('focusin', fillPulldown);
@@ -0,0 +1,81 @@
+package jp.co.sss.lms.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import jp.co.sss.lms.entity.TInfo;
+import jp.co.sss.lms.mapper.TInfoMapper;
+import jp.co.sss.lms.service.InfoService;
+
+/**
+ * お知らせコントローラー試験
+ *
+ */
+public class InfoControllerTest {
+
+	@Mock
+	private TInfoMapper tInfoMapper;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		InfoService infoService = new InfoService();
+		ReflectionTestUtils.setField(infoService, "tInfoMapper", tInfoMapper);
+		ReflectionTestUtils.setField(infoService, "checkSeconds", 0);
+		infoService.init();
+		InfoController infoController = new InfoController();
+		ReflectionTestUtils.setField(infoController, "infoService", infoService);
+		mockMvc = MockMvcBuilders.standaloneSetup(infoController).build();
+
+		TInfo tInfo = new TInfo();
+		tInfo.setInfoId(1);
+		tInfo.setContent("お知らせ");
+		tInfo.setLastModifiedDate(new Date(1700000000000L));
+		when(tInfoMapper.getInfoVersion()).thenReturn("v1");
+		when(tInfoMapper.findBySingleResult()).thenReturn(tInfo);
+	}
+
+	/**
+	 * Case.1_1 お知らせコントローラー試験 お知らせ情報取得_条件付きGET<br>
+	 * <br>
+	 * ■対象メソッド：index()<br>
+	 * ■試験パラメータ：If-None-Match（初回取得時のETag）<br>
+	 * ■試験観点：<br>
+	 * 　・初回はETag・Last-Modified付きで200が返ること<br>
+	 * 　・ETagが一致する場合は304が返り、お知らせを再取得しないこと<br>
+	 * 　・セッションを作成しないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		MvcResult first = mockMvc.perform(get("/info"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn();
+		assertTrue(first.getResponse().getContentAsString().contains("1700000000000"));
+		assertNull(first.getRequest().getSession(false));
+
+		String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/info").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+		verify(tInfoMapper, times(1)).findBySingleResult();
+	}
+
+}
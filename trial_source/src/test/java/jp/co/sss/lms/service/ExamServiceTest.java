@@ -0,0 +1,184 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.MQuestion;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.entity.TExamResultDetail;
+import jp.co.sss.lms.form.ExamQuestionForm;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.MQuestionMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.ExamDefinitionUtil;
+import jp.co.sss.lms.util.ExamStatUtil;
+
+/**
+ * 試験情報サービス試験
+ *
+ */
+public class ExamServiceTest {
+
+	@Mock
+	private TExamResultMapper tExamResultMapper;
+	@Mock
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Mock
+	private MExamMapper mExamMapper;
+	@Mock
+	private MQuestionMapper mQuestionMapper;
+	@Mock
+	private ExamStatUtil examStatUtil;
+
+	@InjectMocks
+	private ExamService examService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setLmsUserId(10);
+		loginUserDto.setAccountId(1);
+		ReflectionTestUtils.setField(examService, "loginUserDto", loginUserDto);
+		ExamDefinitionUtil examDefinitionUtil = new ExamDefinitionUtil();
+		ReflectionTestUtils.setField(examDefinitionUtil, "mExamMapper", mExamMapper);
+		ReflectionTestUtils.setField(examDefinitionUtil, "mQuestionMapper", mQuestionMapper);
+		ReflectionTestUtils.setField(examDefinitionUtil, "maxSize", 10);
+		ReflectionTestUtils.setField(examDefinitionUtil, "checkSeconds", 60);
+		examDefinitionUtil.init();
+		ReflectionTestUtils.setField(examService, "examDefinitionUtil", examDefinitionUtil);
+	}
+
+	/**
+	 * Case.1_1 試験情報サービス試験 試験結果登録_一括登録<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■試験パラメータ：問題3件（正解番号はキャッシュ範囲外の値）、回答2件<br>
+	 * ■試験観点：<br>
+	 * 　・回答と正解番号が値で比較されること<br>
+	 * 　・試験件数を取得せず、採点対象の判定付きで試験結果が登録されること<br>
+	 * 　・採点対象の試験結果が試験統計へ加算されること<br>
+	 * 　・試験結果詳細が1回で一括登録され、未回答の問題は0となること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		List<MQuestion> mQuestionList = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			MQuestion mQuestion = new MQuestion();
+			mQuestion.setQuestionId(100 + i);
+			mQuestion.setAnswerNum(Short.valueOf((short) 1000));
+			mQuestionList.add(mQuestion);
+		}
+		ExamQuestionDto examQuestionDto = new ExamQuestionDto();
+		examQuestionDto.setExamId(5);
+		examQuestionDto.setQuestionDtoList(new ArrayList<>());
+		when(mExamMapper.getExamVersion(5)).thenReturn("v1");
+		when(mExamMapper.getExamQuestion(5, Constants.DB_FLG_FALSE)).thenReturn(examQuestionDto);
+		when(mQuestionMapper.findByExamId(5, Constants.DB_FLG_FALSE)).thenReturn(mQuestionList);
+		doAnswer(invocation -> {
+			TExamResult tExamResult = invocation.getArgument(0);
+			tExamResult.setExamResultId(99);
+			tExamResult.setMarkFlg(Constants.DB_FLG_TRUE);
+			return true;
+		}).when(tExamResultMapper).insertWithMarkFlg(any(TExamResult.class));
+
+		ExamQuestionForm examQuestionForm = new ExamQuestionForm();
+		examQuestionForm.setExamId(5);
+		examQuestionForm.setExamSectionId(7);
+		examQuestionForm.setTime(30);
+		examQuestionForm.setAnswer(new Short[] { Short.valueOf((short) 1000), Short.valueOf((short) 2) });
+
+		assertEquals(99, examService.insert(examQuestionForm));
+
+		ArgumentCaptor<TExamResult> resultCaptor = ArgumentCaptor.forClass(TExamResult.class);
+		verify(tExamResultMapper).lockExamResult(7, 10);
+		verify(tExamResultMapper).insertWithMarkFlg(resultCaptor.capture());
+		verify(tExamResultMapper, never()).getExamCount(anyInt(), anyInt(), anyShort());
+		assertEquals((short) 1, resultCaptor.getValue().getScore());
+		verify(examStatUtil).add(7, 99, 1);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TExamResultDetail>> detailCaptor = ArgumentCaptor.forClass(List.class);
+		verify(tExamResultDetailMapper, times(1)).insertBatch(detailCaptor.capture());
+		verify(tExamResultDetailMapper, never()).insert(any(TExamResultDetail.class));
+		List<TExamResultDetail> detailList = detailCaptor.getValue();
+		assertEquals(3, detailList.size());
+		assertEquals(99, detailList.get(2).getExamResultId());
+		assertEquals(102, detailList.get(2).getQuestionId());
+		assertEquals((short) 0, detailList.get(2).getReply());
+	}
+
+	/**
+	 * Case.1_2 試験情報サービス試験 試験結果登録_未回答の問題<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■試験パラメータ：問題3件、回答3件（2件目は未回答=null）<br>
+	 * ■試験観点：<br>
+	 * 　・未回答の問題があっても例外とならず登録されること<br>
+	 * 　・未回答の問題は不正解として採点され、回答はnullのまま登録されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() {
+		List<MQuestion> mQuestionList = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			MQuestion mQuestion = new MQuestion();
+			mQuestion.setQuestionId(100 + i);
+			mQuestion.setAnswerNum(Short.valueOf((short) 1));
+			mQuestionList.add(mQuestion);
+		}
+		ExamQuestionDto examQuestionDto = new ExamQuestionDto();
+		examQuestionDto.setExamId(5);
+		examQuestionDto.setQuestionDtoList(new ArrayList<>());
+		when(mExamMapper.getExamVersion(5)).thenReturn("v1");
+		when(mExamMapper.getExamQuestion(5, Constants.DB_FLG_FALSE)).thenReturn(examQuestionDto);
+		when(mQuestionMapper.findByExamId(5, Constants.DB_FLG_FALSE)).thenReturn(mQuestionList);
+		doAnswer(invocation -> {
+			TExamResult tExamResult = invocation.getArgument(0);
+			tExamResult.setExamResultId(99);
+			tExamResult.setMarkFlg(Constants.DB_FLG_TRUE);
+			return true;
+		}).when(tExamResultMapper).insertWithMarkFlg(any(TExamResult.class));
+
+		ExamQuestionForm examQuestionForm = new ExamQuestionForm();
+		examQuestionForm.setExamId(5);
+		examQuestionForm.setExamSectionId(7);
+		examQuestionForm.setTime(30);
+		examQuestionForm.setAnswer(new Short[] { Short.valueOf((short) 1), null,
+				Short.valueOf((short) 1) });
+
+		assertEquals(99, examService.insert(examQuestionForm));
+
+		ArgumentCaptor<TExamResult> resultCaptor = ArgumentCaptor.forClass(TExamResult.class);
+		verify(tExamResultMapper).insertWithMarkFlg(resultCaptor.capture());
+		assertEquals((short) 2, resultCaptor.getValue().getScore());
+		verify(examStatUtil).add(7, 99, 2);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TExamResultDetail>> detailCaptor = ArgumentCaptor.forClass(List.class);
+		verify(tExamResultDetailMapper).insertBatch(detailCaptor.capture());
+		List<TExamResultDetail> detailList = detailCaptor.getValue();
+		assertEquals(3, detailList.size());
+		assertEquals((short) 1, detailList.get(0).getReply());
+		assertNull(detailList.get(1).getReply());
+		assertEquals((short) 1, detailList.get(2).getReply());
+	}
+
+}
@@ -5,8 +5,8 @@ import static org.mockito.Mockito.*;
 
 import java.lang.reflect.Method;
 import java.text.ParseException;
-import java.util.Calendar;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,7 +24,7 @@ import jp.co.sss.lms.entity.LoginUser;
 import jp.co.sss.lms.mapper.LoginMapper;
 import jp.co.sss.lms.mapper.MUserMapper;
 import jp.co.sss.lms.util.Constants;
-import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.LoginLockUtil;
 import jp.co.sss.lms.util.MessageUtil;
 import jp.co.sss.lms.util.PasswordUtil;
 
@@ -41,8 +41,6 @@ public class LoginServiceTest {
 	private LoginUserDto loginUserDto;
 	@Autowired
 	private MessageUtil messageUtil;
-	@Autowired
-	private DateUtil dateUtil;
 
 	@Mock
 	private HttpSession session;
@@ -52,6 +50,8 @@ public class LoginServiceTest {
 	private PasswordUtil passwordUtil;
 	@Mock
 	private LoginMapper loginMapper;
+	@Mock
+	private LoginLockUtil loginLockUtil;
 	
 	@InjectMocks
 	private LoginService loginService;
@@ -61,12 +61,8 @@ public class LoginServiceTest {
         MockitoAnnotations.openMocks(this);
     	// テスト対象クラスのフィールドは以下の記述で任意に設定することが出来る 
     	// ReflectionTestUtils.setField(第1引数：試験対象のクラス 第2引数：セットしたいフィールド名 第3引数：セットする値)
-		ReflectionTestUtils.setField(loginService, "lockCount", 3); 
-		ReflectionTestUtils.setField(loginService, "lockMinute", 1); 
-		
 		// 既に完成されているクラスに対しても、@BeforEachで設定することで、各テストメソッドで呼び出す処理を省略出来る。
 		ReflectionTestUtils.setField(loginService, "messageUtil", messageUtil);
-		ReflectionTestUtils.setField(loginService, "dateUtil", dateUtil);
     }
 
     @AfterEach
@@ -81,15 +77,13 @@ public class LoginServiceTest {
 	 * ■試験パラメータ： 
 	 * 　・ログインID：任意<br>
 	 *　　・パスワード：任意<br>
-	 * 　・ログインユーザーDTO.パスワードロック回数:1<br>
-	 * 　・ログインユーザーDTO.パスワードロック時刻:null<br>
+	 * 　・ログインロック：ロックされていない<br>
 	 * 　・ログインユーザーエンティティ.権限：受講生
 	 * 　・ログインユーザーエンティティ.非表示フラグ：true
 	 * ■試験観点：<br>
 	 *  ・正常終了すること<br>
 	 *  ・メッセージ出力：「(空文字)」であること<br>
-	 *  ・ログインユーザーDTO.パスワードロック時刻:"(空文字)"であること<br>
-	 * 　・ログインユーザーDTO.パスワードNGカウント：0であること<br>
+	 * 　・ログインIDのパスワードNG回数がリセットされること<br>
 	 * 
 	 * */
 	@Test
@@ -99,9 +93,7 @@ public class LoginServiceTest {
 		String loginId = "loginId";
 		String password = "password"; 
 		
-		// ログインユーザーDTO（セッション）に必要な値を対象メソッドのフィールドに格納
-		loginUserDto.setPasswordNgCount(1);
-		loginUserDto.setPasswordNgDate(null);
+		// ログインユーザーDTO（セッション）を対象メソッドのフィールドに格納
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto); 
 
 		// モックの戻り値となるテストデータを取得
@@ -110,6 +102,8 @@ public class LoginServiceTest {
 		loginUser.setHiddenFlg(Constants.DB_HIDDEN_FLG_FALSE);
 		
 		// モック対象メソッドの返却値を設定
+		when(mUserMapper.getPasswordByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn("bbb"); // 登録済みハッシュ値取得のモック
 		when(passwordUtil.getSaltedAndStrechedPassword
 				(password, loginId)).thenReturn("aaa"); //　パスワードソルト処理のモック
 		when(loginMapper.getLoginDetailByLoginIdAndPassword
@@ -117,16 +111,14 @@ public class LoginServiceTest {
 		
 		// 期待値の設定
 		String expected_message = "";
-		String expected_NgDate = "";
-		Integer expected_NgCount = 0;
 
 		//　試験実行
 		String actual_message = loginService.getLoginInfo(loginId, password);
 		
 		// 検証処理
 		assertEquals(expected_message, actual_message);
-		assertEquals(expected_NgDate, loginUserDto.getPasswordNgDate());
-		assertEquals(expected_NgCount, loginUserDto.getPasswordNgCount());
+		verify(loginLockUtil, times(1)).reset(loginId);
+		verify(loginLockUtil, never()).addFailure(loginId);
 	}
 	
     /**
@@ -136,13 +128,13 @@ public class LoginServiceTest {
 	 * ■試験パラメータ：
 	 * 　・ログインID：任意<br>
 	 *　　・パスワード：任意<br>
-	 * 　・ログインユーザーDTO.パスワードロック回数:1<br>
-	 * 　・ログインユーザーDTO.パスワードロック時刻:現在時刻-2分<br>
+	 * 　・ログインロック：ロック期間経過済み（ロックされていない）<br>
+	 * 　・登録済みのハッシュ値と一致<br>
 	 * ■試験観点：<br>
 	 *  ・正常終了すること<br>
 	 *  ・メッセージ出力：「(空文字)」であること<br>
-	 *  ・ログインユーザーDTO.パスワードロック時刻:"(空文字)"であること<br>
-	 * 　・ログインユーザーDTO.パスワードNGカウント：0であること<br>
+	 * 　・登録済みのハッシュ値で検索し、再ハッシュ化しないこと<br>
+	 * 　・ログインIDのパスワードNG回数がリセットされること<br>
      * @throws ParseException <br>
 	 * 
 	 * */
@@ -154,16 +146,7 @@ public class LoginServiceTest {
 		String password = "password"; 
 				
 		// checkLockTime()がtrueとなるパラメータ設定
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(new Date());
-		calendar.add(Calendar.MINUTE, -2);
-		Date date = dateUtil.calenderToTimestamp(calendar);
-		String ngDate = dateUtil.dateToString(date);
-		
-		// ログインユーザーDTO（セッション）に必要な値を対象メソッドのフィールドに格納
-		loginUserDto.setPasswordNgCount(1);
-		loginUserDto.setPasswordNgDate(ngDate);
-		
+		when(loginLockUtil.isLocked(loginId)).thenReturn(false);
 		
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto); 
 
@@ -173,23 +156,22 @@ public class LoginServiceTest {
 		loginUser.setHiddenFlg(Constants.DB_HIDDEN_FLG_FALSE);
 		
 		// モック対象メソッドの返却値を設定
-		when(passwordUtil.getSaltedAndStrechedPassword
-				(password, loginId)).thenReturn("aaa"); //　パスワードソルト処理のモック
+		when(mUserMapper.getPasswordByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn("aaa"); // 登録済みハッシュ値取得のモック
+		when(passwordUtil.matches(password, loginId, "aaa")).thenReturn(true); // ハッシュ値照合のモック
 		when(loginMapper.getLoginDetailByLoginIdAndPassword
 				(loginId, "aaa", Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
 		
 		// 期待値の設定
 		String expected_message = "";
-		String expected_NgDate = "";
-		Integer expected_NgCount = 0;
 
 		//　試験実行
 		String actual_message = loginService.getLoginInfo(loginId, password);
 		
 		// 検証処理
 		assertEquals(expected_message, actual_message);
-		assertEquals(expected_NgDate, loginUserDto.getPasswordNgDate());
-		assertEquals(expected_NgCount, loginUserDto.getPasswordNgCount());
+		verify(passwordUtil, never()).getSaltedAndStrechedPassword(password, loginId);
+		verify(loginLockUtil, times(1)).reset(loginId);
 	}
     
     /**
@@ -199,10 +181,11 @@ public class LoginServiceTest {
 	 * ■試験パラメータ：
 	 * 　・ログインID：任意<br>
 	 *　　・パスワード：任意<br>	
-	 *  ・ロック日時：現在時刻-30秒<br>
+	 *  ・ログインロック：ロック中<br>
 	 * ■試験観点：<br>
 	 * 　・正常終了すること<br>
 	 * 　・メッセージ出力：「規定の回数を超えたため、アカウントにロックがかかりました。しばらくたってから再度お試しください。」であること。<br>
+	 * 　・ハッシュ化・DBアクセスを行わないこと<br>
 	 * 
 	 * */
 	@Test
@@ -213,14 +196,7 @@ public class LoginServiceTest {
 		String password = "password"; 
 		
 		// checkLockTime()がfalseとなるパラメータ設定
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(new Date());
-		calendar.add(Calendar.SECOND, -30);
-		Date date = dateUtil.calenderToTimestamp(calendar);
-		String ngDate = dateUtil.dateToString(date);
-		
-		// ログインユーザーDTO（セッション）に必要な値を対象メソッドのフィールドに格納
-		loginUserDto.setPasswordNgDate(ngDate); 
+		when(loginLockUtil.isLocked(loginId)).thenReturn(true);
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);	
 	
 		// 期待値の設定
@@ -231,6 +207,8 @@ public class LoginServiceTest {
 		
 		//　検証処理
 		assertEquals(expected, actual);
+		verifyNoInteractions(passwordUtil, mUserMapper, loginMapper);
+		verify(loginLockUtil, never()).addFailure(loginId);
 	}
 	
     /**
@@ -240,12 +218,12 @@ public class LoginServiceTest {
 	 * ■試験パラメータ：
 	 * 　・ログインID：任意<br>
 	 *　　・パスワード：任意<br>	
-	 *  ・ログインユーザーDTO.パスワードNGカウント:3<br>
+	 *  ・ログインロック：今回のNGで規定の回数に達する<br>
+	 *  ・登録済みのログインID<br>
 	 * ■試験観点：<br>
 	 * 　　・正常終了すること<br>
 	 * 　　・メッセージが出力：「規定の回数を超えたため、アカウントにロックがかかりました。しばらくたってから再度お試しください。」であること<br>
-	 * 　　・ログインユーザーDTO.パスワードNGカウント： 4　になること<br>
-	 *　　　・ログインユーザーDTO.パスワードNG日時：Nullでないこと(現在時刻が厳密に計測出来ない為)<br>
+	 * 　　・ログインIDのパスワードNG回数が加算されること<br>
 	 * 
 	 * */
 	@Test
@@ -256,20 +234,21 @@ public class LoginServiceTest {
 		String password = "loginFailedPassword";
 		
 		// 設定したDtoを試験対象クラスのフィールドに設定する
-		loginUserDto.setPasswordNgCount(3);
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);
+		when(mUserMapper.getPasswordByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn("aaa"); // 登録済みハッシュ値取得のモック
+		when(loginLockUtil.addFailure(loginId)).thenReturn(true);
 		
 		// 期待値の設定
 		String expected = messageUtil.getMessage(Constants.VALID_KEY_LOGIN_LOCK);
-		Integer expectedNgCount = 4;
 		
 		// 試験実行
 		String actual = loginService.getLoginInfo(loginId, password);
 		
 		//　検証処理
 		assertEquals(expected, actual);
-		assertEquals(expectedNgCount, loginUserDto.getPasswordNgCount());
-		assertNotNull(loginUserDto.getPasswordNgDate());
+		verify(loginLockUtil, times(1)).addFailure(loginId);
+		verify(loginLockUtil, never()).reset(loginId);
 	}
 	
     /**
@@ -279,10 +258,11 @@ public class LoginServiceTest {
 	 * ■試験パラメータ：
 	 *  ・ログインID:任意<br>
 	 *　 ・パスワード：任意<br>
+	 *  ・登録済みのログインID<br>
 	 * ■試験観点：<br>
 	 * 　　・正常終了すること<br>
 	 * 　　・メッセージ出力：「ログインに失敗しました。」であること<br>
-	 * 　　・ログインユーザーDTO.パスワードNGカウント：1であること<br>
+	 * 　　・ログインIDのパスワードNG回数が加算されること<br>
 	 * 
 	　* */
 	@Test
@@ -290,7 +270,6 @@ public class LoginServiceTest {
         
  		// 期待値の設定
 		String expected_message = messageUtil.getMessage(Constants.VALID_KEY_LOGIN);
-		Integer expectedNgCount = 1;
 		
 		// メソッド実行に必要な引数のパラメータ設定
 		String loginId = "LoginFailedId";
@@ -298,13 +277,15 @@ public class LoginServiceTest {
 		
 		// Dtoを試験対象クラスのフィールドに設定する
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);
+		when(mUserMapper.getPasswordByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn("aaa"); // 登録済みハッシュ値取得のモック
 		
 		// 試験実行
 		String actual = loginService.getLoginInfo(loginId, password);
 		
 		//　検証処理
 		assertEquals(expected_message, actual);
-		assertEquals(expectedNgCount, loginUserDto.getPasswordNgCount());
+		verify(loginLockUtil, times(1)).addFailure(loginId);
 	}
 	
     /**
@@ -337,14 +318,14 @@ public class LoginServiceTest {
 		loginUser.setHiddenFlg(Constants.DB_HIDDEN_FLG_FALSE);
 		
 		// モック対象メソッドの返却値を設定
+		when(mUserMapper.getPasswordByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn("bbb"); // 登録済みハッシュ値取得のモック
 		when(passwordUtil.getSaltedAndStrechedPassword
 				(password, loginId)).thenReturn("aaa"); //　パスワードソルト処理のモック
 		when(loginMapper.getLoginDetailByLoginIdAndPassword
 				(loginId, "aaa", Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
 		
 		// Dtoを試験対象クラスのフィールドに設定する
-		loginUserDto.setPasswordNgCount(1);
-		loginUserDto.setPasswordNgDate(null);
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto); 
 		
 		// 試験実行
@@ -354,7 +335,7 @@ public class LoginServiceTest {
 		assertEquals(expected, actual);
 	}
 	
-    /**
+       /**
 	 * Case.1_7 ログインサービス試験　ログイン処理_担当会場終了<br>
 	 * <br>
 	 * ■対象メソッド：getLoginInfo()<br>
@@ -384,6 +365,8 @@ public class LoginServiceTest {
 		loginUser.setHiddenFlg(Constants.DB_HIDDEN_FLG_TRUE);
 		
 		// モック対象メソッドの返却値を設定
+		when(mUserMapper.getPasswordByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn("bbb"); // 登録済みハッシュ値取得のモック
 		when(passwordUtil.getSaltedAndStrechedPassword
 				(password, loginId)).thenReturn("aaa"); //　パスワードソルト処理のモック
 		when(loginMapper.getLoginDetailByLoginIdAndPassword
@@ -391,8 +374,6 @@ public class LoginServiceTest {
 		
 		
 		// Dtoを試験対象クラスのフィールドに設定する
-		loginUserDto.setPasswordNgCount(1);
-		loginUserDto.setPasswordNgDate(null);
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto); 
 		
 		// 試験実行
@@ -411,16 +392,15 @@ public class LoginServiceTest {
 	 *　・(モック)ログインユーザーエンティティ.ユーザーID：1<br>
 	 * ■試験観点：<br>
 	 * 　・正常終了すること<br>
-	 * 　・ログインユーザーDTO.パスワードNGカウント：0であること<br>
-	 * 　・ログインユーザーDTO.パスワードNG日付：""であること<br>
+	 * 　・ログインIDを返却すること<br>
+	 * 　・ログインIDのパスワードNG回数がリセットされること<br>
 	 * 
 	 * */
 	@Test
 	public void testCase1_8() throws Exception{
 		
 		// 期待値の設定
-		String expected_NgDate = "";
-		Integer expected_NgCount = 0;
+		String expected = "loginId";
 		
 		//試験パラメータ設定
 		Integer userId = 1;
@@ -432,15 +412,17 @@ public class LoginServiceTest {
 		// モック対象メソッドの返却値を設定
 		when(loginMapper.getLoginDetailByUserId
 				(userId, Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		when(mUserMapper.getLoginId
+				(userId, Constants.DB_FLG_FALSE)).thenReturn(expected); // ログインID取得処理のモック
 		
 		// Dtoを試験対象クラスのフィールドに設定する
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);
 		// 試験実行
-		loginService.getLoginId(userId);
+		String actual = loginService.getLoginId(userId);
 		
 		// 検証処理
-		assertEquals(expected_NgDate, loginUserDto.getPasswordNgDate());
-		assertEquals(expected_NgCount, loginUserDto.getPasswordNgCount());
+		assertEquals(expected, actual);
+		verify(loginLockUtil, times(1)).reset(expected);
 	}
 	
     /**
@@ -471,11 +453,70 @@ public class LoginServiceTest {
 		assertEquals(expected, actual);
 	}
 
+    /**
+	 * Case.1_10 ログインサービス試験　ログイン処理_未登録のログインID<br>
+	 * <br>
+	 * ■対象メソッド：getLoginInfo()<br>
+	 * ■試験パラメータ：
+	 *  ・ログインID:未登録、登録済み<br>
+	 *　 ・パスワード：誤り<br>
+	 *  ・ログインロック：メモリ（ロックするNG回数=3）<br>
+	 * ■試験観点：<br>
+	 * 　　・未登録のログインIDも登録済みのログインIDと同じく3回目のNGでロックされること<br>
+	 * 　　・メッセージ出力が未登録・登録済みで同じであること<br>
+	 * 　　・未登録のログインIDはログイン情報を取得しないこと<br>
+	 * 
+	 * */
+	@Test
+	public void testCase1_10(){
+		
+		// 期待値の設定
+		String loginMessage = messageUtil.getMessage(Constants.VALID_KEY_LOGIN);
+		String lockMessage = messageUtil.getMessage(Constants.VALID_KEY_LOGIN_LOCK);
+		List<String> expected = List.of(loginMessage, loginMessage, lockMessage, lockMessage);
+		
+		// メソッド実行に必要な引数のパラメータ設定
+		String unknownId = "unknownId";
+		String loginId = "loginId";
+		String password = "password";
+		
+		// ログインロックはメモリの保持方式を使用する
+		LoginLockUtil memoryLockUtil = new LoginLockUtil();
+		ReflectionTestUtils.setField(memoryLockUtil, "lockStoreName", LoginLockUtil.LOCK_STORE_MEMORY);
+		ReflectionTestUtils.setField(memoryLockUtil, "lockCount", 3);
+		ReflectionTestUtils.setField(memoryLockUtil, "lockMinute", 1);
+		ReflectionTestUtils.setField(memoryLockUtil, "resetMinutes", 30);
+		ReflectionTestUtils.setField(memoryLockUtil, "maxSize", 100);
+		memoryLockUtil.init();
+		ReflectionTestUtils.setField(loginService, "loginLockUtil", memoryLockUtil);
+		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);
+		when(mUserMapper.getPasswordByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn("aaa"); // 登録済みハッシュ値取得のモック
+		
+		// 試験実行
+		List<String> unknownActual = new ArrayList<>();
+		List<String> registeredActual = new ArrayList<>();
+		try {
+			for (int i = 0; i < 4; i++) {
+				unknownActual.add(loginService.getLoginInfo(unknownId, password));
+				registeredActual.add(loginService.getLoginInfo(loginId, password));
+			}
+		} finally {
+			memoryLockUtil.destroy();
+		}
+		
+		//　検証処理
+		assertEquals(expected, unknownActual);
+		assertEquals(expected, registeredActual);
+		verify(passwordUtil, times(3)).equalizeCost(password, null);
+		verify(loginMapper, never()).getLoginDetailByLoginIdAndPassword(eq(unknownId), any(), any());
+	}
+
     /**
 	 * Case.xx ログインサービス試験　アカウントNG回数チェック(リフレクションを用いたサンプル)<br>
 	 * <br>
 	 * 対象メソッド：checkLockCount() ※privateメソッド<br>
-	 * 試験パラメータ：ログインユーザDto.パスワードNG回数　= 0<br>
+	 * 試験パラメータ：ログインID（今回のNGで規定の回数に達しない）<br>
 	 * 試験観点：<br>
 	 * 　・正常終了<br>
 	 * 　・戻り値がtrueであること<br>
@@ -491,15 +532,13 @@ public class LoginServiceTest {
 	public void testCase4_1() throws Exception {
 		
 		//試験パラメータ設定
-		loginUserDto.setPasswordNgCount(0);
-		
-		// サービス内のloginUserDtoフィールドに値を設定する
-		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);
+		String loginId = "loginId";
+		when(loginLockUtil.addFailure(loginId)).thenReturn(false);
 		
 		// privateメソッドはリフレクションを使用することでアクセス出来る。引数がある場合、引数分の型のクラスを指定する
-		Method method = LoginService.class.getDeclaredMethod("checkLockCount"); // 対象のprivateメソッドを指定
+		Method method = LoginService.class.getDeclaredMethod("checkLockCount", String.class); // 対象のprivateメソッドを指定
 		method.setAccessible(true); // privateメソッドへのアクセスを許可
-		boolean actual = (boolean)method.invoke(loginService); // 該当メソッドを実行
+		boolean actual = (boolean)method.invoke(loginService, loginId); // 該当メソッドを実行
         
 		// 検証処理
 		assertTrue(actual);
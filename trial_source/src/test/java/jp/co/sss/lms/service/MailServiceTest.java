@@ -0,0 +1,322 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.entity.TMailQue;
+import jp.co.sss.lms.mapper.TMailQueMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.MailUtil;
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * メール情報サービス試験<br>
+ * SMTPサーバーはテスト内で起動する簡易サーバーを使用する。
+ *
+ */
+public class MailServiceTest {
+
+	@Mock
+	private TMailQueMapper tMailQueMapper;
+	@Mock
+	private MessageUtil messageUtil;
+
+	@InjectMocks
+	private MailService mailService;
+
+	private SmtpServer smtpServer;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		MockitoAnnotations.openMocks(this);
+		when(messageUtil.getMessage("setting.mail.sender.address")).thenReturn("lms@example.com");
+		when(messageUtil.getMessage("setting.mail.send.wait")).thenReturn("5");
+		when(messageUtil.getMessage("setting.mail.fail.notification.period")).thenReturn("60");
+		when(messageUtil.getMessage("setting.mail.fail.max")).thenReturn("72");
+		when(messageUtil.getMessage("setting.mail.que.since")).thenReturn("2026/10/01 00:00:00");
+		when(messageUtil.getMessage("setting.tismail")).thenReturn("admin@example.com");
+
+		smtpServer = new SmtpServer();
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(smtpServer.getPort());
+		MailUtil mailUtil = new MailUtil();
+		ReflectionTestUtils.setField(mailUtil, "mailSender", mailSender);
+		ReflectionTestUtils.setField(mailUtil, "messageUtil", messageUtil);
+		ReflectionTestUtils.setField(mailService, "mailUtil", mailUtil);
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		smtpServer.close();
+	}
+
+	/**
+	 * Case.1_1 メール情報サービス試験 メール送信キューの送信_正常終了<br>
+	 * <br>
+	 * ■対象メソッド：sendMailQue()<br>
+	 * ■試験パラメータ：未送信のキュー3件<br>
+	 * ■試験観点：<br>
+	 * 　・1回の接続で全件送信されること<br>
+	 * 　・送信したキューが論理削除されること<br>
+	 * 　・送信中の期限を設定してキューを確保すること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		List<TMailQue> tMailQueList = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			tMailQueList.add(createMailQue(i, "user" + i + "@example.com"));
+		}
+		when(tMailQueMapper.claimUnsent(eq(MailService.MAIL_QUE_BATCH_SIZE), any(Date.class),
+				eq(72), anyLong(), eq(Constants.DB_FLG_FALSE))).thenReturn(tMailQueList);
+
+		assertEquals(3, mailService.sendMailQue());
+
+		assertEquals(1, smtpServer.getConnectionCount());
+		assertEquals(List.of("user1@example.com", "user2@example.com", "user3@example.com"),
+				smtpServer.getRecipients());
+		verify(tMailQueMapper, times(3)).updateSent(any(TMailQue.class));
+		for (TMailQue tMailQue : tMailQueList) {
+			assertEquals(Constants.DB_FLG_TRUE, tMailQue.getDeleteFlg());
+		}
+		assertEquals(3, mailService.getSentCount());
+		verify(tMailQueMapper).claimUnsent(eq(MailService.MAIL_QUE_BATCH_SIZE), any(Date.class),
+				eq(72), longThat(leaseSeconds -> leaseSeconds > 0), eq(Constants.DB_FLG_FALSE));
+		verify(tMailQueMapper, never()).updateFailed(any(TMailQue.class), anyLong());
+	}
+
+	/**
+	 * Case.1_2 メール情報サービス試験 メール送信キューの送信_宛先エラー<br>
+	 * <br>
+	 * ■対象メソッド：sendMailQue()<br>
+	 * ■試験パラメータ：未送信のキュー2件（うち1件はSMTPサーバーが拒否する宛先）<br>
+	 * ■試験観点：<br>
+	 * 　・送信できたキューのみ論理削除されること<br>
+	 * 　・失敗したキューは送信失敗回数が加算され、送信待ち時間後に再送されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() throws Exception {
+		List<TMailQue> tMailQueList = new ArrayList<>();
+		tMailQueList.add(createMailQue(1, "user1@example.com"));
+		tMailQueList.add(createMailQue(2, "reject@example.com"));
+		when(tMailQueMapper.claimUnsent(eq(MailService.MAIL_QUE_BATCH_SIZE), any(Date.class),
+				eq(72), anyLong(), eq(Constants.DB_FLG_FALSE))).thenReturn(tMailQueList)
+				.thenReturn(Collections.emptyList());
+
+		assertEquals(2, mailService.sendMailQue());
+
+		verify(tMailQueMapper, times(1)).updateSent(tMailQueList.get(0));
+		verify(tMailQueMapper, never()).updateSent(tMailQueList.get(1));
+		assertEquals(1, mailService.getSentCount());
+		assertEquals(1, mailService.getFailedCount());
+		assertEquals(1, tMailQueList.get(1).getSendFailCount());
+		verify(tMailQueMapper, times(1)).updateFailed(tMailQueList.get(1), 5L);
+
+		assertEquals(0, mailService.sendMailQue());
+	}
+
+	/**
+	 * Case.1_3 メール情報サービス試験 メール送信キューの送信_内容が同じキュー<br>
+	 * <br>
+	 * ■対象メソッド：sendMailQue()<br>
+	 * ■試験パラメータ：内容が同じ未送信のキュー2件（1通目のみSMTPサーバーが拒否する）、BCCあり<br>
+	 * ■試験観点：<br>
+	 * 　・拒否されたキューのみ再送待ちとなり、もう一方は論理削除されること<br>
+	 * 　・BCCの宛先にも送信されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() throws Exception {
+		List<TMailQue> tMailQueList = new ArrayList<>();
+		tMailQueList.add(createMailQue(1, "once@example.com"));
+		tMailQueList.add(createMailQue(2, "once@example.com"));
+		for (TMailQue tMailQue : tMailQueList) {
+			tMailQue.setSubject("subject");
+			tMailQue.setBody("body");
+			tMailQue.setMailAddressBcc("bcc@example.com");
+		}
+		when(tMailQueMapper.claimUnsent(eq(MailService.MAIL_QUE_BATCH_SIZE), any(Date.class),
+				eq(72), anyLong(), eq(Constants.DB_FLG_FALSE))).thenReturn(tMailQueList);
+
+		assertEquals(2, mailService.sendMailQue());
+
+		verify(tMailQueMapper, never()).updateSent(tMailQueList.get(0));
+		verify(tMailQueMapper, times(1)).updateSent(tMailQueList.get(1));
+		assertEquals(Constants.DB_FLG_FALSE, tMailQueList.get(0).getDeleteFlg());
+		assertEquals(Constants.DB_FLG_TRUE, tMailQueList.get(1).getDeleteFlg());
+		verify(tMailQueMapper, times(1)).updateFailed(tMailQueList.get(0), 5L);
+		assertEquals(List.of("bcc@example.com", "once@example.com", "bcc@example.com"),
+				smtpServer.getRecipients());
+	}
+
+	/**
+	 * Case.1_4 メール情報サービス試験 メール送信キューの送信_送信開始日時が未設定<br>
+	 * <br>
+	 * ■対象メソッド：sendMailQue()、getMailQueDepth()<br>
+	 * ■試験パラメータ：送信開始日時=空<br>
+	 * ■試験観点：<br>
+	 * 　・キューを取得せず、送信しないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_4() throws Exception {
+		when(messageUtil.getMessage("setting.mail.que.since")).thenReturn("");
+
+		assertEquals(0, mailService.sendMailQue());
+		assertEquals(0, mailService.getMailQueDepth());
+
+		verifyNoInteractions(tMailQueMapper);
+		assertEquals(0, smtpServer.getConnectionCount());
+	}
+
+	/**
+	 * Case.1_5 メール情報サービス試験 メール送信キューの送信_送信失敗回数の上限<br>
+	 * <br>
+	 * ■対象メソッド：sendMailQue()<br>
+	 * ■試験パラメータ：送信失敗回数=70、71の宛先エラーのキュー（上限=72）<br>
+	 * ■試験観点：<br>
+	 * 　・再送間隔が上限（1時間）となること<br>
+	 * 　・送信失敗回数が上限に達したキューのみ管理者へ通知されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_5() throws Exception {
+		List<TMailQue> tMailQueList = new ArrayList<>();
+		tMailQueList.add(createMailQue(1, "reject1@example.com"));
+		tMailQueList.add(createMailQue(2, "reject2@example.com"));
+		tMailQueList.get(0).setSendFailCount(70);
+		tMailQueList.get(1).setSendFailCount(71);
+		when(tMailQueMapper.claimUnsent(eq(MailService.MAIL_QUE_BATCH_SIZE), any(Date.class),
+				eq(72), anyLong(), eq(Constants.DB_FLG_FALSE))).thenReturn(tMailQueList);
+
+		assertEquals(2, mailService.sendMailQue());
+
+		verify(tMailQueMapper, times(1)).updateFailed(tMailQueList.get(0), 3600L);
+		verify(tMailQueMapper, times(1)).updateFailed(tMailQueList.get(1), 3600L);
+		assertEquals(71, tMailQueList.get(0).getSendFailCount());
+		assertEquals(72, tMailQueList.get(1).getSendFailCount());
+		assertEquals(List.of("admin@example.com"), smtpServer.getRecipients());
+	}
+
+	private TMailQue createMailQue(int mailQueId, String to) {
+		TMailQue tMailQue = new TMailQue();
+		tMailQue.setMailQueId(mailQueId);
+		tMailQue.setMailAddressTo(to);
+		tMailQue.setSubject("subject" + mailQueId);
+		tMailQue.setBody("body" + mailQueId);
+		tMailQue.setDeleteFlg(Constants.DB_FLG_FALSE);
+		return tMailQue;
+	}
+
+	/**
+	 * 簡易SMTPサーバー<br>
+	 * 「reject」で始まる宛先は拒否する。「once」で始まる宛先は初回のみ拒否する。
+	 */
+	private static class SmtpServer implements AutoCloseable {
+
+		private final ServerSocket serverSocket;
+		private final AtomicInteger connectionCount = new AtomicInteger();
+		private final List<String> recipients = Collections.synchronizedList(new ArrayList<>());
+		private final Set<String> rejectedOnce = Collections.synchronizedSet(new HashSet<>());
+
+		SmtpServer() throws IOException {
+			serverSocket = new ServerSocket(0);
+			Thread thread = new Thread(() -> {
+				while (!serverSocket.isClosed()) {
+					try (Socket socket = serverSocket.accept()) {
+						connectionCount.incrementAndGet();
+						handle(socket);
+					} catch (IOException e) {
+						// 終了
+					}
+				}
+			});
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		private void handle(Socket socket) throws IOException {
+			BufferedReader in = new BufferedReader(
+					new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+			PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+			out.print("220 localhost\r\n");
+			out.flush();
+			String line;
+			while ((line = in.readLine()) != null) {
+				String command = line.toUpperCase();
+				if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+					out.print("250 localhost\r\n");
+				} else if (command.startsWith("RCPT TO:")) {
+					String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+					if (address.startsWith("reject")
+							|| (address.startsWith("once") && rejectedOnce.add(address))) {
+						out.print("550 rejected\r\n");
+					} else {
+						recipients.add(address);
+						out.print("250 OK\r\n");
+					}
+				} else if (command.startsWith("DATA")) {
+					out.print("354 go ahead\r\n");
+					out.flush();
+					while ((line = in.readLine()) != null && !line.equals(".")) {
+						// 本文は読み捨てる
+					}
+					out.print("250 OK\r\n");
+				} else if (command.startsWith("QUIT")) {
+					out.print("221 bye\r\n");
+					out.flush();
+					return;
+				} else {
+					out.print("250 OK\r\n");
+				}
+				out.flush();
+			}
+		}
+
+		int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		int getConnectionCount() {
+			return connectionCount.get();
+		}
+
+		List<String> getRecipients() {
+			return recipients;
+		}
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+		}
+
+	}
+
+}
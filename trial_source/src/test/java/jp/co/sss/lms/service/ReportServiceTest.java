@@ -0,0 +1,154 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TDailyReportSubmit;
+import jp.co.sss.lms.entity.TDailyReportSubmitDetail;
+import jp.co.sss.lms.entity.TIntelligibility;
+import jp.co.sss.lms.form.DailyReportSubmitForm;
+import jp.co.sss.lms.mapper.TDailyReportSubmitDetailMapper;
+import jp.co.sss.lms.mapper.TDailyReportSubmitMapper;
+import jp.co.sss.lms.mapper.TIntelligibilityMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.LoginUserUtil;
+
+/**
+ * レポート情報サービス試験
+ *
+ */
+public class ReportServiceTest {
+
+	@Mock
+	private LoginUserUtil loginUserUtil;
+	@Mock
+	private TDailyReportSubmitMapper tDailyReportSubmitMapper;
+	@Mock
+	private TDailyReportSubmitDetailMapper tDailyReportSubmitDetailMapper;
+	@Mock
+	private TIntelligibilityMapper tIntelligibilityMapper;
+
+	@InjectMocks
+	private ReportService reportService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setLmsUserId(10);
+		loginUserDto.setAccountId(1);
+		ReflectionTestUtils.setField(reportService, "loginUserDto", loginUserDto);
+		when(loginUserUtil.isStudent()).thenReturn(true);
+	}
+
+	/**
+	 * Case.1_1 レポート情報サービス試験 レポート登録_初回提出<br>
+	 * <br>
+	 * ■対象メソッド：submit()<br>
+	 * ■試験パラメータ：レポート詳細3件、理解度2件<br>
+	 * ■試験観点：<br>
+	 * 　・登録済みの内容を取得しないこと<br>
+	 * 　・レポート詳細、理解度がそれぞれ1文で登録されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		doAnswer(invocation -> {
+			TDailyReportSubmit tDailyReportSubmit = invocation.getArgument(0);
+			tDailyReportSubmit.setDailyReportSubmitId(50);
+			return true;
+		}).when(tDailyReportSubmitMapper).insert(any(TDailyReportSubmit.class));
+
+		reportService
+				.submit(createForm(null, new String[] { "a", "b", "c" }, new Short[] { 3, 4 }));
+
+		verify(tDailyReportSubmitMapper, times(1)).insert(any(TDailyReportSubmit.class));
+		verify(tDailyReportSubmitDetailMapper, times(1)).upsertBatch(eq(50),
+				argThat(list -> list.size() == 3));
+		verify(tIntelligibilityMapper, times(1)).upsertBatch(eq(50),
+				argThat(list -> list.size() == 2));
+		verifyNoMoreInteractions(tDailyReportSubmitMapper, tDailyReportSubmitDetailMapper,
+				tIntelligibilityMapper);
+	}
+
+	/**
+	 * Case.1_2 レポート情報サービス試験 レポート登録_再提出<br>
+	 * <br>
+	 * ■対象メソッド：submit()<br>
+	 * ■試験パラメータ：レポート詳細3件（うち1件変更）、理解度2件（変更なし）<br>
+	 * ■試験観点：<br>
+	 * 　・件数取得、削除を行わないこと<br>
+	 * 　・変更されたレポート詳細のみ1文で更新されること<br>
+	 * 　・変更のない理解度は更新されないこと<br>
+	 * 　・発行する文は更新1件、取得2件、一括更新1件の計4件であること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() throws Exception {
+		List<TDailyReportSubmitDetail> storedDetailList = new ArrayList<>();
+		String[] storedContents = { "a", "b", "c" };
+		for (int i = 0; i < storedContents.length; i++) {
+			TDailyReportSubmitDetail stored = new TDailyReportSubmitDetail();
+			stored.setDailyReportSubmitId(50);
+			stored.setFieldNum(i + 1);
+			stored.setContent(storedContents[i]);
+			stored.setDeleteFlg(Constants.DB_FLG_FALSE);
+			storedDetailList.add(stored);
+		}
+		List<TIntelligibility> storedIntelligibilityList = new ArrayList<>();
+		for (int j = 0; j < 2; j++) {
+			TIntelligibility stored = new TIntelligibility();
+			stored.setDailyReportSubmitId(50);
+			stored.setFieldNum(j + 1);
+			stored.setFieldName("field" + (j + 1));
+			stored.setFieldValue((short) (j + 3));
+			stored.setDeleteFlg(Constants.DB_FLG_FALSE);
+			storedIntelligibilityList.add(stored);
+		}
+		when(tDailyReportSubmitDetailMapper.findByDailyReportSubmitId(50))
+				.thenReturn(storedDetailList);
+		when(tIntelligibilityMapper.findByDailyReportSubmitId(50))
+				.thenReturn(storedIntelligibilityList);
+
+		reportService.submit(
+				createForm(50, new String[] { "a", "changed", "c" }, new Short[] { 3, 4 }));
+
+		verify(tDailyReportSubmitMapper, times(1)).update(any(TDailyReportSubmit.class));
+		verify(tDailyReportSubmitDetailMapper, times(1)).findByDailyReportSubmitId(50);
+		verify(tIntelligibilityMapper, times(1)).findByDailyReportSubmitId(50);
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TDailyReportSubmitDetail>> detailCaptor = ArgumentCaptor
+				.forClass(List.class);
+		verify(tDailyReportSubmitDetailMapper, times(1)).upsertBatch(eq(50), detailCaptor.capture());
+		assertEquals(1, detailCaptor.getValue().size());
+		assertEquals(2, detailCaptor.getValue().get(0).getFieldNum());
+		assertEquals("changed", detailCaptor.getValue().get(0).getContent());
+		verifyNoMoreInteractions(tDailyReportSubmitMapper, tDailyReportSubmitDetailMapper,
+				tIntelligibilityMapper);
+	}
+
+	private DailyReportSubmitForm createForm(Integer dailyReportSubmitId, String[] contentArray,
+			Short[] intFieldValueArray) {
+		DailyReportSubmitForm dailyReportSubmitForm = new DailyReportSubmitForm();
+		dailyReportSubmitForm.setDailyReportSubmitId(dailyReportSubmitId);
+		dailyReportSubmitForm.setDailyReportId(3);
+		dailyReportSubmitForm.setContentArray(contentArray);
+		dailyReportSubmitForm.setIntFieldNameArray(new String[] { "field1", "field2" });
+		dailyReportSubmitForm.setIntFieldValueArray(intFieldValueArray);
+		return dailyReportSubmitForm;
+	}
+
+}
@@ -0,0 +1,214 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.form.AttendanceForm;
+import jp.co.sss.lms.form.DailyAttendanceForm;
+import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+import jp.co.sss.lms.util.AttendanceUtil;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.LoginUserUtil;
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * 勤怠情報（受講生入力）サービス試験
+ *
+ */
+@SpringBootTest
+public class StudentAttendanceServiceTest {
+
+	@Autowired
+	private LoginUserDto loginUserDto;
+	@Autowired
+	private MessageUtil messageUtil;
+	@Autowired
+	private DateUtil dateUtil;
+	@Autowired
+	private AttendanceUtil attendanceUtil;
+
+	@Mock
+	private LoginUserUtil loginUserUtil;
+	@Mock
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+
+	@InjectMocks
+	private StudentAttendanceService studentAttendanceService;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(studentAttendanceService, "messageUtil", messageUtil);
+		ReflectionTestUtils.setField(studentAttendanceService, "dateUtil", dateUtil);
+		ReflectionTestUtils.setField(studentAttendanceService, "attendanceUtil", attendanceUtil);
+
+		loginUserDto.setLmsUserId(1);
+		loginUserDto.setAccountId(1);
+		ReflectionTestUtils.setField(studentAttendanceService, "loginUserDto", loginUserDto);
+
+		when(loginUserUtil.isStudent()).thenReturn(true);
+	}
+
+	/**
+	 * Case.1_1 勤怠情報サービス試験 勤怠登録・更新処理_変更行のみ登録<br>
+	 * <br>
+	 * ■対象メソッド：update()<br>
+	 * ■試験パラメータ：<br>
+	 * 　・既存勤怠：2件（1件は変更なし、1件は退勤時刻を変更）<br>
+	 * 　・新規勤怠：1件<br>
+	 * ■試験観点：<br>
+	 * 　・一括登録・更新が1回だけ呼び出されること<br>
+	 * 　・変更のあった既存勤怠と新規勤怠の2件のみが対象となること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		List<TStudentAttendance> currentList = new ArrayList<>();
+		currentList.add(createEntity(10, "2024/4/1", "09:00", "18:00"));
+		currentList.add(createEntity(11, "2024/4/2", "09:00", "18:00"));
+		when(tStudentAttendanceMapper.findByLmsUserId(1, Constants.DB_FLG_FALSE))
+				.thenReturn(currentList);
+
+		AttendanceForm attendanceForm = new AttendanceForm();
+		attendanceForm.setAttendanceList(new ArrayList<>());
+		attendanceForm.getAttendanceList().add(createForm("2024/4/1", 9, 0, 18, 0));
+		attendanceForm.getAttendanceList().add(createForm("2024/4/2", 9, 0, 17, 0));
+		attendanceForm.getAttendanceList().add(createForm("2024/4/3", 9, 0, 18, 0));
+
+		studentAttendanceService.update(attendanceForm);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TStudentAttendance>> captor = ArgumentCaptor.forClass(List.class);
+		verify(tStudentAttendanceMapper, times(1)).upsertBatch(captor.capture());
+		verify(tStudentAttendanceMapper, never()).insert(any());
+		verify(tStudentAttendanceMapper, never()).update(any());
+
+		List<TStudentAttendance> upsertList = captor.getValue();
+		assertEquals(2, upsertList.size());
+		assertEquals(11, upsertList.get(0).getStudentAttendanceId());
+		assertEquals("17:00", upsertList.get(0).getTrainingEndTime());
+		assertNull(upsertList.get(1).getStudentAttendanceId());
+		assertNotNull(upsertList.get(1).getFirstCreateDate());
+	}
+
+	/**
+	 * Case.1_2 勤怠情報サービス試験 勤怠登録・更新処理_変更なし<br>
+	 * <br>
+	 * ■対象メソッド：update()<br>
+	 * ■試験パラメータ：<br>
+	 * 　・既存勤怠：1件（変更なし）<br>
+	 * ■試験観点：<br>
+	 * 　・登録・更新処理が呼び出されないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		List<TStudentAttendance> currentList = new ArrayList<>();
+		currentList.add(createEntity(10, "2024/4/1", "09:00", "18:00"));
+		when(tStudentAttendanceMapper.findByLmsUserId(1, Constants.DB_FLG_FALSE))
+				.thenReturn(currentList);
+
+		AttendanceForm attendanceForm = new AttendanceForm();
+		attendanceForm.setAttendanceList(new ArrayList<>());
+		attendanceForm.getAttendanceList().add(createForm("2024/4/1", 9, 0, 18, 0));
+
+		studentAttendanceService.update(attendanceForm);
+
+		verify(tStudentAttendanceMapper, never()).upsertBatch(any());
+	}
+
+	/**
+	 * Case.1_3 勤怠情報サービス試験 勤怠登録・更新処理_研修日による突合<br>
+	 * <br>
+	 * ■対象メソッド：update()<br>
+	 * ■試験パラメータ：<br>
+	 * 　・既存勤怠：365件（フォームは全件、うち末日のみ退勤時刻を変更）<br>
+	 * ■試験観点：<br>
+	 * 　・研修日が一致する既存勤怠が更新対象となること<br>
+	 * 　・変更のあった1件のみが対象となること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() throws Exception {
+
+		List<TStudentAttendance> currentList = new ArrayList<>();
+		AttendanceForm attendanceForm = new AttendanceForm();
+		attendanceForm.setAttendanceList(new ArrayList<>());
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(dateUtil.parse("2024/1/1"));
+		for (int i = 0; i < 365; i++) {
+			String trainingDate = dateUtil.toString(calendar.getTime(), "yyyy/M/d");
+			currentList.add(createEntity(i + 1, trainingDate, "09:00", "18:00"));
+			attendanceForm.getAttendanceList()
+					.add(createForm(trainingDate, 9, 0, i == 364 ? 17 : 18, 0));
+			calendar.add(Calendar.DATE, 1);
+		}
+		when(tStudentAttendanceMapper.findByLmsUserId(1, Constants.DB_FLG_FALSE))
+				.thenReturn(currentList);
+
+		studentAttendanceService.update(attendanceForm);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TStudentAttendance>> captor = ArgumentCaptor.forClass(List.class);
+		verify(tStudentAttendanceMapper, times(1)).upsertBatch(captor.capture());
+
+		List<TStudentAttendance> upsertList = captor.getValue();
+		assertEquals(1, upsertList.size());
+		assertEquals(365, upsertList.get(0).getStudentAttendanceId());
+		assertEquals("17:00", upsertList.get(0).getTrainingEndTime());
+	}
+
+	/**
+	 * 既存の勤怠情報エンティティを生成
+	 */
+	private TStudentAttendance createEntity(Integer id, String trainingDate, String startTime,
+			String endTime) throws Exception {
+		TStudentAttendance entity = new TStudentAttendance();
+		entity.setStudentAttendanceId(id);
+		entity.setLmsUserId(1);
+		entity.setTrainingDate(dateUtil.parse(trainingDate));
+		entity.setTrainingStartTime(startTime);
+		entity.setTrainingEndTime(endTime);
+		entity.setStatus((short) 0);
+		entity.setNote("");
+		entity.setDeleteFlg(Constants.DB_FLG_FALSE);
+		return entity;
+	}
+
+	/**
+	 * 日次の勤怠フォームを生成
+	 */
+	private DailyAttendanceForm createForm(String trainingDate, Integer startHour,
+			Integer startMinute, Integer endHour, Integer endMinute) {
+		DailyAttendanceForm form = new DailyAttendanceForm();
+		form.setTrainingDate(trainingDate);
+		form.setTrainingStartHour(startHour);
+		form.setTrainingStartMinute(startMinute);
+		form.setTrainingEndHour(endHour);
+		form.setTrainingEndMinute(endMinute);
+		form.setStatusDispName("");
+		form.setNote("");
+		return form;
+	}
+
+}
@@ -0,0 +1,153 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.CourseServiceCategoryDto;
+import jp.co.sss.lms.dto.CourseServiceCourseDto;
+import jp.co.sss.lms.dto.CourseServiceSectionDto;
+import jp.co.sss.lms.mapper.MCourseMapper;
+import jp.co.sss.lms.mapper.MSectionMapper;
+
+/**
+ * コース詳細ユーティリティ試験
+ *
+ */
+public class CourseDetailUtilTest {
+
+	/** 研修日 */
+	private static final Date WORK_DAY = new Date(1_700_000_000_000L);
+
+	@Mock
+	private MCourseMapper mCourseMapper;
+	@Mock
+	private MSectionMapper mSectionMapper;
+
+	@InjectMocks
+	private CourseDetailUtil courseDetailUtil;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(courseDetailUtil, "maxSize", 2);
+		ReflectionTestUtils.setField(courseDetailUtil, "checkSeconds", 0);
+		courseDetailUtil.init();
+		for (int courseId = 1; courseId <= 3; courseId++) {
+			when(mCourseMapper.getCourseVersion(courseId, Constants.DB_FLG_FALSE)).thenReturn("v1");
+			when(mCourseMapper.getCourseDetail(courseId, Constants.DB_FLG_FALSE))
+					.thenAnswer(invocation -> createCourseServiceCourseDto(invocation.getArgument(0)));
+			when(mSectionMapper.getSectionDateList(courseId)).thenReturn(List.of(WORK_DAY));
+		}
+	}
+
+	/**
+	 * Case.1_1 コース詳細ユーティリティ試験 コース詳細の取得_バージョン照合<br>
+	 * <br>
+	 * ■対象メソッド：getCourseServiceCourseDto()、isWorkDay()<br>
+	 * ■試験パラメータ：コースID=1（照合間隔0秒）<br>
+	 * ■試験観点：<br>
+	 * 　・バージョンが同じ間はコース詳細・研修日を再取得しないこと<br>
+	 * 　・カテゴリ・セクションのリストが変更できないこと<br>
+	 * 　・セクションの日付のみ研修日と判定されること<br>
+	 * 　・バージョンが変わった場合に再取得されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		CourseServiceCourseDto first = courseDetailUtil.getCourseServiceCourseDto(1);
+		assertSame(first, courseDetailUtil.getCourseServiceCourseDto(1));
+		assertTrue(courseDetailUtil.isWorkDay(1, new Date(WORK_DAY.getTime())));
+		assertFalse(courseDetailUtil.isWorkDay(1, new Date(WORK_DAY.getTime() + 1)));
+		verify(mCourseMapper, times(1)).getCourseDetail(1, Constants.DB_FLG_FALSE);
+		verify(mSectionMapper, times(1)).getSectionDateList(1);
+
+		assertThrows(UnsupportedOperationException.class,
+				() -> first.getCourseServiceCategoryDtoList().clear());
+		assertThrows(UnsupportedOperationException.class, () -> first
+				.getCourseServiceCategoryDtoList().get(0).getCourseServiceSectionDtoList().clear());
+
+		when(mCourseMapper.getCourseVersion(1, Constants.DB_FLG_FALSE)).thenReturn("v2");
+		assertNotSame(first, courseDetailUtil.getCourseServiceCourseDto(1));
+		verify(mCourseMapper, times(2)).getCourseDetail(1, Constants.DB_FLG_FALSE);
+		assertEquals(2, courseDetailUtil.getLoadCount());
+	}
+
+	/**
+	 * Case.1_2 コース詳細ユーティリティ試験 上限件数を超えたコース詳細の破棄<br>
+	 * <br>
+	 * ■対象メソッド：exists()<br>
+	 * ■試験パラメータ：上限件数=2、コースID 1,2,1,3の順に参照<br>
+	 * ■試験観点：<br>
+	 * 　・最後に参照された時刻が最も古いコースID=2が破棄され、再参照時に再取得されること<br>
+	 * 　・破棄されていないコースID=1は再取得しないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() {
+		assertTrue(courseDetailUtil.exists(1));
+		assertTrue(courseDetailUtil.exists(2));
+		assertTrue(courseDetailUtil.exists(1));
+		assertTrue(courseDetailUtil.exists(3));
+
+		assertTrue(courseDetailUtil.exists(1));
+		verify(mCourseMapper, times(1)).getCourseDetail(1, Constants.DB_FLG_FALSE);
+		assertTrue(courseDetailUtil.exists(2));
+		verify(mCourseMapper, times(2)).getCourseDetail(2, Constants.DB_FLG_FALSE);
+	}
+
+	/**
+	 * Case.1_3 コース詳細ユーティリティ試験 存在しないコース・コース詳細の破棄<br>
+	 * <br>
+	 * ■対象メソッド：exists()、isWorkDay()、invalidate()<br>
+	 * ■試験パラメータ：存在しないコースID=9、nullのコースID、破棄したコースID=1<br>
+	 * ■試験観点：<br>
+	 * 　・存在しないコースは存在しない・研修日でないと判定され、コース詳細を取得しないこと<br>
+	 * 　・破棄したコースはバージョンが同じでも再取得されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() {
+		assertFalse(courseDetailUtil.exists(9));
+		assertFalse(courseDetailUtil.exists(null));
+		assertFalse(courseDetailUtil.isWorkDay(9, WORK_DAY));
+		assertNull(courseDetailUtil.getCourseServiceCourseDto(null));
+		verify(mCourseMapper, never()).getCourseDetail(9, Constants.DB_FLG_FALSE);
+
+		courseDetailUtil.exists(1);
+		courseDetailUtil.invalidate(1);
+		courseDetailUtil.exists(1);
+		verify(mCourseMapper, times(2)).getCourseDetail(1, Constants.DB_FLG_FALSE);
+	}
+
+	/**
+	 * コースDTOの生成
+	 *
+	 * @param courseId
+	 * @return コースDTO
+	 */
+	private CourseServiceCourseDto createCourseServiceCourseDto(Integer courseId) {
+		List<CourseServiceSectionDto> sectionDtoList = new ArrayList<>();
+		sectionDtoList.add(new CourseServiceSectionDto());
+		CourseServiceCategoryDto categoryDto = new CourseServiceCategoryDto();
+		categoryDto.setCategoryName("category" + courseId);
+		categoryDto.setCourseServiceSectionDtoList(sectionDtoList);
+		List<CourseServiceCategoryDto> categoryDtoList = new ArrayList<>();
+		categoryDtoList.add(categoryDto);
+		CourseServiceCourseDto courseDto = new CourseServiceCourseDto();
+		courseDto.setCourseId(courseId);
+		courseDto.setCourseServiceCategoryDtoList(categoryDtoList);
+		return courseDto;
+	}
+
+}
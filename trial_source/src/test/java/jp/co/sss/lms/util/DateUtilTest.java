@@ -0,0 +1,97 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 日付ユーティリティ試験
+ *
+ */
+public class DateUtilTest {
+
+	private DateUtil dateUtil = new DateUtil();
+
+	/**
+	 * Case.1_1 日付ユーティリティ試験 文字列変換_SimpleDateFormat互換<br>
+	 * <br>
+	 * ■対象メソッド：toString(), dateToString(), dateToStringJ()<br>
+	 * ■試験観点：<br>
+	 * 　・業務で使用している日付形式の出力がSimpleDateFormatと一致すること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		Date date = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.SSS").parse("2024/01/05 09:07:03.045");
+		String[] patterns = { "yyyy/M/d", "yyyy/MM/dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss.SSS",
+				"yyyy-MM-dd", "yyyy年M月d日", "YYYYMMdd", "yyyyMMdd" };
+		for (String pattern : patterns) {
+			assertEquals(new SimpleDateFormat(pattern).format(date), dateUtil.dateToString(date, pattern));
+		}
+		assertEquals("2024/1/5", dateUtil.toString(date));
+		assertEquals(new SimpleDateFormat("yyyy年M月d日(E)", Locale.JAPANESE).format(date),
+				dateUtil.dateToStringJ(date, "yyyy年M月d日(E)"));
+		assertEquals("2024/1/5", dateUtil.toString(new java.sql.Date(date.getTime())));
+	}
+
+	/**
+	 * Case.1_2 日付ユーティリティ試験 日付解析<br>
+	 * <br>
+	 * ■対象メソッド：parse(), stringToTimestamp(), isDate()<br>
+	 * ■試験観点：<br>
+	 * 　・解析結果がSimpleDateFormatと一致すること<br>
+	 * 　・形式に一致しない場合はParseExceptionとなること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() throws Exception {
+		assertEquals(new SimpleDateFormat("yyyy/M/d").parse("2024/4/1"), dateUtil.parse("2024/4/1"));
+		assertEquals(new SimpleDateFormat("yyyy/M/d").parse("2024/04/01"),
+				dateUtil.parse("2024/04/01"));
+		assertEquals(new SimpleDateFormat("yyyy/MM").parse("2024/04"),
+				dateUtil.parse("2024/04", "yyyy/MM"));
+		assertEquals(new SimpleDateFormat("yyyy/MM/dd HH:mm:ss").parse("2024/04/01 18:30:15").getTime(),
+				dateUtil.stringToTimestamp("2024/04/01 18:30:15").getTime());
+		assertThrows(ParseException.class, () -> dateUtil.parse("2024-04-01"));
+		assertTrue(dateUtil.isDate("2024/04/01 18:30:15"));
+		assertFalse(dateUtil.isDate("2024/04/01"));
+	}
+
+	/**
+	 * Case.1_3 日付ユーティリティ試験 Calendar変換<br>
+	 * <br>
+	 * ■対象メソッド：toCalendar()<br>
+	 * ■試験観点：<br>
+	 * 　・既定フォーマット、その他のフォーマットとも同じ日時に変換されること<br>
+	 * 　・矛盾した日付はIllegalArgumentExceptionとなること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() {
+		Calendar expected = Calendar.getInstance();
+		expected.clear();
+		expected.set(2024, Calendar.APRIL, 1, 9, 5, 30);
+		expected.set(Calendar.MILLISECOND, 120);
+		assertEquals(expected.getTimeInMillis(),
+				dateUtil.toCalendar("2024/04/01 09:05:30.120").getTimeInMillis());
+		assertEquals(expected.getTimeInMillis(),
+				dateUtil.toCalendar("2024-4-1 9:5:30.12").getTimeInMillis());
+
+		expected.set(Calendar.MILLISECOND, 0);
+		assertEquals(expected.getTimeInMillis(),
+				dateUtil.toCalendar("2024/04/01 09:05:30").getTimeInMillis());
+
+		expected.clear();
+		expected.set(2024, Calendar.APRIL, 1);
+		assertEquals(expected.getTimeInMillis(), dateUtil.toCalendar("20240401").getTimeInMillis());
+		assertThrows(IllegalArgumentException.class,
+				() -> dateUtil.toCalendar("2024/99/99").getTimeInMillis());
+	}
+
+}
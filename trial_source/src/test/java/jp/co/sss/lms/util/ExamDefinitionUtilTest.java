@@ -0,0 +1,149 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.entity.MQuestion;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.MQuestionMapper;
+import jp.co.sss.lms.util.ExamDefinitionUtil.ExamDefinition;
+
+/**
+ * 試験定義ユーティリティ試験
+ *
+ */
+public class ExamDefinitionUtilTest {
+
+	@Mock
+	private MExamMapper mExamMapper;
+	@Mock
+	private MQuestionMapper mQuestionMapper;
+
+	@InjectMocks
+	private ExamDefinitionUtil examDefinitionUtil;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(examDefinitionUtil, "maxSize", 2);
+		ReflectionTestUtils.setField(examDefinitionUtil, "checkSeconds", 0);
+		examDefinitionUtil.init();
+		for (int examId = 1; examId <= 3; examId++) {
+			when(mExamMapper.getExamVersion(examId)).thenReturn("v1");
+			when(mExamMapper.getExamQuestion(examId, Constants.DB_FLG_FALSE))
+					.thenReturn(createExamQuestionDto(examId));
+			when(mQuestionMapper.findByExamId(examId, Constants.DB_FLG_FALSE))
+					.thenReturn(createMQuestionList());
+		}
+	}
+
+	/**
+	 * Case.1_1 試験定義ユーティリティ試験 試験定義の取得_バージョン照合<br>
+	 * <br>
+	 * ■対象メソッド：getExamDefinition()<br>
+	 * ■試験パラメータ：試験ID=1（照合間隔0秒）<br>
+	 * ■試験観点：<br>
+	 * 　・バージョンが同じ間は試験問題を再取得しないこと<br>
+	 * 　・選択肢リストが問題DTO間で共有され、変更できないこと<br>
+	 * 　・バージョンが変わった場合に再取得されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		ExamDefinition first = examDefinitionUtil.getExamDefinition(1);
+		ExamDefinition second = examDefinitionUtil.getExamDefinition(1);
+		assertSame(first, second);
+		verify(mExamMapper, times(1)).getExamQuestion(1, Constants.DB_FLG_FALSE);
+		verify(mQuestionMapper, times(1)).findByExamId(1, Constants.DB_FLG_FALSE);
+
+		List<QuestionDto> questionDtoList = first.createQuestionDtoList();
+		assertEquals(2, questionDtoList.size());
+		assertEquals(List.of("a", "b", "c", "d"), questionDtoList.get(0).getAnswerList());
+		assertSame(questionDtoList.get(0).getAnswerList(),
+				first.createQuestionDtoList().get(0).getAnswerList());
+		assertThrows(UnsupportedOperationException.class,
+				() -> questionDtoList.get(0).getAnswerList().set(0, "x"));
+		assertTrue(first.isCorrect(0, (short) 2));
+		assertFalse(first.isCorrect(1, (short) 2));
+		assertFalse(first.isCorrect(1, null));
+
+		when(mExamMapper.getExamVersion(1)).thenReturn("v2");
+		ExamDefinition third = examDefinitionUtil.getExamDefinition(1);
+		assertNotSame(first, third);
+		assertEquals("v2", third.getVersion());
+		verify(mExamMapper, times(2)).getExamQuestion(1, Constants.DB_FLG_FALSE);
+		assertEquals(2, examDefinitionUtil.getLoadCount());
+	}
+
+	/**
+	 * Case.1_2 試験定義ユーティリティ試験 試験定義の取得_上限件数<br>
+	 * <br>
+	 * ■対象メソッド：getExamDefinition()<br>
+	 * ■試験パラメータ：試験ID=1,2,3（上限2件）<br>
+	 * ■試験観点：<br>
+	 * 　・上限件数を超えた場合、最後に参照された時刻が古い試験定義から破棄されること<br>
+	 * 　・存在しない試験は保持されないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() {
+		examDefinitionUtil.getExamDefinition(1);
+		examDefinitionUtil.getExamDefinition(2);
+		examDefinitionUtil.getExamDefinition(1);
+		examDefinitionUtil.getExamDefinition(3);
+		assertEquals(2, examDefinitionUtil.getSize());
+
+		examDefinitionUtil.getExamDefinition(1);
+		verify(mExamMapper, times(1)).getExamQuestion(1, Constants.DB_FLG_FALSE);
+		examDefinitionUtil.getExamDefinition(2);
+		verify(mExamMapper, times(2)).getExamQuestion(2, Constants.DB_FLG_FALSE);
+
+		assertNull(examDefinitionUtil.getExamDefinition(9));
+		verify(mExamMapper, never()).getExamQuestion(eq(9), anyShort());
+	}
+
+	private ExamQuestionDto createExamQuestionDto(int examId) {
+		ExamQuestionDto examQuestionDto = new ExamQuestionDto();
+		examQuestionDto.setExamId(examId);
+		examQuestionDto.setExamName("exam" + examId);
+		examQuestionDto.setLimitTime(30);
+		List<QuestionDto> questionDtoList = new ArrayList<>();
+		for (int i = 1; i <= 2; i++) {
+			QuestionDto questionDto = new QuestionDto();
+			questionDto.setQuestionId(i);
+			questionDto.setQuestion("question" + i);
+			questionDto.setChoice1("a");
+			questionDto.setChoice2("b");
+			questionDto.setChoice3("c");
+			questionDto.setChoice4("d");
+			questionDtoList.add(questionDto);
+		}
+		examQuestionDto.setQuestionDtoList(questionDtoList);
+		return examQuestionDto;
+	}
+
+	private List<MQuestion> createMQuestionList() {
+		List<MQuestion> mQuestionList = new ArrayList<>();
+		for (int i = 1; i <= 2; i++) {
+			MQuestion mQuestion = new MQuestion();
+			mQuestion.setQuestionId(i);
+			mQuestion.setAnswerNum(i == 1 ? Short.valueOf((short) 2) : null);
+			mQuestionList.add(mQuestion);
+		}
+		return mQuestionList;
+	}
+
+}
@@ -0,0 +1,134 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import jp.co.sss.lms.dto.ExamStatDto;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+import jp.co.sss.lms.util.ExamStatUtil.ExamStat;
+
+/**
+ * 試験統計ユーティリティ試験
+ *
+ */
+public class ExamStatUtilTest {
+
+	@Mock
+	private TExamResultMapper tExamResultMapper;
+
+	@InjectMocks
+	private ExamStatUtil examStatUtil;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+	}
+
+	/**
+	 * Case.1_1 試験統計ユーティリティ試験 試験統計の加算<br>
+	 * <br>
+	 * ■対象メソッド：getExamStat(), add()<br>
+	 * ■試験パラメータ：集計済み2件（得点3,5、直近の試験結果ID 11）に試験結果ID 11,10,12を加算<br>
+	 * ■試験観点：<br>
+	 * 　・初回の参照時のみDBから集計すること<br>
+	 * 　・集計済みの試験結果は重複して加算されないこと<br>
+	 * 　・集計済みのIDより小さいIDでも、後からコミットされた試験結果は加算されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		when(tExamResultMapper.getExamStatList(eq(7), any(Date.class), eq(Constants.DB_FLG_FALSE)))
+				.thenReturn(List.of(createExamStatDto(7, 2, 8L, "11")));
+
+		ExamStat examStat = examStatUtil.getExamStat(7);
+		examStatUtil.add(7, 11, 5);
+		examStatUtil.add(7, 10, 1);
+		examStatUtil.add(7, 12, 6);
+		examStatUtil.add(7, 12, 6);
+
+		assertSame(examStat, examStatUtil.getExamStat(7));
+		verify(tExamResultMapper, times(1)).getExamStatList(eq(7), any(Date.class),
+				eq(Constants.DB_FLG_FALSE));
+		assertEquals(4, examStat.getMarkCount());
+		assertEquals(new BigDecimal("3.8"), examStat.getAvgScore());
+		assertEquals(76.0, ExamStatUtil.toPoint(examStat.getAvgScore(), 5));
+	}
+
+	/**
+	 * Case.1_2 試験統計ユーティリティ試験 採点対象の試験結果なし<br>
+	 * <br>
+	 * ■対象メソッド：getExamStat(), add()<br>
+	 * ■試験パラメータ：採点対象の試験結果なしの試験に1件加算<br>
+	 * ■試験観点：<br>
+	 * 　・平均点がnullとなること<br>
+	 * 　・加算後は加算した試験結果の得点となること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() {
+		when(tExamResultMapper.getExamStatList(eq(8), any(Date.class), eq(Constants.DB_FLG_FALSE)))
+				.thenReturn(Collections.emptyList());
+
+		ExamStat examStat = examStatUtil.getExamStat(8);
+		assertEquals(0, examStat.getMarkCount());
+		assertNull(examStat.getAvgScore());
+
+		examStatUtil.add(8, 1, 2);
+		assertEquals(1, examStat.getMarkCount());
+		assertEquals(new BigDecimal("2.0"), examStat.getAvgScore());
+	}
+
+	/**
+	 * Case.1_3 試験統計ユーティリティ試験 再集計中の加算<br>
+	 * <br>
+	 * ■対象メソッド：rebuild(), add()<br>
+	 * ■試験パラメータ：再集計のDB集計中に試験結果ID 20（集計に含まれる）、21（含まれない）を加算<br>
+	 * ■試験観点：<br>
+	 * 　・集計に含まれない加算は再集計の反映後に再適用され、上書きされないこと<br>
+	 * 　・集計に含まれる加算は重複して加算されないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() {
+		when(tExamResultMapper.getExamStatList(eq(9), any(Date.class), eq(Constants.DB_FLG_FALSE)))
+				.thenReturn(List.of(createExamStatDto(9, 1, 4L, "")));
+		examStatUtil.getExamStat(9);
+		when(tExamResultMapper.getExamStatList(isNull(), any(Date.class),
+				eq(Constants.DB_FLG_FALSE))).thenAnswer(invocation -> {
+					examStatUtil.add(9, 20, 2);
+					examStatUtil.add(9, 21, 6);
+					return List.of(createExamStatDto(9, 2, 6L, "20"));
+				});
+
+		examStatUtil.rebuild();
+
+		ExamStat examStat = examStatUtil.getExamStat(9);
+		assertEquals(3, examStat.getMarkCount());
+		assertEquals(new BigDecimal("4.0"), examStat.getAvgScore());
+		examStatUtil.add(9, 21, 6);
+		assertEquals(3, examStat.getMarkCount());
+	}
+
+	private ExamStatDto createExamStatDto(int examSectionId, int markCount, long scoreSum,
+			String recentExamResultIds) {
+		ExamStatDto examStatDto = new ExamStatDto();
+		examStatDto.setExamSectionId(examSectionId);
+		examStatDto.setMarkCount(markCount);
+		examStatDto.setScoreSum(scoreSum);
+		examStatDto.setRecentExamResultIds(recentExamResultIds);
+		return examStatDto;
+	}
+
+}
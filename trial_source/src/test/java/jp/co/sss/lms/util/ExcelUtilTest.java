@@ -0,0 +1,64 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Excelユーティリティ試験
+ *
+ */
+public class ExcelUtilTest {
+
+	private static final String TEMPLATE = "static/template/日報_テンプレート.xlsx";
+
+	private static final String SHEET_NAME = "フィードバックコメント";
+
+	/**
+	 * Case.1_1 Excelユーティリティ試験 ストリーミング出力_行コピー<br>
+	 * <br>
+	 * ■対象メソッド：sheetCopy(), setVal()<br>
+	 * ■試験パラメータ：日報テンプレート、フィードバックコメント200件<br>
+	 * ■試験観点：<br>
+	 * 　・テンプレートの範囲外の行もストリーミング出力されること<br>
+	 * 　・テンプレートの範囲内の行に設定した値が出力されること<br>
+	 * 　・テンプレートはキャッシュから複製され、前回の編集内容が残らないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		int count = 200;
+		ExcelUtil excelUtil = new ExcelUtil(TEMPLATE, true);
+		assertTrue(excelUtil.getWb() instanceof SXSSFWorkbook);
+		for (int j = 1; j <= count; j++) {
+			int i = j % count;
+			if (i > 0) {
+				excelUtil.sheetCopy(SHEET_NAME, 6, 8, i);
+			}
+			excelUtil.setVal(SHEET_NAME, 6 + (i * 2), 0, "user" + i);
+			excelUtil.setVal(SHEET_NAME, 7 + (i * 2), 10, "comment" + i);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		excelUtil.getWb().write(out);
+		((SXSSFWorkbook) excelUtil.getWb()).dispose();
+
+		Workbook wb = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+		Sheet sheet = wb.getSheet(SHEET_NAME);
+		assertEquals("user0", sheet.getRow(6).getCell(0).getStringCellValue());
+		assertEquals("comment0", sheet.getRow(7).getCell(10).getStringCellValue());
+		assertEquals("user10", sheet.getRow(26).getCell(0).getStringCellValue());
+		assertEquals("user199", sheet.getRow(404).getCell(0).getStringCellValue());
+		assertEquals("comment199", sheet.getRow(405).getCell(10).getStringCellValue());
+
+		ExcelUtil other = new ExcelUtil(TEMPLATE);
+		assertEquals("", other.getCellValue(SHEET_NAME, 6, 0));
+	}
+
+}
@@ -0,0 +1,101 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+
+/**
+ * ファイルIDトークンユーティリティ試験
+ *
+ */
+public class FileIdTokenUtilTest {
+
+	private FileIdTokenUtil fileIdTokenUtil;
+
+	private LoginUserDto loginUserDto;
+
+	@BeforeEach
+	public void setup() {
+		loginUserDto = new LoginUserDto();
+		loginUserDto.setUserId(1);
+		fileIdTokenUtil = new FileIdTokenUtil();
+		ReflectionTestUtils.setField(fileIdTokenUtil, "loginUserDto", loginUserDto);
+		ReflectionTestUtils.setField(fileIdTokenUtil, "secret", "test-secret-0123456789abcdef0123");
+		fileIdTokenUtil.init();
+	}
+
+	/**
+	 * Case.1_1 ファイルIDトークン試験 変換と復元<br>
+	 * <br>
+	 * ■対象メソッド：encode(), decode()<br>
+	 * ■試験パラメータ："12345"<br>
+	 * ■試験観点：<br>
+	 * 　・トークンから元のファイルIDに復元できること<br>
+	 * 　・トークンにファイルIDがそのまま含まれないこと<br>
+	 * 　・他のユーザーのトークンは復元できないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		String token = fileIdTokenUtil.encode("12345");
+		assertFalse(token.contains("12345"));
+		assertEquals(12345, fileIdTokenUtil.decode(token));
+		assertEquals(token, fileIdTokenUtil.encode(12345));
+
+		loginUserDto.setUserId(2);
+		assertNull(fileIdTokenUtil.decode(token));
+		assertNotEquals(token, fileIdTokenUtil.encode(12345));
+	}
+
+	/**
+	 * Case.1_2 ファイルIDトークン試験 不正なトークン<br>
+	 * <br>
+	 * ■対象メソッド：encode(), decode()<br>
+	 * ■試験パラメータ：null, "abc", 改ざんしたトークン<br>
+	 * ■試験観点：<br>
+	 * 　・不正な値はnullとなること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() {
+		assertNull(fileIdTokenUtil.encode((String) null));
+		assertNull(fileIdTokenUtil.encode("abc"));
+		assertNull(fileIdTokenUtil.decode(null));
+		assertNull(fileIdTokenUtil.decode("abc"));
+		assertNull(fileIdTokenUtil.decode("!!!!"));
+		String token = fileIdTokenUtil.encode(1);
+		char c = token.charAt(0) == 'A' ? 'B' : 'A';
+		assertNull(fileIdTokenUtil.decode(c + token.substring(1)));
+	}
+
+	/**
+	 * Case.1_3 ファイルIDトークン試験 マスター鍵の設定<br>
+	 * <br>
+	 * ■対象メソッド：init()<br>
+	 * ■試験パラメータ：未設定、32バイト未満、同じ値で再初期化<br>
+	 * ■試験観点：<br>
+	 * 　・未設定・32バイト未満の場合は起動できないこと<br>
+	 * 　・同じ値であれば再起動後もトークンを復元できること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() {
+		String token = fileIdTokenUtil.encode(12345);
+
+		FileIdTokenUtil restarted = new FileIdTokenUtil();
+		ReflectionTestUtils.setField(restarted, "loginUserDto", loginUserDto);
+		ReflectionTestUtils.setField(restarted, "secret", "");
+		assertThrows(IllegalStateException.class, restarted::init);
+		ReflectionTestUtils.setField(restarted, "secret", "short-secret");
+		assertThrows(IllegalStateException.class, restarted::init);
+
+		ReflectionTestUtils.setField(restarted, "secret", "test-secret-0123456789abcdef0123");
+		restarted.init();
+		assertEquals(12345, restarted.decode(token));
+	}
+
+}
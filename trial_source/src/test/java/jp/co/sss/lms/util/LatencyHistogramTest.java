@@ -0,0 +1,51 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 処理時間の分布試験
+ *
+ */
+public class LatencyHistogramTest {
+
+	/**
+	 * Case.1_1 処理時間の分布試験 区間毎の累計・百分位<br>
+	 * <br>
+	 * ■対象メソッド：record()、getCumulativeCounts()、getQuantileMillis()<br>
+	 * ■試験パラメータ：1ms×8件、20ms×1件、20000ms×1件<br>
+	 * ■試験観点：<br>
+	 * 　・区間の上限と等しい処理時間はその区間に数えられること<br>
+	 * 　・上限を超える処理時間は上限なしの区間に数えられること<br>
+	 * 　・百分位が該当する区間内で補間されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getQuantileMillis(0.5));
+		for (int i = 0; i < 8; i++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(20));
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(20000));
+
+		long[] cumulativeCounts = histogram.getCumulativeCounts();
+		assertEquals(LatencyHistogram.getBucketMillis().length + 1, cumulativeCounts.length);
+		assertEquals(8, cumulativeCounts[0]);
+		assertEquals(8, cumulativeCounts[3]);
+		assertEquals(9, cumulativeCounts[4]);
+		assertEquals(9, cumulativeCounts[cumulativeCounts.length - 2]);
+		assertEquals(10, cumulativeCounts[cumulativeCounts.length - 1]);
+		assertEquals(10, histogram.getCount());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(20000), histogram.getMaxNanos());
+
+		assertEquals(0.5, histogram.getQuantileMillis(0.4), 0.001);
+		assertEquals(10 + 15 * 0.5, histogram.getQuantileMillis(0.85), 0.001);
+		assertEquals(20000, histogram.getQuantileMillis(0.99), 0.001);
+	}
+
+}
@@ -0,0 +1,54 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+
+/**
+ * ログユーティリティ試験
+ *
+ */
+public class LoggingUtilTest {
+
+	/**
+	 * Case.1_1 ログユーティリティ試験 アクセスログの入力値のエスケープ<br>
+	 * <br>
+	 * ■対象メソッド：getAccessLog()<br>
+	 * ■試験パラメータ：改行・復帰・タブ・制御文字・引用符を含むヘッダ・入力値<br>
+	 * ■試験観点：<br>
+	 * 　・アクセスログが1行で出力されること<br>
+	 * 　・制御文字がエスケープされ、引用符で囲まれること<br>
+	 * 　・パスワードは表示されないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/lms/login");
+		request.addHeader("User-Agent", "agent\r\nmethod=GET");
+		request.addParameter("loginId", "user01\nstatus=200");
+		request.addParameter("comment", "a\t\"b\"\\\u0007");
+		request.addParameter("name\n", "x");
+		request.addParameter("password", "pass\nword");
+
+		LoggingUtil loggingUtil = new LoggingUtil();
+		ReflectionTestUtils.setField(loggingUtil, "request", request);
+		ReflectionTestUtils.setField(loggingUtil, "loginUserDto", new LoginUserDto());
+		ReflectionTestUtils.setField(loggingUtil, "accessLogHeaders", new String[] { "User-Agent" });
+
+		String accessLog = loggingUtil.getAccessLog(200, 12L, 3);
+
+		assertFalse(accessLog.contains("\n"));
+		assertFalse(accessLog.contains("\r"));
+		assertEquals("method=POST uri=/lms/login status=200 elapsedMs=12 sqlCount=3"
+				+ " header.User-Agent=\"agent\\r\\nmethod=GET\""
+				+ " param.loginId=\"user01\\nstatus=200\""
+				+ " param.comment=\"a\\t\\\"b\\\"\\\\\\u0007\""
+				+ " param.\"name\\n\"=x"
+				+ " param.password=*****", accessLog);
+	}
+
+}
@@ -0,0 +1,142 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * ログインロックの保持方式（メモリ）試験
+ *
+ */
+public class MemoryLoginLockStoreTest {
+
+	/** ロック期間（ミリ秒） */
+	private static final long LOCK_MILLIS = 60_000L;
+	/** NG回数のリセット期間（ミリ秒） */
+	private static final long RESET_MILLIS = 1_800_000L;
+
+	private final MemoryLoginLockStore store = new MemoryLoginLockStore(3, LOCK_MILLIS,
+			RESET_MILLIS, 2);
+
+	/**
+	 * Case.1_1 ログインロック試験 NG回数の加算_ロック・解除<br>
+	 * <br>
+	 * ■対象メソッド：addFailure()、isLocked()<br>
+	 * ■試験パラメータ：ロックするNG回数=3、ロック期間=1分<br>
+	 * ■試験観点：<br>
+	 * 　・3回目のNGでロックされ、他のログインIDはロックされないこと<br>
+	 * 　・ロック期間中のNGではロック期間が延長されないこと<br>
+	 * 　・ロック期間経過後は解除され、NG回数が1から数え直されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		long now = 1_700_000_000_000L;
+		assertFalse(store.addFailure("user1", now));
+		assertFalse(store.addFailure("user1", now + 1));
+		assertFalse(store.isLocked("user1", now + 2));
+		assertTrue(store.addFailure("user1", now + 2));
+		assertTrue(store.isLocked("user1", now + 3));
+		assertFalse(store.isLocked("user2", now + 3));
+
+		assertTrue(store.addFailure("user1", now + 30_000L));
+		assertFalse(store.isLocked("user1", now + 2 + LOCK_MILLIS));
+		assertFalse(store.addFailure("user1", now + 2 + LOCK_MILLIS));
+		assertFalse(store.isLocked("user1", now + 3 + LOCK_MILLIS));
+	}
+
+	/**
+	 * Case.1_2 ログインロック試験 リセット・期限切れの削除<br>
+	 * <br>
+	 * ■対象メソッド：reset()、purge()<br>
+	 * ■試験パラメータ：ロックするNG回数=3、リセット期間=30分<br>
+	 * ■試験観点：<br>
+	 * 　・リセット後はNG回数が1から数え直されること<br>
+	 * 　・リセット期間を過ぎたNG回数は加算されないこと<br>
+	 * 　・期限切れの情報のみ削除されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() {
+		long now = 1_700_000_000_000L;
+		store.addFailure("user1", now);
+		store.addFailure("user1", now);
+		store.reset("user1");
+		store.addFailure("user1", now);
+		assertFalse(store.addFailure("user1", now));
+
+		assertFalse(store.addFailure("user1", now + RESET_MILLIS));
+		assertFalse(store.addFailure("user1", now + RESET_MILLIS));
+		assertTrue(store.addFailure("user1", now + RESET_MILLIS));
+
+		store.addFailure("user2", now);
+		store.purge(now + RESET_MILLIS);
+		assertEquals(1, store.getSize());
+		assertTrue(store.isLocked("user1", now + RESET_MILLIS));
+	}
+
+	/**
+	 * Case.1_3 ログインロック試験 削除中の加算<br>
+	 * <br>
+	 * ■対象メソッド：addFailure()、purge()<br>
+	 * ■試験パラメータ：削除対象として削除済みに更新された後、ログインIDの削除前に加算<br>
+	 * ■試験観点：<br>
+	 * 　・削除済みの状態には加算されず、削除済みの状態を削除して登録し直した状態に加算されること<br>
+	 * 　・登録し直した状態は削除されないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() {
+		long now = 1_700_000_000_000L;
+		store.addFailure("user1", now);
+		@SuppressWarnings("unchecked")
+		Map<String, AtomicLong> stateMap = (Map<String, AtomicLong>) ReflectionTestUtils
+				.getField(store, "stateMap");
+		AtomicLong removed = stateMap.get("user1");
+		removed.set(-1L);
+
+		assertFalse(store.addFailure("user1", now + RESET_MILLIS));
+		assertFalse(store.addFailure("user1", now + RESET_MILLIS));
+		assertTrue(store.addFailure("user1", now + RESET_MILLIS));
+		assertNotSame(removed, stateMap.get("user1"));
+		assertFalse(stateMap.remove("user1", removed));
+		store.purge(now + RESET_MILLIS);
+		assertEquals(1, store.getSize());
+		assertTrue(store.isLocked("user1", now + RESET_MILLIS));
+	}
+
+	/**
+	 * Case.1_4 ログインロック試験 上限件数<br>
+	 * <br>
+	 * ■対象メソッド：addFailure()、purge()<br>
+	 * ■試験パラメータ：上限件数=2、ログインID user1,user2,user3の順にNG<br>
+	 * ■試験観点：<br>
+	 * 　・上限に達している間は新しいログインIDを保持しないこと<br>
+	 * 　・保持済みのログインIDは上限に達していても加算されること<br>
+	 * 　・期限切れの削除後は新しいログインIDを保持すること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_4() {
+		long now = 1_700_000_000_000L;
+		store.addFailure("user1", now);
+		store.addFailure("user2", now + RESET_MILLIS / 2);
+		assertFalse(store.addFailure("user3", now + 1));
+		assertFalse(store.addFailure("user3", now + 1));
+		assertFalse(store.addFailure("user3", now + 1));
+		assertEquals(2, store.getSize());
+		assertFalse(store.isLocked("user3", now + 1));
+		store.addFailure("user1", now + 1);
+		assertTrue(store.addFailure("user1", now + 1));
+
+		store.purge(now + 1 + LOCK_MILLIS);
+		assertEquals(1, store.getSize());
+		store.addFailure("user3", now + 2 + LOCK_MILLIS);
+		assertEquals(2, store.getSize());
+	}
+
+}
@@ -0,0 +1,131 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * パスワードユーティリティ試験
+ *
+ */
+public class PasswordUtilTest {
+
+	private PasswordUtil passwordUtil;
+
+	@BeforeEach
+	public void setup() {
+		passwordUtil = createPasswordUtil(PasswordUtil.HASH_ENGINE_PBKDF2, 1000);
+	}
+
+	/**
+	 * Case.1_1 パスワードユーティリティ試験 従来方式_互換性<br>
+	 * <br>
+	 * ■対象メソッド：getSaltedAndStrechedPassword(), matches()<br>
+	 * ■試験パラメータ："Password1", "user01"<br>
+	 * ■試験観点：<br>
+	 * 　・従来の文字列連結による計算結果と一致すること<br>
+	 * 　・従来方式のハッシュ値で照合できること<br>
+	 * 　・従来方式のハッシュ値は移行対象となること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		String expected = legacyHash("Password1", "user01");
+		String hashed = passwordUtil.getSaltedAndStrechedPassword("Password1", "user01");
+		assertEquals(expected, hashed);
+		assertTrue(passwordUtil.matches("Password1", "user01", hashed));
+		assertFalse(passwordUtil.matches("Password2", "user01", hashed));
+		assertTrue(passwordUtil.needsRehash(hashed));
+	}
+
+	/**
+	 * Case.1_2 パスワードユーティリティ試験 PBKDF2_照合と移行判定<br>
+	 * <br>
+	 * ■対象メソッド：encodePassword(), matches(), needsRehash()<br>
+	 * ■試験パラメータ："Password1", "user01"<br>
+	 * ■試験観点：<br>
+	 * 　・反復回数・saltを含む形式で保存されること<br>
+	 * 　・saltはハッシュ化の都度生成され、同じパスワードでもハッシュ値が異なること<br>
+	 * 　・反復回数を変更しても登録済みのハッシュ値で照合できること<br>
+	 * 　・反復回数が異なるハッシュ値は移行対象となること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() {
+		String hashed = passwordUtil.encodePassword("Password1", "user01");
+		assertTrue(hashed.matches("pbkdf2\\$1000\\$[0-9a-f]{32}\\$[0-9a-f]{64}"));
+		String another = passwordUtil.encodePassword("Password1", "user01");
+		assertNotEquals(hashed, another);
+		assertTrue(passwordUtil.matches("Password1", "user01", another));
+		assertFalse(passwordUtil.matches("Password2", "user01", hashed));
+		assertTrue(passwordUtil.matches("Password1", "user01", hashed));
+		assertFalse(passwordUtil.needsRehash(hashed));
+
+		PasswordUtil changed = createPasswordUtil(PasswordUtil.HASH_ENGINE_PBKDF2, 2000);
+		assertTrue(changed.matches("Password1", "user01", hashed));
+		assertTrue(changed.needsRehash(hashed));
+		assertFalse(changed.matches("Password1", "user01", "pbkdf2$x$00$00"));
+		assertFalse(changed.matches("Password1", "user01", "pbkdf2$1000$zz$00"));
+	}
+
+	/**
+	 * Case.1_3 パスワードユーティリティ試験 照合時間の均一化<br>
+	 * <br>
+	 * ■対象メソッド：equalizeCost()<br>
+	 * ■試験パラメータ：登録済みのハッシュ値=null（ログインIDなし）、従来方式、設定された方式<br>
+	 * ■試験観点：<br>
+	 * 　・ログインIDが存在しない場合、従来方式の場合は設定された方式でダミーの照合を行うこと<br>
+	 * 　・設定された方式の場合は照合自体が同じ時間となるため、ダミーの照合を行わないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() {
+		String current = passwordUtil.encodePassword("Password1", "user01");
+		String legacy = passwordUtil.getSaltedAndStrechedPassword("Password1", "user01");
+		PasswordHashEngine engine = spy(new Pbkdf2PasswordHashEngine(1000));
+		ReflectionTestUtils.setField(passwordUtil, "currentEngine", engine);
+
+		passwordUtil.equalizeCost("Password1", null);
+		passwordUtil.equalizeCost("Password1", legacy);
+		verify(engine, times(2)).matches(eq("Password1"), eq("dummy"), anyString());
+
+		passwordUtil.equalizeCost("Password1", current);
+		verify(engine, times(2)).matches(anyString(), anyString(), anyString());
+	}
+
+	private PasswordUtil createPasswordUtil(String engine, int iterations) {
+		PasswordUtil util = new PasswordUtil();
+		ReflectionTestUtils.setField(util, "hashEngineName", engine);
+		ReflectionTestUtils.setField(util, "pbkdf2Iterations", iterations);
+		util.init();
+		return util;
+	}
+
+	private String legacyHash(String password, String userId) throws Exception {
+		String salt = sha256(userId);
+		String saltedPassword = sha256(salt + password);
+		String hash = "";
+		for (int i = 0; i < 10; i++) {
+			hash = sha256(hash + salt + saltedPassword);
+		}
+		return hash;
+	}
+
+	private String sha256(String target) throws Exception {
+		byte[] digest = MessageDigest.getInstance("SHA-256")
+				.digest(target.getBytes(StandardCharsets.UTF_8));
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+}
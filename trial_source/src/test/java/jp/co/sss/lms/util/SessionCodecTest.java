@@ -0,0 +1,112 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jp.co.sss.lms.dto.AccessGateDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+
+/**
+ * セッションコーデック試験
+ *
+ */
+public class SessionCodecTest {
+
+	private LoginUserDto loginUserDto;
+
+	@BeforeEach
+	public void setup() {
+		loginUserDto = new LoginUserDto();
+		loginUserDto.setUserId(1);
+		loginUserDto.setLmsUserId(10);
+		loginUserDto.setUserName("東京 太郎");
+		loginUserDto.setRole("ROLE_STUDENT");
+		loginUserDto.setCompanyId(2);
+		loginUserDto.setCompanyName("株式会社システムシェアード");
+		loginUserDto.setPlaceId(3);
+		loginUserDto.setPlaceName("東京会場");
+		loginUserDto.setHiddenFlg((short) 0);
+		loginUserDto.setCourseId(4);
+		loginUserDto.setCourseName("Javaエンジニア育成コース");
+		loginUserDto.setSecurityAgreeFlg((short) 1);
+		loginUserDto.setPasswordChangeDate(new Date(1_700_000_000_000L));
+		loginUserDto.setMailAddress("taro@example.com");
+		loginUserDto.setFileShareFlg((short) 1);
+	}
+
+	/**
+	 * Case.1_1 セッションコーデック試験 符号化と復号<br>
+	 * <br>
+	 * ■対象メソッド：encode(), decode()<br>
+	 * ■試験パラメータ：ログイン情報DTO、同一インスタンスの別名、文字列、シリアライズ可能なDTO、シリアライズできない値<br>
+	 * ■試験観点：<br>
+	 * 　・ログイン情報DTO・文字列・DTOが元の値に復号されること<br>
+	 * 　・同一インスタンスの別名は復号後も同一インスタンスとなること<br>
+	 * 　・シリアライズできない値は保存されないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		AccessGateDto accessGateDto = new AccessGateDto();
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		attributes.put("scopedTarget.loginUserDto", loginUserDto);
+		attributes.put("loginUser", loginUserDto);
+		attributes.put("sessionTimeout", "セッションがタイムアウトしました。");
+		attributes.put("scopedTarget.accessGateDto", accessGateDto);
+		attributes.put("lock", new Object());
+
+		Map<String, Object> decoded = SessionCodec.decode(SessionCodec.encode(attributes));
+
+		assertEquals(4, decoded.size());
+		assertEquals(loginUserDto, decoded.get("scopedTarget.loginUserDto"));
+		assertSame(decoded.get("scopedTarget.loginUserDto"), decoded.get("loginUser"));
+		assertEquals("セッションがタイムアウトしました。", decoded.get("sessionTimeout"));
+		assertEquals(accessGateDto, decoded.get("scopedTarget.accessGateDto"));
+		assertFalse(decoded.containsKey("lock"));
+	}
+
+	/**
+	 * Case.1_2 セッションコーデック試験 サイズと変更判定<br>
+	 * <br>
+	 * ■対象メソッド：encode()<br>
+	 * ■試験パラメータ：ログイン情報DTO<br>
+	 * ■試験観点：<br>
+	 * 　・Javaのシリアライズの半分以下のサイズとなること<br>
+	 * 　・属性の登録順に関わらず、同じ属性からは同じバイト列となること<br>
+	 * 　・属性を変更した場合はバイト列が変わること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() throws IOException {
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		attributes.put("scopedTarget.loginUserDto", loginUserDto);
+		attributes.put("sessionTimeout", "");
+		byte[] encoded = SessionCodec.encode(attributes);
+
+		ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+			out.writeObject(new LinkedHashMap<>(attributes));
+		}
+		assertTrue(encoded.length * 2 <= serialized.size());
+
+		Map<String, Object> reversed = new LinkedHashMap<>();
+		reversed.put("sessionTimeout", "");
+		reversed.put("scopedTarget.loginUserDto", SessionCodec.decode(encoded)
+				.get("scopedTarget.loginUserDto"));
+		assertArrayEquals(encoded, SessionCodec.encode(reversed));
+
+		loginUserDto.setSecurityAgreeFlg((short) 0);
+		assertFalse(Arrays.equals(encoded, SessionCodec.encode(attributes)));
+	}
+
+}
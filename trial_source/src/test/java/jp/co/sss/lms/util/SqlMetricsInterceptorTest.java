@@ -0,0 +1,140 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jp.co.sss.lms.dto.SqlStatDto;
+
+/**
+ * SQL実行統計インターセプター試験
+ *
+ */
+public class SqlMetricsInterceptorTest {
+
+	private SqlMetricsInterceptor sqlMetricsInterceptor;
+
+	private Executor executor;
+
+	private MappedStatement mappedStatement;
+
+	private Method queryMethod;
+
+	private MockHttpServletRequest request;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		sqlMetricsInterceptor = new SqlMetricsInterceptor();
+		ReflectionTestUtils.setField(sqlMetricsInterceptor, "repeatThreshold", 3);
+		executor = mock(Executor.class);
+		Configuration configuration = new Configuration();
+		mappedStatement = new MappedStatement.Builder(configuration,
+				"jp.co.sss.lms.mapper.TStudentAttendanceMapper.getAttendanceManagement",
+				new StaticSqlSource(configuration, "SELECT 1"), SqlCommandType.SELECT).build();
+		queryMethod = Executor.class.getMethod("query", MappedStatement.class, Object.class,
+				RowBounds.class, ResultHandler.class);
+		request = new MockHttpServletRequest("GET", "/lms/attendance/detail");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	/**
+	 * Case.1_1 SQL実行統計試験 ステートメント毎の集計・繰り返し実行<br>
+	 * <br>
+	 * ■対象メソッド：intercept()、completeRequest()、getSqlStatDtoList()<br>
+	 * ■試験パラメータ：1リクエストで同じステートメントを3回実行（うち1回はエラー）、繰り返し実行とする回数=3<br>
+	 * ■試験観点：<br>
+	 * 　・実行件数・エラー件数・取得件数・処理時間の分布が集計されること<br>
+	 * 　・リクエスト中の実行件数が返され、繰り返し実行として記録されること<br>
+	 * 　・リクエスト外の実行はリクエストの件数に含まれないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() throws Throwable {
+		when(executor.query(any(), any(), any(), any())).thenReturn(List.of(1, 2))
+				.thenReturn(List.of(3)).thenThrow(new SQLException("timeout"));
+		Object[] args = { mappedStatement, null, RowBounds.DEFAULT, null };
+		sqlMetricsInterceptor.intercept(new Invocation(executor, queryMethod, args));
+		sqlMetricsInterceptor.intercept(new Invocation(executor, queryMethod, args));
+		assertThrows(Exception.class, () -> sqlMetricsInterceptor
+				.intercept(new Invocation(executor, queryMethod, args)));
+
+		assertEquals(3, sqlMetricsInterceptor.completeRequest(request));
+		assertEquals(0, sqlMetricsInterceptor.completeRequest(request));
+
+		RequestContextHolder.resetRequestAttributes();
+		doReturn(List.of()).when(executor).query(any(), any(), any(), any());
+		sqlMetricsInterceptor.intercept(new Invocation(executor, queryMethod, args));
+
+		SqlStatDto sqlStatDto = sqlMetricsInterceptor.getSqlStatDtoList().get(0);
+		assertEquals(mappedStatement.getId(), sqlStatDto.getStatementId());
+		assertEquals(4L, sqlStatDto.getCallCount());
+		assertEquals(1L, sqlStatDto.getErrorCount());
+		assertEquals(3L, sqlStatDto.getRowCount());
+		assertEquals(4L, sqlStatDto.getHistogram().get("+Inf"));
+		assertEquals(1L, sqlStatDto.getRepeatCount());
+		assertEquals("/lms/attendance/detail", sqlStatDto.getRepeatUri());
+		assertEquals(1L, sqlMetricsInterceptor.getRequestCount());
+		assertEquals(3L, sqlMetricsInterceptor.getRequestStatementCount());
+	}
+
+	/**
+	 * Case.1_2 SQL実行統計試験 集計結果の出力<br>
+	 * <br>
+	 * ■対象メソッド：createReport()<br>
+	 * ■試験パラメータ：1回目の出力前に1リクエストで3回、2回目の出力前に1リクエストで1回実行、繰り返し実行とする回数=3<br>
+	 * ■試験観点：<br>
+	 * 　・リクエスト件数・SQLの件数・最大件数・繰り返し実行件数が前回出力からの値となること<br>
+	 * 　・前回出力からSQLを実行していない場合は出力しないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() throws Throwable {
+		when(executor.query(any(), any(), any(), any())).thenReturn(List.of(1));
+		Object[] args = { mappedStatement, null, RowBounds.DEFAULT, null };
+		for (int i = 0; i < 3; i++) {
+			sqlMetricsInterceptor.intercept(new Invocation(executor, queryMethod, args));
+		}
+		sqlMetricsInterceptor.completeRequest(request);
+		String first = sqlMetricsInterceptor.createReport();
+		assertTrue(first.contains(" requests=1 statements=3 maxPerRequest=3\n"), first);
+		assertTrue(first.contains(mappedStatement.getId() + " count=3 "), first);
+		assertTrue(first.endsWith(" repeat=1"), first);
+
+		sqlMetricsInterceptor.intercept(new Invocation(executor, queryMethod, args));
+		sqlMetricsInterceptor.completeRequest(request);
+		String second = sqlMetricsInterceptor.createReport();
+		assertTrue(second.contains(" requests=1 statements=1 maxPerRequest=1\n"), second);
+		assertTrue(second.contains(mappedStatement.getId() + " count=1 "), second);
+		assertTrue(second.endsWith(" repeat=0"), second);
+
+		assertNull(sqlMetricsInterceptor.createReport());
+		assertEquals(2L, sqlMetricsInterceptor.getRequestCount());
+		assertEquals(3L, sqlMetricsInterceptor.getRequestStatementMax());
+	}
+
+}
@@ -0,0 +1,104 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 研修時刻ユーティリティ試験
+ *
+ */
+public class TrainingTimeTest {
+
+	/**
+	 * Case.1_1 研修時刻試験 文字列解析_有効フォーマット<br>
+	 * <br>
+	 * ■対象メソッド：valueOf()<br>
+	 * ■試験パラメータ："9:00", "18:05", "0930", ""<br>
+	 * ■試験観点：<br>
+	 * 　・時・分が正しく解析されること<br>
+	 * 　・空文字は未設定となること<br>
+	 * 　・24時間以内の時刻はキャッシュが返却されること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		assertEquals("09:00", TrainingTime.valueOf("9:00").toString());
+		assertEquals(18, TrainingTime.valueOf("18:05").getHour());
+		assertEquals(5, TrainingTime.valueOf("18:05").getMinute());
+		assertEquals(570, TrainingTime.valueOf("0930").toMinutes());
+		assertTrue(TrainingTime.valueOf("").isBlank());
+		assertNull(TrainingTime.valueOf("").getHour());
+		assertSame(TrainingTime.valueOf("09:30"), TrainingTime.of(9, 30));
+		assertEquals(new TrainingTime("09:30"), TrainingTime.of(9, 30));
+	}
+
+	/**
+	 * Case.1_2 研修時刻試験 文字列解析_無効フォーマット<br>
+	 * <br>
+	 * ■対象メソッド：valueOf()<br>
+	 * ■試験パラメータ："9:60", "9-00", "930", "a9:00", ":00"<br>
+	 * ■試験観点：<br>
+	 * 　・IllegalArgumentExceptionが発生すること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() {
+		for (String timeStr : new String[] { "9:60", "9-00", "930", "a9:00", ":00", "9:" }) {
+			assertFalse(TrainingTime.isValidTrainingTime(timeStr));
+			assertThrows(IllegalArgumentException.class, () -> TrainingTime.valueOf(timeStr));
+		}
+		assertThrows(IllegalArgumentException.class, () -> TrainingTime.of(9, null));
+	}
+
+	/**
+	 * Case.1_3 研修時刻試験 加算・減算・比較<br>
+	 * <br>
+	 * ■対象メソッド：add(), subtract(), compareTo(), toMinutes()<br>
+	 * ■試験観点：<br>
+	 * 　・繰り上がり・繰り下がりが正しく計算されること<br>
+	 * 　・開始時刻より前の時刻からの減算はUnsupportedOperationExceptionとなること<br>
+	 * 　・未設定の時刻は設定済みの時刻より小さいこと<br>
+	 * 　・未設定の時刻の計算はIllegalStateExceptionとなり、未設定の値がメッセージに含まれること<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() {
+		TrainingTime start = TrainingTime.valueOf("09:45");
+		TrainingTime end = TrainingTime.valueOf("18:15");
+		assertEquals("08:30", end.subtract(start).toString());
+		assertEquals("00:00", start.subtract(start).toString());
+		assertEquals("28:00", start.add(end).add(TrainingTime.of(0, 0)).toString());
+		assertThrows(UnsupportedOperationException.class, () -> start.subtract(end));
+		assertTrue(start.compareTo(end) < 0);
+		assertTrue(start.compareTo(null) > 0);
+		assertTrue(TrainingTime.BLANK.compareTo(start) < 0);
+		assertEquals("研修時刻が未設定です",
+				assertThrows(IllegalStateException.class, () -> TrainingTime.BLANK.toMinutes())
+						.getMessage());
+		assertTrue(assertThrows(IllegalStateException.class, () -> start.add(TrainingTime.BLANK))
+				.getMessage().contains("augend"));
+		assertTrue(assertThrows(IllegalStateException.class, () -> start.subtract(TrainingTime.BLANK))
+				.getMessage().contains("subtrahend"));
+	}
+
+	/**
+	 * Case.1_4 研修時刻試験 15分刻みの丸め<br>
+	 * <br>
+	 * ■対象メソッド：roundUp(), roundDown()<br>
+	 * ■試験観点：<br>
+	 * 　・切り上げ・切り捨てが15分刻みで行われること<br>
+	 * 　・元のインスタンスが変更されないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_4() {
+		TrainingTime time = TrainingTime.valueOf("09:46");
+		assertEquals("10:00", time.roundUp().toString());
+		assertEquals("09:45", time.roundDown().toString());
+		assertEquals("09:00", TrainingTime.valueOf("09:00").roundUp().toString());
+		assertEquals("09:15", TrainingTime.valueOf("09:01").roundUp().toString());
+		assertEquals("09:46", time.toString());
+	}
+
+}
@@ -0,0 +1,132 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * バージョン照合付きキャッシュ試験
+ *
+ */
+public class VersionedCacheTest {
+
+	/** キー毎のバージョン */
+	private final Map<Integer, String> versionMap = new HashMap<>();
+	/** 値を読み込んだキー */
+	private final List<Integer> loadedKeyList = new ArrayList<>();
+
+	/**
+	 * Case.1_1 バージョン照合付きキャッシュ試験 上限件数を超えた値の破棄<br>
+	 * <br>
+	 * ■対象メソッド：get()<br>
+	 * ■試験パラメータ：上限件数=2、キー1,2,1,3の順に参照<br>
+	 * ■試験観点：<br>
+	 * 　・上限件数を超えた場合、最後に参照された時刻が最も古いキー2が破棄されること<br>
+	 * 　・破棄されていないキーは読み込み直さないこと<br>
+	 * 　・破棄されたキーは再度参照した場合に読み込み直すこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_1() {
+		VersionedCache<Integer, String> cache = createCache(2, 60_000L);
+		versionMap.put(1, "v1");
+		versionMap.put(2, "v1");
+		versionMap.put(3, "v1");
+
+		assertEquals("1:v1", cache.get(1));
+		assertEquals("2:v1", cache.get(2));
+		assertEquals("1:v1", cache.get(1));
+		assertEquals("3:v1", cache.get(3));
+		assertEquals(2, cache.getSize());
+		assertEquals(List.of(1, 2, 3), loadedKeyList);
+
+		assertEquals("1:v1", cache.get(1));
+		assertEquals(List.of(1, 2, 3), loadedKeyList);
+		assertEquals("2:v1", cache.get(2));
+		assertEquals(List.of(1, 2, 3, 2), loadedKeyList);
+		assertEquals(2, cache.getSize());
+		assertEquals(4, cache.getLoadCount());
+		assertEquals(2, cache.getHitCount());
+	}
+
+	/**
+	 * Case.1_2 バージョン照合付きキャッシュ試験 バージョン変更の検知<br>
+	 * <br>
+	 * ■対象メソッド：get()<br>
+	 * ■試験パラメータ：照合間隔=0ミリ秒、バージョンをv1→v2→削除（null）の順に変更<br>
+	 * ■試験観点：<br>
+	 * 　・バージョンが同じ間は保持している値を返し、読み込み直さないこと<br>
+	 * 　・バージョンが変わった場合に読み込み直すこと<br>
+	 * 　・バージョンが取得できない場合はnullを返し、値を読み込まないこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_2() {
+		VersionedCache<Integer, String> cache = createCache(2, 0L);
+		versionMap.put(1, "v1");
+
+		String first = cache.get(1);
+		assertSame(first, cache.get(1));
+		assertEquals(List.of(1), loadedKeyList);
+
+		versionMap.put(1, "v2");
+		assertEquals("1:v2", cache.get(1));
+		assertEquals(List.of(1, 1), loadedKeyList);
+
+		versionMap.remove(1);
+		assertNull(cache.get(1));
+		assertEquals(List.of(1, 1), loadedKeyList);
+		assertEquals(2, cache.getLoadCount());
+	}
+
+	/**
+	 * Case.1_3 バージョン照合付きキャッシュ試験 照合間隔内・値の破棄<br>
+	 * <br>
+	 * ■対象メソッド：get()、invalidate()、invalidateAll()<br>
+	 * ■試験パラメータ：照合間隔=60秒、照合間隔内にバージョンをv1→v2に変更<br>
+	 * ■試験観点：<br>
+	 * 　・照合間隔内はバージョンが変わっても保持している値を返すこと<br>
+	 * 　・破棄した場合は照合間隔内でも読み込み直すこと<br>
+	 *
+	 */
+	@Test
+	public void testCase1_3() {
+		VersionedCache<Integer, String> cache = createCache(2, 60_000L);
+		versionMap.put(1, "v1");
+		versionMap.put(2, "v1");
+		cache.get(1);
+		cache.get(2);
+
+		versionMap.put(1, "v2");
+		assertEquals("1:v1", cache.get(1));
+
+		cache.invalidate(1);
+		assertEquals(1, cache.getSize());
+		assertEquals("1:v2", cache.get(1));
+
+		cache.invalidateAll();
+		assertEquals(0, cache.getSize());
+		assertEquals("2:v1", cache.get(2));
+		assertEquals(List.of(1, 2, 1, 2), loadedKeyList);
+	}
+
+	/**
+	 * キャッシュの生成
+	 *
+	 * @param maxSize     保持する値の上限件数
+	 * @param checkMillis バージョンの照合間隔（ミリ秒）
+	 * @return キャッシュ
+	 */
+	private VersionedCache<Integer, String> createCache(int maxSize, long checkMillis) {
+		return new VersionedCache<>(maxSize, checkMillis, versionMap::get, (key, version) -> {
+			loadedKeyList.add(key);
+			return key + ":" + version;
+		});
+	}
+
+}